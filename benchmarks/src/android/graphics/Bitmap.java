@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * Copyright 2013 Sergey Tarasevich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package android.graphics;
+
+/**
+ * Plain-JVM stand-in for Android Bitmap. Only dimensions and byte size are modelled, pixels aren't allocated.
+ * 
+ * @author Sergey Tarasevich (nostra13[at]gmail[dot]com)
+ * @since 1.8.5
+ */
+public final class Bitmap {
+
+	public enum Config {
+		ALPHA_8(1), RGB_565(2), ARGB_4444(2), ARGB_8888(4);
+
+		final int bytesPerPixel;
+
+		Config(int bytesPerPixel) {
+			this.bytesPerPixel = bytesPerPixel;
+		}
+	}
+
+	public enum CompressFormat {
+		JPEG, PNG
+	}
+
+	private final int width;
+	private final int height;
+	private final Config config;
+	private volatile boolean recycled;
+
+	private Bitmap(int width, int height, Config config) {
+		this.width = width;
+		this.height = height;
+		this.config = config;
+	}
+
+	public static Bitmap createBitmap(int width, int height, Config config) {
+		return new Bitmap(width, height, config);
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	public int getRowBytes() {
+		return width * config.bytesPerPixel;
+	}
+
+	public Config getConfig() {
+		return config;
+	}
+
+	public void recycle() {
+		recycled = true;
+	}
+
+	public boolean isRecycled() {
+		return recycled;
+	}
+}
@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright 2013 Sergey Tarasevich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.nostra13.universalimageloader.benchmarks;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.nostra13.universalimageloader.cache.disc.DiscCacheAware;
+import com.nostra13.universalimageloader.cache.disc.impl.FileCountLimitedDiscCache;
+import com.nostra13.universalimageloader.cache.disc.impl.LimitedAgeDiscCache;
+import com.nostra13.universalimageloader.cache.disc.impl.TotalSizeLimitedDiscCache;
+import com.nostra13.universalimageloader.cache.disc.impl.UnlimitedDiscCache;
+import com.nostra13.universalimageloader.cache.disc.naming.FileNameGenerator;
+import com.nostra13.universalimageloader.cache.disc.naming.HashCodeFileNameGenerator;
+
+/**
+ * Measures get/put throughput of disc cache implementations on temporary directory. Puts into limited caches cause
+ * evictions after warmup. Limits are chosen large enough to avoid warnings (logging is unavailable on plain JVM).
+ * 
+ * @author Sergey Tarasevich (nostra13[at]gmail[dot]com)
+ * @since 1.8.5
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DiscCacheBenchmark {
+
+	private static final int FILE_SIZE = 16 * 1024; // 16 Kb
+	private static final int FILE_COUNT_LIMIT = 256;
+	private static final int KEY_COUNT = FILE_COUNT_LIMIT * 2;
+
+	@Param({ "UnlimitedDiscCache", "TotalSizeLimitedDiscCache", "FileCountLimitedDiscCache", "LimitedAgeDiscCache" })
+	public String cacheType;
+
+	private File cacheDir;
+	private DiscCacheAware cache;
+	private String[] keys;
+	private byte[] content;
+
+	@Setup
+	public void setUp() throws IOException {
+		cacheDir = File.createTempFile("uil-disc-cache", "");
+		cacheDir.delete();
+		cacheDir.mkdirs();
+
+		FileNameGenerator fileNameGenerator = new HashCodeFileNameGenerator();
+		if ("UnlimitedDiscCache".equals(cacheType)) {
+			cache = new UnlimitedDiscCache(cacheDir, fileNameGenerator);
+		} else if ("TotalSizeLimitedDiscCache".equals(cacheType)) {
+			cache = new TotalSizeLimitedDiscCache(cacheDir, fileNameGenerator, FILE_COUNT_LIMIT * FILE_SIZE);
+		} else if ("FileCountLimitedDiscCache".equals(cacheType)) {
+			cache = new FileCountLimitedDiscCache(cacheDir, fileNameGenerator, FILE_COUNT_LIMIT);
+		} else if ("LimitedAgeDiscCache".equals(cacheType)) {
+			cache = new LimitedAgeDiscCache(cacheDir, fileNameGenerator, TimeUnit.DAYS.toSeconds(1));
+		} else {
+			throw new IllegalArgumentException("Unknown cache type: " + cacheType);
+		}
+
+		keys = new String[KEY_COUNT];
+		for (int i = 0; i < KEY_COUNT; i++) {
+			keys[i] = "http://site.com/images/" + i + ".png";
+		}
+		content = new byte[FILE_SIZE];
+		for (int i = 0; i < FILE_COUNT_LIMIT; i++) {
+			put(keys[i]);
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		cache.clear();
+		cacheDir.delete();
+	}
+
+	@Benchmark
+	public File get() {
+		return cache.get(keys[ThreadLocalRandom.current().nextInt(KEY_COUNT)]);
+	}
+
+	@Benchmark
+	public File put() throws IOException {
+		return put(keys[ThreadLocalRandom.current().nextInt(KEY_COUNT)]);
+	}
+
+	private File put(String key) throws IOException {
+		File file = cache.get(key);
+		FileOutputStream os = new FileOutputStream(file);
+		try {
+			os.write(content);
+		} finally {
+			os.close();
+		}
+		cache.put(key, file);
+		return file;
+	}
+}
@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright 2013 Sergey Tarasevich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.nostra13.universalimageloader.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.nostra13.universalimageloader.cache.disc.naming.FileNameGenerator;
+import com.nostra13.universalimageloader.cache.disc.naming.HashCodeFileNameGenerator;
+import com.nostra13.universalimageloader.cache.disc.naming.Md5FileNameGenerator;
+
+/**
+ * Measures speed of file name generation for disc cache.
+ * 
+ * @author Sergey Tarasevich (nostra13[at]gmail[dot]com)
+ * @since 1.8.5
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FileNameGeneratorBenchmark {
+
+	@Param({ "HashCodeFileNameGenerator", "Md5FileNameGenerator" })
+	public String generatorType;
+
+	@Param({ "32", "256" })
+	public int uriLength;
+
+	private FileNameGenerator generator;
+	private String uri;
+
+	@Setup
+	public void setUp() {
+		if ("HashCodeFileNameGenerator".equals(generatorType)) {
+			generator = new HashCodeFileNameGenerator();
+		} else if ("Md5FileNameGenerator".equals(generatorType)) {
+			generator = new Md5FileNameGenerator();
+		} else {
+			throw new IllegalArgumentException("Unknown generator type: " + generatorType);
+		}
+
+		StringBuilder sb = new StringBuilder("http://site.com/");
+		while (sb.length() < uriLength - 4) {
+			sb.append('a' + sb.length() % 26);
+		}
+		uri = sb.append(".png").toString();
+	}
+
+	@Benchmark
+	public String generate() {
+		return generator.generate(uri);
+	}
+}
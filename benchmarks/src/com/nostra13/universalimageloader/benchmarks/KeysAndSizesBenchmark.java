@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright 2013 Sergey Tarasevich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.nostra13.universalimageloader.benchmarks;
+
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import android.graphics.Bitmap;
+
+import com.nostra13.universalimageloader.cache.memory.MemoryCacheAware;
+import com.nostra13.universalimageloader.cache.memory.impl.LruMemoryCache;
+import com.nostra13.universalimageloader.core.assist.ImageSize;
+import com.nostra13.universalimageloader.core.assist.MemoryCacheUtil;
+import com.nostra13.universalimageloader.core.assist.ViewScaleType;
+import com.nostra13.universalimageloader.utils.ImageSizeUtils;
+
+/**
+ * Measures memory cache key functions of {@link MemoryCacheUtil} and sample size math of {@link ImageSizeUtils}.
+ * 
+ * @author Sergey Tarasevich (nostra13[at]gmail[dot]com)
+ * @since 1.8.5
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeysAndSizesBenchmark {
+
+	private static final int CACHED_IMAGE_COUNT = 100;
+
+	private final String uri = "http://site.com/images/photo.jpg";
+	private final ImageSize srcSize = new ImageSize(2048, 1536);
+	private final ImageSize targetSize = new ImageSize(480, 320);
+	private final Comparator<String> fuzzyKeyComparator = MemoryCacheUtil.createFuzzyKeyComparator();
+
+	private String key1;
+	private String key2;
+	private MemoryCacheAware<String, Bitmap> memoryCache;
+
+	@Setup
+	public void setUp() {
+		key1 = MemoryCacheUtil.generateKey(uri, targetSize);
+		key2 = MemoryCacheUtil.generateKey(uri, srcSize);
+
+		memoryCache = new LruMemoryCache(CACHED_IMAGE_COUNT * 16 * 16 * 4);
+		for (int i = 0; i < CACHED_IMAGE_COUNT; i++) {
+			String imageUri = i % 10 == 0 ? uri : uri + i;
+			memoryCache.put(MemoryCacheUtil.generateKey(imageUri, new ImageSize(i, i)), Bitmap.createBitmap(16, 16, Bitmap.Config.ARGB_8888));
+		}
+	}
+
+	@Benchmark
+	public String generateKey() {
+		return MemoryCacheUtil.generateKey(uri, targetSize);
+	}
+
+	@Benchmark
+	public int compareFuzzyKeys() {
+		return fuzzyKeyComparator.compare(key1, key2);
+	}
+
+	@Benchmark
+	public Object findCacheKeysForImageUri() {
+		return MemoryCacheUtil.findCacheKeysForImageUri(uri, memoryCache);
+	}
+
+	@Benchmark
+	public int computeImageSampleSizeFitInside() {
+		return ImageSizeUtils.computeImageSampleSize(srcSize, targetSize, ViewScaleType.FIT_INSIDE, false);
+	}
+
+	@Benchmark
+	public int computeImageSampleSizePowerOf2() {
+		return ImageSizeUtils.computeImageSampleSize(srcSize, targetSize, ViewScaleType.CROP, true);
+	}
+
+	@Benchmark
+	public float computeImageScale() {
+		return ImageSizeUtils.computeImageScale(srcSize, targetSize, ViewScaleType.CROP, false);
+	}
+}
@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright 2013 Sergey Tarasevich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.nostra13.universalimageloader.benchmarks;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import android.graphics.Bitmap;
+
+import com.nostra13.universalimageloader.cache.memory.MemoryCacheAware;
+import com.nostra13.universalimageloader.cache.memory.impl.FIFOLimitedMemoryCache;
+import com.nostra13.universalimageloader.cache.memory.impl.LRULimitedMemoryCache;
+import com.nostra13.universalimageloader.cache.memory.impl.LargestLimitedMemoryCache;
+import com.nostra13.universalimageloader.cache.memory.impl.LruMemoryCache;
+import com.nostra13.universalimageloader.cache.memory.impl.UsingFreqLimitedMemoryCache;
+import com.nostra13.universalimageloader.cache.memory.impl.WeakMemoryCache;
+
+/**
+ * Measures get/put throughput of memory cache implementations. Key set is 4 times larger than cache capacity so puts
+ * cause evictions and part of gets are misses. "Contended" benchmarks run the same cache on several threads.
+ * 
+ * @author Sergey Tarasevich (nostra13[at]gmail[dot]com)
+ * @since 1.8.5
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MemoryCacheBenchmark {
+
+	private static final int BITMAP_SIZE = 64; // 64x64 ARGB_8888 = 16 Kb
+	private static final int CACHE_CAPACITY = 256; // bitmaps
+	private static final int KEY_COUNT = CACHE_CAPACITY * 4;
+
+	@Param({ "LruMemoryCache", "LRULimitedMemoryCache", "FIFOLimitedMemoryCache", "LargestLimitedMemoryCache", "UsingFreqLimitedMemoryCache", "WeakMemoryCache" })
+	public String cacheType;
+
+	private MemoryCacheAware<String, Bitmap> cache;
+	private String[] keys;
+	private Bitmap[] bitmaps;
+
+	@Setup
+	public void setUp() {
+		int cacheSize = CACHE_CAPACITY * BITMAP_SIZE * BITMAP_SIZE * 4;
+		cache = createCache(cacheType, cacheSize);
+
+		keys = new String[KEY_COUNT];
+		bitmaps = new Bitmap[KEY_COUNT];
+		for (int i = 0; i < KEY_COUNT; i++) {
+			keys[i] = "http://site.com/images/" + i + ".png_" + BITMAP_SIZE + "x" + BITMAP_SIZE;
+			bitmaps[i] = Bitmap.createBitmap(BITMAP_SIZE, BITMAP_SIZE, Bitmap.Config.ARGB_8888);
+		}
+		for (int i = 0; i < CACHE_CAPACITY; i++) {
+			cache.put(keys[i], bitmaps[i]);
+		}
+	}
+
+	static MemoryCacheAware<String, Bitmap> createCache(String cacheType, int cacheSize) {
+		if ("LruMemoryCache".equals(cacheType)) {
+			return new LruMemoryCache(cacheSize);
+		} else if ("LRULimitedMemoryCache".equals(cacheType)) {
+			return new LRULimitedMemoryCache(cacheSize);
+		} else if ("FIFOLimitedMemoryCache".equals(cacheType)) {
+			return new FIFOLimitedMemoryCache(cacheSize);
+		} else if ("LargestLimitedMemoryCache".equals(cacheType)) {
+			return new LargestLimitedMemoryCache(cacheSize);
+		} else if ("UsingFreqLimitedMemoryCache".equals(cacheType)) {
+			return new UsingFreqLimitedMemoryCache(cacheSize);
+		} else if ("WeakMemoryCache".equals(cacheType)) {
+			return new WeakMemoryCache();
+		}
+		throw new IllegalArgumentException("Unknown cache type: " + cacheType);
+	}
+
+	@Benchmark
+	public Bitmap get() {
+		return cache.get(keys[ThreadLocalRandom.current().nextInt(KEY_COUNT)]);
+	}
+
+	@Benchmark
+	public boolean put() {
+		int i = ThreadLocalRandom.current().nextInt(KEY_COUNT);
+		return cache.put(keys[i], bitmaps[i]);
+	}
+
+	/** 80% gets, 20% puts */
+	@Benchmark
+	public Object mixed() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		int i = random.nextInt(KEY_COUNT);
+		if (random.nextInt(5) == 0) {
+			return cache.put(keys[i], bitmaps[i]);
+		} else {
+			return cache.get(keys[i]);
+		}
+	}
+
+	@Benchmark
+	@Threads(4)
+	public Object mixedContended() {
+		return mixed();
+	}
+}
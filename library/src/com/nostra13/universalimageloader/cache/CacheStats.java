@@ -0,0 +1,148 @@
+/*******************************************************************************
+ * Copyright 2013 Sergey Tarasevich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.nostra13.universalimageloader.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Statistics of cache usage: hits, misses, puts, evictions, current size and time of loading values which were missed
+ * in cache.<br />
+ * Memory caches count hits and misses on every <b>get()</b> call. Disc cache hits and misses (and load time of both
+ * caches) are recorded by {@link com.nostra13.universalimageloader.core.ImageLoader ImageLoader} because
+ * {@link com.nostra13.universalimageloader.cache.disc.DiscCacheAware#get(String) DiscCacheAware.get()} returns file
+ * whether it exists or not.<br />
+ * Sizes are measured in units of cache limit: in bytes for most caches, in files for
+ * {@link com.nostra13.universalimageloader.cache.disc.impl.FileCountLimitedDiscCache FileCountLimitedDiscCache}.<br />
+ * Class is thread-safe.
+ * 
+ * @author Sergey Tarasevich (nostra13[at]gmail[dot]com)
+ * @since 1.8.5
+ * @see CacheStatsAware
+ */
+public class CacheStats {
+
+	/** Current size value which means that cache doesn't track its size */
+	public static final long UNKNOWN_SIZE = -1;
+
+	private final AtomicLong hitCount = new AtomicLong();
+	private final AtomicLong missCount = new AtomicLong();
+	private final AtomicLong putCount = new AtomicLong();
+	private final AtomicLong evictionCount = new AtomicLong();
+	private final AtomicLong evictedSize = new AtomicLong();
+	private final AtomicLong loadCount = new AtomicLong();
+	private final AtomicLong totalLoadTime = new AtomicLong();
+	private final AtomicLong currentSize = new AtomicLong(UNKNOWN_SIZE);
+
+	public void recordHit() {
+		hitCount.incrementAndGet();
+	}
+
+	public void recordMiss() {
+		missCount.incrementAndGet();
+	}
+
+	public void recordPut() {
+		putCount.incrementAndGet();
+	}
+
+	/**
+	 * @param size Size of evicted value
+	 */
+	public void recordEviction(long size) {
+		evictionCount.incrementAndGet();
+		evictedSize.addAndGet(size);
+	}
+
+	/**
+	 * @param loadTime Time (in nanoseconds) which was spent to load value missed in cache
+	 */
+	public void recordLoad(long loadTime) {
+		loadCount.incrementAndGet();
+		totalLoadTime.addAndGet(loadTime);
+	}
+
+	/**
+	 * @param size Current size of cache or {@link #UNKNOWN_SIZE}
+	 */
+	public void setCurrentSize(long size) {
+		currentSize.set(size);
+	}
+
+	public long getHitCount() {
+		return hitCount.get();
+	}
+
+	public long getMissCount() {
+		return missCount.get();
+	}
+
+	/** Returns ratio of hits to all requests; or 1 if there were no requests */
+	public double getHitRate() {
+		long hits = hitCount.get();
+		long requests = hits + missCount.get();
+		return requests == 0 ? 1.0 : (double) hits / requests;
+	}
+
+	public long getPutCount() {
+		return putCount.get();
+	}
+
+	public long getEvictionCount() {
+		return evictionCount.get();
+	}
+
+	/** Returns total size of evicted values */
+	public long getEvictedSize() {
+		return evictedSize.get();
+	}
+
+	public long getLoadCount() {
+		return loadCount.get();
+	}
+
+	/** Returns total time (in nanoseconds) spent to load values missed in cache */
+	public long getTotalLoadTime() {
+		return totalLoadTime.get();
+	}
+
+	/** Returns average time (in nanoseconds) spent to load value missed in cache; or 0 if nothing was loaded */
+	public long getAverageLoadTime() {
+		long loads = loadCount.get();
+		return loads == 0 ? 0 : totalLoadTime.get() / loads;
+	}
+
+	/** Returns current size of cache or {@link #UNKNOWN_SIZE} if cache doesn't track its size */
+	public long getCurrentSize() {
+		return currentSize.get();
+	}
+
+	/** Resets all counters except current size */
+	public void reset() {
+		hitCount.set(0);
+		missCount.set(0);
+		putCount.set(0);
+		evictionCount.set(0);
+		evictedSize.set(0);
+		loadCount.set(0);
+		totalLoadTime.set(0);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("CacheStats[hits=%d, misses=%d, hitRate=%.2f, puts=%d, evictions=%d, evictedSize=%d, avgLoadTime=%dus, size=%d]", getHitCount(),
+				getMissCount(), getHitRate(), getPutCount(), getEvictionCount(), getEvictedSize(), getAverageLoadTime() / 1000, getCurrentSize());
+	}
+}
@@ -17,6 +17,8 @@ package com.nostra13.universalimageloader.cache.disc;
 
 import java.io.File;
 
+import com.nostra13.universalimageloader.cache.CacheStats;
+import com.nostra13.universalimageloader.cache.CacheStatsAware;
 import com.nostra13.universalimageloader.cache.disc.naming.FileNameGenerator;
 import com.nostra13.universalimageloader.core.DefaultConfigurationFactory;
 
@@ -28,7 +30,7 @@ import com.nostra13.universalimageloader.core.DefaultConfigurationFactory;
  * @see DiscCacheAware
  * @see FileNameGenerator
  */
-public abstract class BaseDiscCache implements DiscCacheAware {
+public abstract class BaseDiscCache implements DiscCacheAware, CacheStatsAware {
 
 	private static final String ERROR_ARG_NULL = "\"%s\" argument must be not null";
 
@@ -36,6 +38,8 @@ public abstract class BaseDiscCache implements DiscCacheAware {
 
 	private FileNameGenerator fileNameGenerator;
 
+	private final CacheStats stats = new CacheStats();
+
 	public BaseDiscCache(File cacheDir) {
 		this(cacheDir, DefaultConfigurationFactory.createFileNameGenerator());
 	}
@@ -58,6 +62,21 @@ public abstract class BaseDiscCache implements DiscCacheAware {
 		return new File(cacheDir, fileName);
 	}
 
+	@Override
+	public CacheStats getStats() {
+		return stats;
+	}
+
+	/**
+	 * Removes cached file (i.e. found corrupted by {@link DiscCacheInspector}). Subclasses which track cached files
+	 * should override this method to update their data.
+	 * 
+	 * @return true - if file was deleted; false - otherwise
+	 */
+	protected boolean removeFile(File file) {
+		return file.delete();
+	}
+
 	@Override
 	public void clear() {
 		File[] files = cacheDir.listFiles();
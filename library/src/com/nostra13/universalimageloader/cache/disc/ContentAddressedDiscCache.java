@@ -0,0 +1,42 @@
+/*******************************************************************************
+ * Copyright 2013 Sergey Tarasevich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.nostra13.universalimageloader.cache.disc;
+
+import java.io.File;
+
+/**
+ * Disc cache which can return the same file for several keys (i.e. if cached files are named by their content). Such
+ * file must not be overwritten for one key, so image of a key should be written into {@linkplain #getTempFile(String)
+ * temporary file of this key} which then is passed to {@link #put(String, File)}. Actual file of cached image should
+ * be got by {@link #get(String)} after that.
+ * 
+ * @author Sergey Tarasevich (nostra13[at]gmail[dot]com)
+ * @since 1.8.5
+ */
+public interface ContentAddressedDiscCache extends DiscCacheAware {
+
+	/**
+	 * Returns file where image for incoming key should be written before {@link #put(String, File)} call. File is
+	 * unique for the key and it's never shared with other keys.
+	 */
+	File getTempFile(String key);
+
+	/**
+	 * Removes incoming key from cache (i.e. if its cached image turned out to be broken). Cached file is deleted only
+	 * if it isn't shared with other keys.
+	 */
+	void remove(String key);
+}
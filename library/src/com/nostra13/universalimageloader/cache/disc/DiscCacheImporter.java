@@ -0,0 +1,354 @@
+/*******************************************************************************
+ * Copyright 2013 Sergey Tarasevich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.nostra13.universalimageloader.cache.disc;
+
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import com.nostra13.universalimageloader.cache.disc.naming.FileNameGenerator;
+import com.nostra13.universalimageloader.utils.IoUtils;
+
+/**
+ * Imports images from archive (ZIP or TAR) into {@linkplain DiscCacheAware disc cache}, so they are cached without
+ * downloading. Every archive entry is mapped to image URI by {@link UriResolver}. Then entry is saved into
+ * {@linkplain DiscCacheAware#get(String) file of disc cache for this URI} (so cache's {@link FileNameGenerator} is
+ * considered) and is {@linkplain DiscCacheAware#put(String, File) put into cache} (so cache's size limit is
+ * considered).<br />
+ * Archive is read as stream, entries aren't held in memory. Every entry is written to temporary file at first and then
+ * renamed, so interrupted import doesn't leave truncated images in cache.
+ * 
+ * @author Sergey Tarasevich (nostra13[at]gmail[dot]com)
+ * @since 1.8.5
+ */
+public class DiscCacheImporter {
+
+	private static final int BUFFER_SIZE = 8 * 1024; // 8 Kb
+	private static final String TEMP_FILE_POSTFIX = ".tmp";
+
+	private static final String ERROR_CANT_RENAME = "Can't rename temporary file to [%s]";
+
+	private final DiscCacheAware discCache;
+	private final UriResolver uriResolver;
+	private boolean overwrite = false;
+
+	/**
+	 * @param discCache Disc cache which will be populated
+	 * @param uriResolver Maps archive entries to image URIs
+	 */
+	public DiscCacheImporter(DiscCacheAware discCache, UriResolver uriResolver) {
+		this.discCache = discCache;
+		this.uriResolver = uriResolver;
+	}
+
+	/** Images already cached on disc will be replaced by archive entries. By default they are left as is. */
+	public DiscCacheImporter overwrite() {
+		overwrite = true;
+		return this;
+	}
+
+	/**
+	 * Imports images from ZIP archive. Stream isn't closed by this method.
+	 * 
+	 * @return Count of imported images
+	 * @throws IOException if error occurs during archive reading or file writing
+	 */
+	public int importZip(InputStream archiveStream) throws IOException {
+		ZipInputStream zis = new ZipInputStream(archiveStream);
+		int importedCount = 0;
+		ZipEntry entry;
+		while ((entry = zis.getNextEntry()) != null) {
+			if (!entry.isDirectory() && importEntry(entry.getName(), zis)) {
+				importedCount++;
+			}
+			zis.closeEntry();
+		}
+		return importedCount;
+	}
+
+	/**
+	 * Imports images from TAR archive (POSIX ustar or GNU format, not compressed). Stream isn't closed by this method.
+	 * 
+	 * @return Count of imported images
+	 * @throws IOException if error occurs during archive reading or file writing
+	 */
+	public int importTar(InputStream archiveStream) throws IOException {
+		TarReader reader = new TarReader(archiveStream);
+		int importedCount = 0;
+		while (reader.nextEntry()) {
+			if (reader.isFile() && importEntry(reader.getEntryName(), reader.getEntryStream())) {
+				importedCount++;
+			}
+		}
+		return importedCount;
+	}
+
+	/** @return true - if entry was imported; false - if entry was skipped */
+	private boolean importEntry(String entryName, InputStream entryStream) throws IOException {
+		String uri = uriResolver.getImageUri(entryName);
+		if (uri == null) {
+			return false;
+		}
+		File targetFile = discCache.get(uri);
+		if (targetFile.exists() && !overwrite) {
+			return false;
+		}
+
+		// Files of content addressed cache can be shared with other keys, so they must not be replaced
+		boolean contentAddressed = discCache instanceof ContentAddressedDiscCache;
+		File tempFile;
+		if (contentAddressed) {
+			tempFile = ((ContentAddressedDiscCache) discCache).getTempFile(uri);
+		} else {
+			tempFile = new File(targetFile.getPath() + TEMP_FILE_POSTFIX);
+		}
+		boolean written = false;
+		try {
+			OutputStream os = new BufferedOutputStream(new FileOutputStream(tempFile), BUFFER_SIZE);
+			try {
+				IoUtils.copyStream(entryStream, os);
+			} finally {
+				IoUtils.closeSilently(os);
+			}
+			if (!contentAddressed) {
+				targetFile.delete();
+				if (!tempFile.renameTo(targetFile)) {
+					throw new IOException(String.format(ERROR_CANT_RENAME, targetFile));
+				}
+			}
+			written = true;
+		} finally {
+			if (!written) {
+				tempFile.delete();
+			}
+		}
+		discCache.put(uri, contentAddressed ? tempFile : targetFile);
+		return true;
+	}
+
+	/**
+	 * Maps archive entries to image URIs
+	 * 
+	 * @author Sergey Tarasevich (nostra13[at]gmail[dot]com)
+	 * @since 1.8.5
+	 */
+	public interface UriResolver {
+		/**
+		 * @param entryName Name (path) of archive entry, i.e. "images/photo.jpg"
+		 * @return Image URI for this entry; <b>null</b> - if entry shouldn't be imported
+		 */
+		String getImageUri(String entryName);
+	}
+
+	/**
+	 * Resolves image URI by appending entry name to base URI (i.e. "http://site.com/" + "images/photo.jpg")
+	 * 
+	 * @author Sergey Tarasevich (nostra13[at]gmail[dot]com)
+	 * @since 1.8.5
+	 */
+	public static class BaseUriResolver implements UriResolver {
+
+		private final String baseUri;
+
+		public BaseUriResolver(String baseUri) {
+			this.baseUri = baseUri;
+		}
+
+		@Override
+		public String getImageUri(String entryName) {
+			return baseUri + entryName;
+		}
+	}
+
+	/** Sequential reader of TAR archive entries */
+	private static class TarReader {
+
+		private static final int BLOCK_SIZE = 512;
+		private static final int NAME_OFFSET = 0;
+		private static final int NAME_LENGTH = 100;
+		private static final int SIZE_OFFSET = 124;
+		private static final int SIZE_LENGTH = 12;
+		private static final int TYPE_OFFSET = 156;
+		private static final int MAGIC_OFFSET = 257;
+		private static final int PREFIX_OFFSET = 345;
+		private static final int PREFIX_LENGTH = 155;
+		private static final byte TYPE_FILE = '0';
+		private static final byte TYPE_FILE_OLD = 0;
+		private static final byte TYPE_GNU_LONG_NAME = 'L';
+
+		private final InputStream is;
+		private final byte[] header = new byte[BLOCK_SIZE];
+
+		private String entryName;
+		private byte entryType;
+		private long entrySize;
+		private EntryStream entryStream;
+
+		TarReader(InputStream is) {
+			this.is = is;
+		}
+
+		/** @return true - if next entry is read; false - if archive is finished */
+		boolean nextEntry() throws IOException {
+			if (entryStream != null) {
+				entryStream.skipRest();
+			}
+			String longName = null;
+			while (true) {
+				if (!readHeader()) return false;
+				entryType = header[TYPE_OFFSET];
+				entrySize = parseOctal(SIZE_OFFSET, SIZE_LENGTH);
+				entryStream = new EntryStream(entrySize);
+				if (entryType == TYPE_GNU_LONG_NAME) {
+					longName = readLongName();
+					continue;
+				}
+				entryName = longName != null ? longName : parseName();
+				return true;
+			}
+		}
+
+		boolean isFile() {
+			return entryType == TYPE_FILE || entryType == TYPE_FILE_OLD;
+		}
+
+		String getEntryName() {
+			return entryName;
+		}
+
+		InputStream getEntryStream() {
+			return entryStream;
+		}
+
+		/** @return false - if end of archive is reached */
+		private boolean readHeader() throws IOException {
+			int offset = 0;
+			while (offset < BLOCK_SIZE) {
+				int count = is.read(header, offset, BLOCK_SIZE - offset);
+				if (count == -1) {
+					if (offset == 0) return false;
+					throw new EOFException();
+				}
+				offset += count;
+			}
+			for (byte b : header) {
+				if (b != 0) return true;
+			}
+			return false; // empty block marks end of archive
+		}
+
+		private String readLongName() throws IOException {
+			byte[] name = new byte[(int) entrySize];
+			int offset = 0;
+			while (offset < name.length) {
+				int count = entryStream.read(name, offset, name.length - offset);
+				if (count == -1) throw new EOFException();
+				offset += count;
+			}
+			entryStream.skipRest();
+			return toString(name, 0, name.length);
+		}
+
+		private String parseName() {
+			String name = toString(header, NAME_OFFSET, NAME_LENGTH);
+			boolean ustar = header[MAGIC_OFFSET] == 'u' && header[MAGIC_OFFSET + 1] == 's' && header[MAGIC_OFFSET + 2] == 't'
+					&& header[MAGIC_OFFSET + 3] == 'a' && header[MAGIC_OFFSET + 4] == 'r';
+			if (ustar) {
+				String prefix = toString(header, PREFIX_OFFSET, PREFIX_LENGTH);
+				if (prefix.length() > 0) {
+					name = prefix + "/" + name;
+				}
+			}
+			return name;
+		}
+
+		private long parseOctal(int offset, int length) {
+			long value = 0;
+			for (int i = offset; i < offset + length; i++) {
+				byte b = header[i];
+				if (b >= '0' && b <= '7') {
+					value = value * 8 + (b - '0');
+				} else if (b == 0 || b == ' ') {
+					if (value > 0) break;
+				}
+			}
+			return value;
+		}
+
+		private static String toString(byte[] bytes, int offset, int length) {
+			int end = offset;
+			while (end < offset + length && bytes[end] != 0) {
+				end++;
+			}
+			try {
+				return new String(bytes, offset, end - offset, "UTF-8");
+			} catch (UnsupportedEncodingException e) {
+				throw new AssertionError(e);
+			}
+		}
+
+		/** Stream of entry content. Entry content is padded to block size in archive. */
+		private class EntryStream extends InputStream {
+
+			private long remaining;
+			private long padding;
+
+			EntryStream(long size) {
+				remaining = size;
+				padding = (BLOCK_SIZE - size % BLOCK_SIZE) % BLOCK_SIZE;
+			}
+
+			@Override
+			public int read() throws IOException {
+				if (remaining == 0) return -1;
+				int b = is.read();
+				if (b == -1) throw new EOFException();
+				remaining--;
+				return b;
+			}
+
+			@Override
+			public int read(byte[] buffer, int offset, int length) throws IOException {
+				if (remaining == 0) return -1;
+				int count = is.read(buffer, offset, (int) Math.min(length, remaining));
+				if (count == -1) throw new EOFException();
+				remaining -= count;
+				return count;
+			}
+
+			void skipRest() throws IOException {
+				long toSkip = remaining + padding;
+				remaining = 0;
+				padding = 0;
+				while (toSkip > 0) {
+					long skipped = is.skip(toSkip);
+					if (skipped <= 0) {
+						if (is.read() == -1) throw new EOFException();
+						skipped = 1;
+					}
+					toSkip -= skipped;
+				}
+			}
+		}
+	}
+}
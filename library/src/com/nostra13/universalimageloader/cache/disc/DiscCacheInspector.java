@@ -0,0 +1,274 @@
+/*******************************************************************************
+ * Copyright 2013 Sergey Tarasevich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.nostra13.universalimageloader.cache.disc;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+
+import android.graphics.BitmapFactory;
+
+import com.nostra13.universalimageloader.utils.IoUtils;
+import com.nostra13.universalimageloader.utils.L;
+
+/**
+ * Inspects and verifies content of {@linkplain BaseDiscCache disc cache}:
+ * <ul>
+ * <li>{@link #getEntries()} lists cached files (name, size, age)</li>
+ * <li>{@link #verify(VerificationListener)} checks every cached file and removes corrupted and truncated ones, so
+ * they aren't decoded unsuccessfully (and downloaded again) at every hit</li>
+ * </ul>
+ * Cached file is considered valid if it isn't truncated (JPEG, PNG, GIF and WebP files are checked by their end
+ * markers) or if bounds of image can be decoded from it. So file is removed only if both checks fail (e.g. JPEG file
+ * with data after EOI marker is kept).<br />
+ * Files are processed one by one, they aren't held in memory. Temporary files ({@value #TEMP_FILE_POSTFIX}) and files
+ * which are modified after verification start are skipped.<br />
+ * Verification can run concurrently with image loading: {@link com.nostra13.universalimageloader.core.ImageLoader
+ * ImageLoader} writes downloaded images into temporary files and moves them into cache only when they're complete, so
+ * verification never sees partially written files. Only if image is re-cached right while its old file is verified
+ * then the new file can be removed (and image is downloaded again).<br />
+ * <b>NOTE:</b> Files which are written into cache directory by other code must be written the same way (see
+ * {@link DiscCacheImporter}).
+ * 
+ * @author Sergey Tarasevich (nostra13[at]gmail[dot]com)
+ * @since 1.8.5
+ */
+public class DiscCacheInspector {
+
+	/** Count of bytes at the end of file where end marker of image is searched */
+	private static final int TAIL_SIZE = 32;
+	private static final int HEADER_SIZE = 12;
+	private static final String TEMP_FILE_POSTFIX = ".tmp";
+
+	private final BaseDiscCache discCache;
+
+	public DiscCacheInspector(BaseDiscCache discCache) {
+		this.discCache = discCache;
+	}
+
+	/** @return Entries of disc cache; empty list - if cache directory can't be read */
+	public List<Entry> getEntries() {
+		List<Entry> entries = new ArrayList<Entry>();
+		long now = System.currentTimeMillis();
+		for (File file : listFiles()) {
+			entries.add(new Entry(file, now));
+		}
+		return entries;
+	}
+
+	/**
+	 * Verifies all cached files and removes corrupted ones. Method blocks calling thread until all files are checked,
+	 * so it shouldn't be called on UI thread (see {@link #verifyInBackground(VerificationListener)}).
+	 * 
+	 * @param listener Listener of verification; can be null
+	 * @return Count of removed files
+	 */
+	public int verify(VerificationListener listener) {
+		long start = System.currentTimeMillis();
+		int verifiedCount = 0;
+		int removedCount = 0;
+		for (File file : listFiles()) {
+			if (isModifiedAfter(file, start)) continue;
+
+			Entry entry = new Entry(file, start);
+			boolean valid = isValid(file);
+			if (!valid) {
+				if (isModifiedAfter(file, start)) continue;
+				if (discCache.removeFile(file)) {
+					removedCount++;
+				}
+			}
+			verifiedCount++;
+			if (listener != null) {
+				listener.onEntryVerified(entry, valid);
+			}
+		}
+		if (listener != null) {
+			listener.onVerificationComplete(verifiedCount, removedCount);
+		}
+		return removedCount;
+	}
+
+	/**
+	 * Verifies all cached files and removes corrupted ones in separate background thread. See
+	 * {@link #verify(VerificationListener)}.
+	 * 
+	 * @param listener Listener of verification; can be null. Listener fires events on background thread.
+	 */
+	public void verifyInBackground(final VerificationListener listener) {
+		Thread thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				verify(listener);
+			}
+		});
+		thread.setPriority(Thread.MIN_PRIORITY);
+		thread.start();
+	}
+
+	/**
+	 * Checks whether cached file is valid image file. Can be overridden to support special formats.
+	 * 
+	 * @return true - if file is valid image file; false - if file is corrupted
+	 */
+	protected boolean isValid(File file) {
+		return file.length() >= HEADER_SIZE && (hasEndMarker(file) || isDecodable(file));
+	}
+
+	/**
+	 * Checks whether bounds of image can be decoded from file. It's called for files of unknown formats and for files
+	 * without end marker.
+	 */
+	protected boolean isDecodable(File file) {
+		BitmapFactory.Options options = new BitmapFactory.Options();
+		options.inJustDecodeBounds = true;
+		BitmapFactory.decodeFile(file.getAbsolutePath(), options);
+		return options.outWidth > 0 && options.outHeight > 0;
+	}
+
+	/** @return true - if file is JPEG, PNG, GIF or WebP file and it isn't truncated; false - otherwise */
+	private boolean hasEndMarker(File file) {
+		long length = file.length();
+
+		byte[] header = new byte[HEADER_SIZE];
+		byte[] tail = new byte[(int) Math.min(TAIL_SIZE, length)];
+		RandomAccessFile raf = null;
+		try {
+			raf = new RandomAccessFile(file, "r");
+			raf.readFully(header);
+			raf.seek(length - tail.length);
+			raf.readFully(tail);
+		} catch (IOException e) {
+			L.e(e);
+			return false;
+		} finally {
+			if (raf != null) IoUtils.closeSilently(raf);
+		}
+
+		if (startsWith(header, 0, 0xFF, 0xD8)) { // JPEG, ends with EOI marker
+			return indexOf(tail, 0xFF, 0xD9) >= 0;
+		} else if (startsWith(header, 0, 0x89, 'P', 'N', 'G')) { // PNG, ends with IEND chunk
+			return indexOf(tail, 'I', 'E', 'N', 'D') >= 0;
+		} else if (startsWith(header, 0, 'G', 'I', 'F', '8')) { // GIF, ends with trailer
+			return tail[tail.length - 1] == 0x3B;
+		} else if (startsWith(header, 0, 'R', 'I', 'F', 'F') && startsWith(header, 8, 'W', 'E', 'B', 'P')) { // WebP
+			long riffSize = (header[4] & 0xFF) | (header[5] & 0xFF) << 8 | (header[6] & 0xFF) << 16 | (long) (header[7] & 0xFF) << 24;
+			return riffSize + 8 <= length;
+		} else {
+			return false;
+		}
+	}
+
+	/** @return Cached files (sub-directories of cache directory and temporary files are ignored) */
+	private File[] listFiles() {
+		File[] files = discCache.cacheDir.listFiles(new FileFilter() {
+			@Override
+			public boolean accept(File file) {
+				return file.isFile() && !file.getName().endsWith(TEMP_FILE_POSTFIX);
+			}
+		});
+		return files == null ? new File[0] : files;
+	}
+
+	private static boolean isModifiedAfter(File file, long time) {
+		return file.lastModified() > time;
+	}
+
+	private static boolean startsWith(byte[] bytes, int offset, int... prefix) {
+		for (int i = 0; i < prefix.length; i++) {
+			if ((bytes[offset + i] & 0xFF) != prefix[i]) return false;
+		}
+		return true;
+	}
+
+	private static int indexOf(byte[] bytes, int... sequence) {
+		for (int i = bytes.length - sequence.length; i >= 0; i--) {
+			if (startsWith(bytes, i, sequence)) return i;
+		}
+		return -1;
+	}
+
+	/**
+	 * Cached file info
+	 * 
+	 * @author Sergey Tarasevich (nostra13[at]gmail[dot]com)
+	 * @since 1.8.5
+	 */
+	public static class Entry {
+
+		private final File file;
+		private final long size;
+		private final long age;
+
+		Entry(File file, long now) {
+			this.file = file;
+			size = file.length();
+			age = now - file.lastModified();
+		}
+
+		/**
+		 * @return Name of cached file (it's generated from image URI by
+		 *         {@link com.nostra13.universalimageloader.cache.disc.naming.FileNameGenerator})
+		 */
+		public String getName() {
+			return file.getName();
+		}
+
+		public File getFile() {
+			return file;
+		}
+
+		/** @return File size (in bytes) */
+		public long getSize() {
+			return size;
+		}
+
+		/**
+		 * @return Time (in ms) since last modification of file. Limited disc caches update it at every usage of file,
+		 *         so then it's time since last usage.
+		 */
+		public long getAge() {
+			return age;
+		}
+	}
+
+	/**
+	 * Listener of disc cache verification
+	 * 
+	 * @author Sergey Tarasevich (nostra13[at]gmail[dot]com)
+	 * @since 1.8.5
+	 */
+	public interface VerificationListener {
+		/**
+		 * Is called after cached file was verified
+		 * 
+		 * @param entry Info of verified file (file itself is already removed if it isn't valid)
+		 * @param valid Whether file is valid
+		 */
+		void onEntryVerified(Entry entry, boolean valid);
+
+		/**
+		 * Is called when all cached files are verified
+		 * 
+		 * @param verifiedCount Count of verified files
+		 * @param removedCount Count of removed corrupted files
+		 */
+		void onVerificationComplete(int verifiedCount, int removedCount);
+	}
+}
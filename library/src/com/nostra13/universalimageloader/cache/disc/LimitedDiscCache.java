@@ -79,6 +79,7 @@ public abstract class LimitedDiscCache extends BaseDiscCache {
 						lastUsageDates.put(cachedFile, cachedFile.lastModified());
 					}
 					cacheSize.set(size);
+					getStats().setCurrentSize(size);
 				}
 			}
 		}).start();
@@ -92,8 +93,10 @@ public abstract class LimitedDiscCache extends BaseDiscCache {
 			int freedSize = removeNext();
 			if (freedSize == 0) break; // cache is empty (have nothing to delete)
 			curCacheSize = cacheSize.addAndGet(-freedSize);
+			getStats().recordEviction(freedSize);
 		}
-		cacheSize.addAndGet(valueSize);
+		getStats().setCurrentSize(cacheSize.addAndGet(valueSize));
+		getStats().recordPut();
 
 		Long currentTime = System.currentTimeMillis();
 		file.setLastModified(currentTime);
@@ -111,10 +114,22 @@ public abstract class LimitedDiscCache extends BaseDiscCache {
 		return file;
 	}
 
+	@Override
+	protected boolean removeFile(File file) {
+		int fileSize = getSize(file);
+		boolean removed = super.removeFile(file);
+		if (removed) {
+			lastUsageDates.remove(file);
+			getStats().setCurrentSize(cacheSize.addAndGet(-fileSize));
+		}
+		return removed;
+	}
+
 	@Override
 	public void clear() {
 		lastUsageDates.clear();
 		cacheSize.set(0);
+		getStats().setCurrentSize(0);
 		super.clear();
 	}
 
@@ -0,0 +1,424 @@
+/*******************************************************************************
+ * Copyright 2013 Sergey Tarasevich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.nostra13.universalimageloader.cache.disc.impl;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import com.nostra13.universalimageloader.cache.disc.BaseDiscCache;
+import com.nostra13.universalimageloader.cache.disc.ContentAddressedDiscCache;
+import com.nostra13.universalimageloader.cache.disc.DiscCacheAware;
+import com.nostra13.universalimageloader.cache.disc.naming.FileNameGenerator;
+import com.nostra13.universalimageloader.core.DefaultConfigurationFactory;
+import com.nostra13.universalimageloader.utils.IoUtils;
+import com.nostra13.universalimageloader.utils.L;
+
+/**
+ * {@linkplain DiscCacheAware Disc cache} which stores identical images once. Cached images are named by hash of their
+ * content (so images of different URIs with the same bytes share one file) and every cached URI is mapped to content
+ * file by small index file in "keys" sub-directory.<br />
+ * Content file is deleted when there are no more URIs referencing it. If cache size exceeds limit then URIs with the
+ * most oldest usage are removed from cache (and content files which aren't referenced anymore are deleted).<br />
+ * Index of cached URIs is loaded in background thread at first cache access.
+ * 
+ * @author Sergey Tarasevich (nostra13[at]gmail[dot]com)
+ * @since 1.8.5
+ * @see BaseDiscCache
+ * @see FileNameGenerator
+ */
+public class ContentDedupDiscCache extends BaseDiscCache implements ContentAddressedDiscCache {
+
+	private static final String KEYS_DIR_NAME = "keys";
+	private static final String TEMP_FILE_POSTFIX = ".tmp";
+	private static final String HASH_ALGORITHM = "MD5";
+	private static final int HASH_LENGTH = 32; // hex digits of MD5
+	private static final int BUFFER_SIZE = 8 * 1024; // 8 Kb
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+	private final File keysDir;
+	private final long maxCacheSize;
+	private final long creationTime = System.currentTimeMillis();
+
+	/** Names of key files mapped to content hashes, in order of usage. Guarded by "this". */
+	private final LinkedHashMap<String, String> keyHashes = new LinkedHashMap<String, String>(16, 0.75f, true);
+	/** Content hashes mapped to content info. Guarded by "this". */
+	private final Map<String, Content> contents = new HashMap<String, Content>();
+	/** Total size of content files. Guarded by "this". */
+	private long cacheSize;
+	/** Guarded by "this" */
+	private boolean indexLoadingStarted;
+
+	/** @param cacheDir Directory for file caching. Cache size is unlimited. */
+	public ContentDedupDiscCache(File cacheDir) {
+		this(cacheDir, DefaultConfigurationFactory.createFileNameGenerator(), 0);
+	}
+
+	/**
+	 * @param cacheDir Directory for file caching. <b>Important:</b> Specify separate folder for cached files. It's
+	 *            needed for right cache limit work.
+	 * @param fileNameGenerator Name generator for index files of cached URIs
+	 * @param maxCacheSize Maximum total size of content files (in bytes), 0 - unlimited. If cache size exceeds this
+	 *            limit then URIs with the most oldest usage will be removed from cache.
+	 */
+	public ContentDedupDiscCache(File cacheDir, FileNameGenerator fileNameGenerator, long maxCacheSize) {
+		super(cacheDir, fileNameGenerator);
+		this.maxCacheSize = maxCacheSize;
+		keysDir = new File(cacheDir, KEYS_DIR_NAME);
+		keysDir.mkdirs();
+	}
+
+	/**
+	 * Returns content file of cached image (it can be shared with other keys, so it must not be overwritten). If image
+	 * isn't cached then returns file where image can be saved before {@link #put(String, File)} call.
+	 * 
+	 * @see #getTempFile(String)
+	 */
+	@Override
+	public File get(String key) {
+		startIndexLoadingIfNeed();
+		String keyName = super.get(key).getName();
+		File keyFile = new File(keysDir, keyName);
+		String hash;
+		synchronized (this) {
+			hash = keyHashes.get(keyName);
+		}
+		if (hash == null) { // index can be not loaded yet
+			hash = readHash(keyFile);
+			if (hash != null) {
+				synchronized (this) {
+					addKey(keyName, hash);
+				}
+			}
+		}
+		if (hash == null) return keyFile;
+
+		File contentFile = new File(cacheDir, hash);
+		if (contentFile.exists()) {
+			keyFile.setLastModified(System.currentTimeMillis());
+			return contentFile;
+		} else {
+			synchronized (this) {
+				removeKey(keyName);
+			}
+			return keyFile;
+		}
+	}
+
+	/** Returns file in "keys" sub-directory which is unique for incoming key */
+	@Override
+	public File getTempFile(String key) {
+		return new File(keysDir, super.get(key).getName() + TEMP_FILE_POSTFIX);
+	}
+
+	/**
+	 * Moves incoming file into cache as content file (or deletes it if the same content is cached already) and maps key
+	 * to this content.
+	 */
+	@Override
+	public void put(String key, File file) {
+		startIndexLoadingIfNeed();
+		String keyName = super.get(key).getName();
+		String hash;
+		try {
+			hash = computeHash(file);
+		} catch (IOException e) {
+			L.e(e);
+			return;
+		}
+
+		File contentFile = new File(cacheDir, hash);
+		synchronized (this) {
+			if (!file.equals(contentFile)) {
+				if (contents.containsKey(hash) && contentFile.exists()) {
+					file.delete(); // the same content is cached already
+				} else {
+					contentFile.delete();
+					if (!file.renameTo(contentFile)) return;
+				}
+			}
+
+			if (!hash.equals(keyHashes.get(keyName))) {
+				removeKey(keyName);
+				addKey(keyName, hash);
+			}
+			writeHash(new File(keysDir, keyName), hash);
+			getStats().recordPut();
+			trimToSize(keyName);
+		}
+	}
+
+	/**
+	 * Removes content file (i.e. found corrupted by
+	 * {@link com.nostra13.universalimageloader.cache.disc.DiscCacheInspector}) together with all cached URIs which
+	 * reference it
+	 */
+	@Override
+	public void remove(String key) {
+		startIndexLoadingIfNeed();
+		String keyName = super.get(key).getName();
+		synchronized (this) {
+			removeKey(keyName);
+		}
+	}
+
+	@Override
+	protected boolean removeFile(File file) {
+		if (!file.isFile()) return false;
+		startIndexLoadingIfNeed();
+		boolean removed = super.removeFile(file);
+		synchronized (this) {
+			String hash = file.getName();
+			if (contents.containsKey(hash)) {
+				List<String> keyNames = new ArrayList<String>();
+				for (Entry<String, String> entry : keyHashes.entrySet()) {
+					if (entry.getValue().equals(hash)) {
+						keyNames.add(entry.getKey());
+					}
+				}
+				for (String keyName : keyNames) {
+					removeKey(keyName);
+				}
+			}
+		}
+		return removed;
+	}
+
+	@Override
+	public void clear() {
+		synchronized (this) {
+			keyHashes.clear();
+			contents.clear();
+			cacheSize = 0;
+			getStats().setCurrentSize(0);
+		}
+		File[] keyFiles = keysDir.listFiles();
+		if (keyFiles != null) {
+			for (File keyFile : keyFiles) {
+				keyFile.delete();
+			}
+		}
+		super.clear();
+	}
+
+	/** Adds key mapped to content. Must be called under lock. */
+	private void addKey(String keyName, String hash) {
+		keyHashes.put(keyName, hash);
+		Content content = contents.get(hash);
+		if (content == null) {
+			content = new Content(new File(cacheDir, hash).length());
+			contents.put(hash, content);
+			cacheSize += content.size;
+			getStats().setCurrentSize(cacheSize);
+		}
+		content.refCount++;
+	}
+
+	/**
+	 * Removes key and deletes its index file. Content file is deleted if it isn't referenced by other keys. Must be
+	 * called under lock.
+	 * 
+	 * @return Size of deleted content file; 0 - if content file wasn't deleted
+	 */
+	private long removeKey(String keyName) {
+		String hash = keyHashes.remove(keyName);
+		new File(keysDir, keyName).delete();
+		if (hash == null) return 0;
+
+		Content content = contents.get(hash);
+		if (content == null || --content.refCount > 0) return 0;
+
+		contents.remove(hash);
+		new File(cacheDir, hash).delete();
+		cacheSize -= content.size;
+		getStats().setCurrentSize(cacheSize);
+		return content.size;
+	}
+
+	/** Removes keys with the most oldest usage until cache size fits limit. Must be called under lock. */
+	private void trimToSize(String lastKeyName) {
+		if (maxCacheSize <= 0) return;
+
+		while (cacheSize > maxCacheSize && !keyHashes.isEmpty()) {
+			String keyName = keyHashes.keySet().iterator().next();
+			if (keyName.equals(lastKeyName)) break; // don't remove just cached image
+			long freedSize = removeKey(keyName);
+			if (freedSize > 0) {
+				getStats().recordEviction(freedSize);
+			}
+		}
+	}
+
+	/** Starts loading of index at first cache access (so loading thread never sees partially constructed cache) */
+	private void startIndexLoadingIfNeed() {
+		synchronized (this) {
+			if (indexLoadingStarted) return;
+			indexLoadingStarted = true;
+		}
+		loadIndex();
+	}
+
+	/** Loads index of cached keys and deletes files which aren't referenced from index */
+	private void loadIndex() {
+		new Thread(new Runnable() {
+			@Override
+			public void run() {
+				File[] keyFiles = keysDir.listFiles();
+				if (keyFiles == null) return;
+
+				Arrays.sort(keyFiles, new Comparator<File>() {
+					@Override
+					public int compare(File f1, File f2) {
+						long m1 = f1.lastModified();
+						long m2 = f2.lastModified();
+						return m1 < m2 ? -1 : (m1 == m2 ? 0 : 1);
+					}
+				});
+				LinkedHashMap<String, String> loadedKeyHashes = new LinkedHashMap<String, String>();
+				for (File keyFile : keyFiles) {
+					String hash = readHash(keyFile);
+					if (hash != null) {
+						loadedKeyHashes.put(keyFile.getName(), hash);
+					} else if (keyFile.lastModified() < creationTime) {
+						keyFile.delete(); // image which was saved but wasn't put into cache
+					}
+				}
+
+				synchronized (ContentDedupDiscCache.this) {
+					mergeIndex(loadedKeyHashes);
+					deleteUnreferencedContent();
+				}
+			}
+		}).start();
+	}
+
+	/** Merges loaded index with keys which were cached since cache creation. Must be called under lock. */
+	private void mergeIndex(LinkedHashMap<String, String> loadedKeyHashes) {
+		Map<String, String> recentKeyHashes = new LinkedHashMap<String, String>(keyHashes);
+		keyHashes.clear();
+		contents.clear();
+		cacheSize = 0;
+		for (Entry<String, String> entry : loadedKeyHashes.entrySet()) {
+			if (!recentKeyHashes.containsKey(entry.getKey())) {
+				addKey(entry.getKey(), entry.getValue());
+			}
+		}
+		for (Entry<String, String> entry : recentKeyHashes.entrySet()) {
+			addKey(entry.getKey(), entry.getValue());
+		}
+		for (Entry<String, String> entry : new ArrayList<Entry<String, String>>(keyHashes.entrySet())) {
+			if (!new File(cacheDir, entry.getValue()).exists()) {
+				removeKey(entry.getKey());
+			}
+		}
+	}
+
+	/** Deletes old content files which aren't referenced by any key. Must be called under lock. */
+	private void deleteUnreferencedContent() {
+		File[] files = cacheDir.listFiles();
+		if (files == null) return;
+		for (File file : files) {
+			String name = file.getName();
+			if (file.isFile() && isHash(name) && !contents.containsKey(name) && file.lastModified() < creationTime) {
+				file.delete();
+			}
+		}
+	}
+
+	/** @return Content hash stored in index file; <b>null</b> - if file doesn't exist or isn't index file */
+	private static String readHash(File keyFile) {
+		if (keyFile.length() != HASH_LENGTH) return null;
+		try {
+			byte[] bytes = IoUtils.readFile(keyFile);
+			String hash = new String(bytes, "US-ASCII");
+			return isHash(hash) ? hash : null;
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	private static void writeHash(File keyFile, String hash) {
+		try {
+			OutputStream os = new FileOutputStream(keyFile);
+			try {
+				os.write(hash.getBytes("US-ASCII"));
+			} finally {
+				IoUtils.closeSilently(os);
+			}
+		} catch (IOException e) {
+			L.e(e);
+		}
+	}
+
+	private static String computeHash(File file) throws IOException {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance(HASH_ALGORITHM);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IOException(e.getMessage());
+		}
+		InputStream is = new FileInputStream(file);
+		try {
+			byte[] buffer = new byte[BUFFER_SIZE];
+			int count;
+			while ((count = is.read(buffer)) != -1) {
+				digest.update(buffer, 0, count);
+			}
+		} finally {
+			IoUtils.closeSilently(is);
+		}
+
+		byte[] hash = digest.digest();
+		char[] hex = new char[hash.length * 2];
+		for (int i = 0; i < hash.length; i++) {
+			hex[i * 2] = HEX_DIGITS[(hash[i] >> 4) & 0x0F];
+			hex[i * 2 + 1] = HEX_DIGITS[hash[i] & 0x0F];
+		}
+		return new String(hex);
+	}
+
+	private static boolean isHash(String name) {
+		if (name.length() != HASH_LENGTH) return false;
+		for (int i = 0; i < HASH_LENGTH; i++) {
+			char c = name.charAt(i);
+			if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) return false;
+		}
+		return true;
+	}
+
+	/** Cached content file */
+	private static class Content {
+		final long size;
+		int refCount;
+
+		Content(long size) {
+			this.size = size;
+		}
+	}
+}
@@ -62,6 +62,7 @@ public class LimitedAgeDiscCache extends BaseDiscCache {
 		long currentTime = System.currentTimeMillis();
 		file.setLastModified(currentTime);
 		loadingDates.put(file, currentTime);
+		getStats().recordPut();
 	}
 
 	@Override
@@ -78,6 +79,7 @@ public class LimitedAgeDiscCache extends BaseDiscCache {
 			}
 
 			if (System.currentTimeMillis() - loadingDate > maxFileAge) {
+				getStats().recordEviction(file.length());
 				file.delete();
 				loadingDates.remove(file);
 			} else if (!cached) {
@@ -86,4 +88,10 @@ public class LimitedAgeDiscCache extends BaseDiscCache {
 		}
 		return file;
 	}
-}
\ No newline at end of file
+
+	@Override
+	protected boolean removeFile(File file) {
+		loadingDates.remove(file);
+		return super.removeFile(file);
+	}
+}
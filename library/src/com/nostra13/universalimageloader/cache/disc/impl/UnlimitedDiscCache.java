@@ -46,6 +46,6 @@ public class UnlimitedDiscCache extends BaseDiscCache {
 
 	@Override
 	public void put(String key, File file) {
-		// Do nothing
+		getStats().recordPut();
 	}
 }
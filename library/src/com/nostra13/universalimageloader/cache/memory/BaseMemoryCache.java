@@ -22,6 +22,9 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 
+import com.nostra13.universalimageloader.cache.CacheStats;
+import com.nostra13.universalimageloader.cache.CacheStatsAware;
+
 /**
  * Base memory cache. Implements common functionality for memory cache. Provides object references (
  * {@linkplain Reference not strong}) storing.
@@ -29,13 +32,26 @@ import java.util.Map;
  * @author Sergey Tarasevich (nostra13[at]gmail[dot]com)
  * @since 1.0.0
  */
-public abstract class BaseMemoryCache<K, V> implements MemoryCacheAware<K, V> {
+public abstract class BaseMemoryCache<K, V> implements PeekableMemoryCache<K, V>, CacheStatsAware {
 
 	/** Stores not strong references to objects */
 	private final Map<K, Reference<V>> softMap = Collections.synchronizedMap(new HashMap<K, Reference<V>>());
 
+	private final CacheStats stats = new CacheStats();
+
 	@Override
 	public V get(K key) {
+		V result = peek(key);
+		if (result == null) {
+			stats.recordMiss();
+		} else {
+			stats.recordHit();
+		}
+		return result;
+	}
+
+	@Override
+	public V peek(K key) {
 		V result = null;
 		Reference<V> reference = softMap.get(key);
 		if (reference != null) {
@@ -47,6 +63,7 @@ public abstract class BaseMemoryCache<K, V> implements MemoryCacheAware<K, V> {
 	@Override
 	public boolean put(K key, V value) {
 		softMap.put(key, createReference(value));
+		stats.recordPut();
 		return true;
 	}
 
@@ -67,6 +84,11 @@ public abstract class BaseMemoryCache<K, V> implements MemoryCacheAware<K, V> {
 		softMap.clear();
 	}
 
+	@Override
+	public CacheStats getStats() {
+		return stats;
+	}
+
 	/** Creates {@linkplain Reference not strong} reference of value */
 	protected abstract Reference<V> createReference(V value);
 }
@@ -20,6 +20,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import com.nostra13.universalimageloader.core.assist.MemoryCacheUtil;
 import com.nostra13.universalimageloader.utils.L;
 
 /**
@@ -27,18 +28,22 @@ import com.nostra13.universalimageloader.utils.L;
  * {@link #getSizeLimit()}).<br />
  * <br />
  * <b>NOTE:</b> This cache uses strong and weak references for stored Bitmaps. Strong references - for limited count of
- * Bitmaps (depends on cache size), weak references - for all other cached Bitmaps.
+ * Bitmaps (depends on cache size), weak references - for all other cached Bitmaps.<br />
+ * <b>NOTE:</b> {@link #put(Object, Object)}, {@link #trim(int)} and {@link #resize(int)} are synchronized on cache
+ * object (trimming can be called on main thread concurrently with putting on loading threads). Subclasses should
+ * synchronize their overrides of {@link #put(Object, Object)} the same way.
  * 
  * @author Sergey Tarasevich (nostra13[at]gmail[dot]com)
  * @since 1.0.0
  * @see BaseMemoryCache
  */
-public abstract class LimitedMemoryCache<K, V> extends BaseMemoryCache<K, V> {
+public abstract class LimitedMemoryCache<K, V> extends BaseMemoryCache<K, V> implements TrimmableMemoryCache<K, V>,
+		ResizableMemoryCache<K, V> {
 
 	private static final int MAX_NORMAL_CACHE_SIZE_IN_MB = 16;
 	private static final int MAX_NORMAL_CACHE_SIZE = MAX_NORMAL_CACHE_SIZE_IN_MB * 1024 * 1024;
 
-	private final int sizeLimit;
+	private volatile int sizeLimit;
 
 	private final AtomicInteger cacheSize;
 
@@ -55,27 +60,22 @@ public abstract class LimitedMemoryCache<K, V> extends BaseMemoryCache<K, V> {
 	public LimitedMemoryCache(int sizeLimit) {
 		this.sizeLimit = sizeLimit;
 		cacheSize = new AtomicInteger();
+		getStats().setCurrentSize(0);
 		if (sizeLimit > MAX_NORMAL_CACHE_SIZE) {
 			L.w("You set too large memory cache size (more than %1$d Mb)", MAX_NORMAL_CACHE_SIZE_IN_MB);
 		}
 	}
 
 	@Override
-	public boolean put(K key, V value) {
+	public synchronized boolean put(K key, V value) {
 		boolean putSuccessfully = false;
 		// Try to add value to hard cache
 		int valueSize = getSize(value);
 		int sizeLimit = getSizeLimit();
-		int curCacheSize = cacheSize.get();
 		if (valueSize < sizeLimit) {
-			while (curCacheSize + valueSize > sizeLimit) {
-				V removedValue = removeNext();
-				if (hardCache.remove(removedValue)) {
-					curCacheSize = cacheSize.addAndGet(-getSize(removedValue));
-				}
-			}
+			trimToSize(sizeLimit - valueSize);
 			hardCache.add(value);
-			cacheSize.addAndGet(valueSize);
+			getStats().setCurrentSize(cacheSize.addAndGet(valueSize));
 
 			putSuccessfully = true;
 		}
@@ -86,10 +86,10 @@ public abstract class LimitedMemoryCache<K, V> extends BaseMemoryCache<K, V> {
 
 	@Override
 	public void remove(K key) {
-		V value = super.get(key);
+		V value = peek(key);
 		if (value != null) {
 			if (hardCache.remove(value)) {
-				cacheSize.addAndGet(-getSize(value));
+				getStats().setCurrentSize(cacheSize.addAndGet(-getSize(value)));
 			}
 		}
 		super.remove(key);
@@ -99,9 +99,54 @@ public abstract class LimitedMemoryCache<K, V> extends BaseMemoryCache<K, V> {
 	public void clear() {
 		hardCache.clear();
 		cacheSize.set(0);
+		getStats().setCurrentSize(0);
 		super.clear();
 	}
 
+	/**
+	 * Sets new size limit of cache. If current cache size exceeds new limit then strong references to objects are
+	 * removed (they continue exist in soft cache and can be collected by GC) until cache size fits into the limit.
+	 */
+	@Override
+	public synchronized void resize(int maxSize) {
+		if (maxSize <= 0) {
+			throw new IllegalArgumentException("maxSize <= 0");
+		}
+		sizeLimit = maxSize;
+		trimToSize(maxSize);
+	}
+
+	@Override
+	public int getMaxSize() {
+		return getSizeLimit();
+	}
+
+	/**
+	 * Removes strong references to objects (they continue exist in soft cache and can be collected by GC) according to
+	 * memory trim level. Part of {@linkplain #getSizeLimit() size limit} which is kept is defined by
+	 * {@link MemoryCacheUtil#getTrimRatio(int)}.
+	 */
+	@Override
+	public synchronized void trim(int level) {
+		trimToSize((int) (getSizeLimit() * MemoryCacheUtil.getTrimRatio(level)));
+	}
+
+	/** Removes next objects from hard cache until its size doesn't exceed <b>maxSize</b> */
+	private void trimToSize(int maxSize) {
+		while (cacheSize.get() > maxSize) {
+			V removedValue = removeNext();
+			if (removedValue == null) {
+				// hard cache is empty actually
+				break;
+			}
+			if (hardCache.remove(removedValue)) {
+				int removedSize = getSize(removedValue);
+				getStats().setCurrentSize(cacheSize.addAndGet(-removedSize));
+				getStats().recordEviction(removedSize);
+			}
+		}
+	}
+
 	protected int getSizeLimit() {
 		return sizeLimit;
 	}
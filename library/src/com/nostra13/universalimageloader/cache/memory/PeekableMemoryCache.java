@@ -0,0 +1,30 @@
+/*******************************************************************************
+ * Copyright 2013 Sergey Tarasevich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.nostra13.universalimageloader.cache.memory;
+
+/**
+ * Memory cache which allows to look up cached object without recording of
+ * {@linkplain com.nostra13.universalimageloader.cache.CacheStats usage statistics}. Used for repeated checks of the same
+ * key so one request for image is counted as one hit or miss.
+ * 
+ * @author Sergey Tarasevich (nostra13[at]gmail[dot]com)
+ * @since 1.8.5
+ * @see com.nostra13.universalimageloader.core.assist.MemoryCacheUtil#peek(MemoryCacheAware, Object)
+ */
+public interface PeekableMemoryCache<K, V> extends MemoryCacheAware<K, V> {
+	/** Returns value by key without recording of statistics; <b>null</b> - if there is no value for key */
+	V peek(K key);
+}
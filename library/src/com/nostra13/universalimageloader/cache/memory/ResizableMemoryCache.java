@@ -0,0 +1,39 @@
+/*******************************************************************************
+ * Copyright 2013 Sergey Tarasevich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.nostra13.universalimageloader.cache.memory;
+
+/**
+ * Memory cache which size limit can be changed at runtime. E.g. full-screen image pager can temporarily get more
+ * memory for images without reconfiguring of {@link com.nostra13.universalimageloader.core.ImageLoader ImageLoader}.
+ * 
+ * @author Sergey Tarasevich (nostra13[at]gmail[dot]com)
+ * @since 1.8.5
+ * @see com.nostra13.universalimageloader.core.ImageLoader#getMemoryCache()
+ * @see com.nostra13.universalimageloader.core.assist.MemoryCacheUtil#getResizableCache(MemoryCacheAware)
+ */
+public interface ResizableMemoryCache<K, V> extends MemoryCacheAware<K, V> {
+	/**
+	 * Sets new size limit of cache. If cache size exceeds new limit then cached objects are evicted (according to cache
+	 * eviction policy) until cache size fits into the limit.
+	 * 
+	 * @param maxSize New max size of cache (in bytes)
+	 * @throws IllegalArgumentException if <b>maxSize</b> isn't positive
+	 */
+	void resize(int maxSize);
+
+	/** Returns current max size of cache (in bytes) */
+	int getMaxSize();
+}
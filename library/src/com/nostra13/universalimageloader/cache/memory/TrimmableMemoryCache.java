@@ -0,0 +1,35 @@
+/*******************************************************************************
+ * Copyright 2013 Sergey Tarasevich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.nostra13.universalimageloader.cache.memory;
+
+/**
+ * Memory cache which can be shrunk partially on memory pressure (instead of {@linkplain #clear() clearing}).
+ * 
+ * @author Sergey Tarasevich (nostra13[at]gmail[dot]com)
+ * @since 1.8.5
+ * @see com.nostra13.universalimageloader.core.ImageLoader#trimMemory(int)
+ */
+public interface TrimmableMemoryCache<K, V> extends MemoryCacheAware<K, V> {
+	/**
+	 * Evicts cached objects according to memory pressure level
+	 * 
+	 * @param level Memory trim level, one of {@link android.content.ComponentCallbacks2 ComponentCallbacks2}
+	 *            <b>TRIM_MEMORY_...</b> constants. Use
+	 *            {@link com.nostra13.universalimageloader.core.assist.MemoryCacheUtil#getTrimRatio(int)} to get part of
+	 *            cache which should be kept for this level.
+	 */
+	void trim(int level);
+}
@@ -44,7 +44,7 @@ public class FIFOLimitedMemoryCache extends LimitedMemoryCache<String, Bitmap> {
 	}
 
 	@Override
-	public boolean put(String key, Bitmap value) {
+	public synchronized boolean put(String key, Bitmap value) {
 		if (super.put(key, value)) {
 			queue.add(value);
 			return true;
@@ -55,7 +55,7 @@ public class FIFOLimitedMemoryCache extends LimitedMemoryCache<String, Bitmap> {
 
 	@Override
 	public void remove(String key) {
-		Bitmap value = super.get(key);
+		Bitmap value = peek(key);
 		if (value != null) {
 			queue.remove(value);
 		}
@@ -75,7 +75,9 @@ public class FIFOLimitedMemoryCache extends LimitedMemoryCache<String, Bitmap> {
 
 	@Override
 	protected Bitmap removeNext() {
-		return queue.remove(0);
+		synchronized (queue) {
+			return queue.isEmpty() ? null : queue.remove(0);
+		}
 	}
 
 	@Override
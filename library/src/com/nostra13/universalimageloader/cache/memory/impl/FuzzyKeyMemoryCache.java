@@ -18,7 +18,13 @@ package com.nostra13.universalimageloader.cache.memory.impl;
 import java.util.Collection;
 import java.util.Comparator;
 
+import com.nostra13.universalimageloader.cache.CacheStats;
+import com.nostra13.universalimageloader.cache.CacheStatsAware;
 import com.nostra13.universalimageloader.cache.memory.MemoryCacheAware;
+import com.nostra13.universalimageloader.cache.memory.PeekableMemoryCache;
+import com.nostra13.universalimageloader.cache.memory.ResizableMemoryCache;
+import com.nostra13.universalimageloader.cache.memory.TrimmableMemoryCache;
+import com.nostra13.universalimageloader.core.assist.MemoryCacheUtil;
 
 /**
  * Decorator for {@link MemoryCacheAware}. Provides special feature for cache: some different keys are considered as
@@ -29,7 +35,7 @@ import com.nostra13.universalimageloader.cache.memory.MemoryCacheAware;
  * @author Sergey Tarasevich (nostra13[at]gmail[dot]com)
  * @since 1.0.0
  */
-public class FuzzyKeyMemoryCache<K, V> implements MemoryCacheAware<K, V> {
+public class FuzzyKeyMemoryCache<K, V> implements TrimmableMemoryCache<K, V>, PeekableMemoryCache<K, V>, CacheStatsAware {
 
 	private final MemoryCacheAware<K, V> cache;
 	private final Comparator<K> keyComparator;
@@ -62,6 +68,12 @@ public class FuzzyKeyMemoryCache<K, V> implements MemoryCacheAware<K, V> {
 		return cache.get(key);
 	}
 
+	/** Peeks wrapped cache if it's {@link PeekableMemoryCache}; otherwise gets value from it */
+	@Override
+	public V peek(K key) {
+		return MemoryCacheUtil.peek(cache, key);
+	}
+
 	@Override
 	public void remove(K key) {
 		cache.remove(key);
@@ -76,4 +88,27 @@ public class FuzzyKeyMemoryCache<K, V> implements MemoryCacheAware<K, V> {
 	public Collection<K> keys() {
 		return cache.keys();
 	}
+
+	/** Trims wrapped cache if it's {@link TrimmableMemoryCache}; otherwise does nothing */
+	@Override
+	public void trim(int level) {
+		if (cache instanceof TrimmableMemoryCache) {
+			((TrimmableMemoryCache<K, V>) cache).trim(level);
+		}
+	}
+
+	/**
+	 * Returns wrapped cache. E.g. it can be used for {@linkplain ResizableMemoryCache resizing} of wrapped cache.
+	 * 
+	 * @see MemoryCacheUtil#getResizableCache(MemoryCacheAware)
+	 */
+	public MemoryCacheAware<K, V> getWrappedCache() {
+		return cache;
+	}
+
+	/** Returns statistics of wrapped cache; or null if wrapped cache doesn't collect statistics */
+	@Override
+	public CacheStats getStats() {
+		return cache instanceof CacheStatsAware ? ((CacheStatsAware) cache).getStats() : null;
+	}
 }
@@ -51,7 +51,7 @@ public class LargestLimitedMemoryCache extends LimitedMemoryCache<String, Bitmap
 	}
 
 	@Override
-	public boolean put(String key, Bitmap value) {
+	public synchronized boolean put(String key, Bitmap value) {
 		if (super.put(key, value)) {
 			valueSizes.put(value, getSize(value));
 			return true;
@@ -62,7 +62,7 @@ public class LargestLimitedMemoryCache extends LimitedMemoryCache<String, Bitmap
 
 	@Override
 	public void remove(String key) {
-		Bitmap value = super.get(key);
+		Bitmap value = peek(key);
 		if (value != null) {
 			valueSizes.remove(value);
 		}
@@ -20,7 +20,13 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
+import com.nostra13.universalimageloader.cache.CacheStats;
+import com.nostra13.universalimageloader.cache.CacheStatsAware;
 import com.nostra13.universalimageloader.cache.memory.MemoryCacheAware;
+import com.nostra13.universalimageloader.cache.memory.PeekableMemoryCache;
+import com.nostra13.universalimageloader.cache.memory.ResizableMemoryCache;
+import com.nostra13.universalimageloader.cache.memory.TrimmableMemoryCache;
+import com.nostra13.universalimageloader.core.assist.MemoryCacheUtil;
 
 /**
  * Decorator for {@link MemoryCacheAware}. Provides special feature for cache: if some cached object age exceeds defined
@@ -30,7 +36,7 @@ import com.nostra13.universalimageloader.cache.memory.MemoryCacheAware;
  * @since 1.3.1
  * @see MemoryCacheAware
  */
-public class LimitedAgeMemoryCache<K, V> implements MemoryCacheAware<K, V> {
+public class LimitedAgeMemoryCache<K, V> implements TrimmableMemoryCache<K, V>, PeekableMemoryCache<K, V>, CacheStatsAware {
 
 	private final MemoryCacheAware<K, V> cache;
 
@@ -58,13 +64,23 @@ public class LimitedAgeMemoryCache<K, V> implements MemoryCacheAware<K, V> {
 
 	@Override
 	public V get(K key) {
+		removeIfExpired(key);
+		return cache.get(key);
+	}
+
+	/** Peeks wrapped cache if it's {@link PeekableMemoryCache}; otherwise gets value from it */
+	@Override
+	public V peek(K key) {
+		removeIfExpired(key);
+		return MemoryCacheUtil.peek(cache, key);
+	}
+
+	private void removeIfExpired(K key) {
 		Long loadingDate = loadingDates.get(key);
 		if (loadingDate != null && System.currentTimeMillis() - loadingDate > maxAge) {
 			cache.remove(key);
 			loadingDates.remove(key);
 		}
-
-		return cache.get(key);
 	}
 
 	@Override
@@ -83,4 +99,27 @@ public class LimitedAgeMemoryCache<K, V> implements MemoryCacheAware<K, V> {
 		cache.clear();
 		loadingDates.clear();
 	}
+
+	/** Trims wrapped cache if it's {@link TrimmableMemoryCache}; otherwise does nothing */
+	@Override
+	public void trim(int level) {
+		if (cache instanceof TrimmableMemoryCache) {
+			((TrimmableMemoryCache<K, V>) cache).trim(level);
+		}
+	}
+
+	/**
+	 * Returns wrapped cache. E.g. it can be used for {@linkplain ResizableMemoryCache resizing} of wrapped cache.
+	 * 
+	 * @see MemoryCacheUtil#getResizableCache(MemoryCacheAware)
+	 */
+	public MemoryCacheAware<K, V> getWrappedCache() {
+		return cache;
+	}
+
+	/** Returns statistics of wrapped cache; or null if wrapped cache doesn't collect statistics */
+	@Override
+	public CacheStats getStats() {
+		return cache instanceof CacheStatsAware ? ((CacheStatsAware) cache).getStats() : null;
+	}
 }
@@ -0,0 +1,213 @@
+/*******************************************************************************
+ * Copyright 2013 Sergey Tarasevich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.nostra13.universalimageloader.cache.memory.impl;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.nostra13.universalimageloader.cache.CacheStats;
+import com.nostra13.universalimageloader.cache.CacheStatsAware;
+import com.nostra13.universalimageloader.cache.memory.PeekableMemoryCache;
+import com.nostra13.universalimageloader.cache.memory.ResizableMemoryCache;
+import com.nostra13.universalimageloader.cache.memory.TrimmableMemoryCache;
+import com.nostra13.universalimageloader.core.assist.MemoryCacheUtil;
+
+/**
+ * A cache that holds strong references to a limited number of byte arrays (encoded images, e.g. JPEG or PNG files).
+ * Each time an array is accessed, it is moved to the head of a queue. When an array is added to a full cache, the array
+ * at the end of that queue is evicted. Arrays larger than cache max size aren't cached.<br />
+ * <br />
+ * Encoded images are much smaller than decoded bitmaps so this cache can keep much more images in memory. It's used as
+ * {@linkplain com.nostra13.universalimageloader.core.ImageLoaderConfiguration.Builder#encodedImageMemoryCache(com.nostra13.universalimageloader.cache.memory.MemoryCacheAware)
+ * second-level memory cache} between bitmap memory cache and disc cache.
+ * 
+ * @author Sergey Tarasevich (nostra13[at]gmail[dot]com)
+ * @since 1.8.5
+ * @see LruMemoryCache
+ */
+public class LruByteArrayMemoryCache implements TrimmableMemoryCache<String, byte[]>, ResizableMemoryCache<String, byte[]>,
+		PeekableMemoryCache<String, byte[]>, CacheStatsAware {
+
+	private final LinkedHashMap<String, byte[]> map;
+
+	private int maxSize;
+	/** Size of this cache in bytes */
+	private int size;
+
+	private final CacheStats stats = new CacheStats();
+
+	/**
+	 * @param maxSize Maximum sum of the lengths of the arrays in this cache
+	 */
+	public LruByteArrayMemoryCache(int maxSize) {
+		if (maxSize <= 0) {
+			throw new IllegalArgumentException("maxSize <= 0");
+		}
+		this.maxSize = maxSize;
+		this.map = new LinkedHashMap<String, byte[]>(0, 0.75f, true);
+		stats.setCurrentSize(0);
+	}
+
+	/**
+	 * Returns the array for {@code key} if it exists in the cache. If an array was returned, it is moved to the head of
+	 * the queue. This returns null if an array is not cached.
+	 */
+	@Override
+	public final byte[] get(String key) {
+		if (key == null) {
+			throw new NullPointerException("key == null");
+		}
+
+		synchronized (this) {
+			byte[] value = map.get(key);
+			if (value == null) {
+				stats.recordMiss();
+			} else {
+				stats.recordHit();
+			}
+			return value;
+		}
+	}
+
+	/** Same as {@link #get(String)} but doesn't record statistics */
+	@Override
+	public final byte[] peek(String key) {
+		if (key == null) {
+			throw new NullPointerException("key == null");
+		}
+
+		synchronized (this) {
+			return map.get(key);
+		}
+	}
+
+	/**
+	 * Caches {@code value} for {@code key}. The array is moved to the head of the queue.
+	 * 
+	 * @return <b>false</b> - if array is larger than cache max size (then it isn't cached); <b>true</b> - otherwise
+	 */
+	@Override
+	public final boolean put(String key, byte[] value) {
+		if (key == null || value == null) {
+			throw new NullPointerException("key == null || value == null");
+		}
+
+		synchronized (this) {
+			if (value.length > maxSize) {
+				return false;
+			}
+			size += value.length;
+			byte[] previous = map.put(key, value);
+			if (previous != null) {
+				size -= previous.length;
+			}
+			stats.recordPut();
+			stats.setCurrentSize(size);
+		}
+
+		trimToSize(getMaxSize());
+		return true;
+	}
+
+	/**
+	 * Remove the eldest entries until the total of remaining entries is at or below the requested size.
+	 * 
+	 * @param maxSize the maximum size of the cache before returning. May be -1 to evict even empty arrays.
+	 */
+	private void trimToSize(int maxSize) {
+		synchronized (this) {
+			while (size > maxSize && !map.isEmpty()) {
+				Map.Entry<String, byte[]> toEvict = map.entrySet().iterator().next();
+				map.remove(toEvict.getKey());
+				int valueSize = toEvict.getValue().length;
+				size -= valueSize;
+				if (maxSize >= 0) { // otherwise cache is cleared
+					stats.recordEviction(valueSize);
+				}
+			}
+			stats.setCurrentSize(size);
+		}
+	}
+
+	/** Removes the entry for {@code key} if it exists. */
+	@Override
+	public final void remove(String key) {
+		if (key == null) {
+			throw new NullPointerException("key == null");
+		}
+
+		synchronized (this) {
+			byte[] previous = map.remove(key);
+			if (previous != null) {
+				size -= previous.length;
+				stats.setCurrentSize(size);
+			}
+		}
+	}
+
+	@Override
+	public Collection<String> keys() {
+		synchronized (this) {
+			return new HashSet<String>(map.keySet());
+		}
+	}
+
+	@Override
+	public void clear() {
+		trimToSize(-1); // -1 will evict empty arrays
+	}
+
+	/**
+	 * Sets new max size of cache. If current cache size exceeds new max size then the eldest entries are evicted until
+	 * the total of remaining entries is at or below new max size.
+	 */
+	@Override
+	public void resize(int maxSize) {
+		if (maxSize <= 0) {
+			throw new IllegalArgumentException("maxSize <= 0");
+		}
+		synchronized (this) {
+			this.maxSize = maxSize;
+		}
+		trimToSize(maxSize);
+	}
+
+	@Override
+	public synchronized int getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * Evicts the eldest entries until the total of remaining entries is at or below part of max size defined by
+	 * {@link MemoryCacheUtil#getTrimRatio(int)}
+	 */
+	@Override
+	public void trim(int level) {
+		trimToSize((int) (getMaxSize() * MemoryCacheUtil.getTrimRatio(level)));
+	}
+
+	@Override
+	public CacheStats getStats() {
+		return stats;
+	}
+
+	@Override
+	public synchronized final String toString() {
+		return String.format("LruByteArrayCache[maxSize=%d]", maxSize);
+	}
+}
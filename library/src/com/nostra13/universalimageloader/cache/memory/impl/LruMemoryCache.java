@@ -7,7 +7,12 @@ import java.util.Map;
 
 import android.graphics.Bitmap;
 
-import com.nostra13.universalimageloader.cache.memory.MemoryCacheAware;
+import com.nostra13.universalimageloader.cache.CacheStats;
+import com.nostra13.universalimageloader.cache.CacheStatsAware;
+import com.nostra13.universalimageloader.cache.memory.PeekableMemoryCache;
+import com.nostra13.universalimageloader.cache.memory.ResizableMemoryCache;
+import com.nostra13.universalimageloader.cache.memory.TrimmableMemoryCache;
+import com.nostra13.universalimageloader.core.assist.MemoryCacheUtil;
 
 /**
  * A cache that holds strong references to a limited number of Bitmaps. Each time a Bitmap is accessed, it is moved to
@@ -19,14 +24,17 @@ import com.nostra13.universalimageloader.cache.memory.MemoryCacheAware;
  * @author Sergey Tarasevich (nostra13[at]gmail[dot]com)
  * @since 1.8.1
  */
-public class LruMemoryCache implements MemoryCacheAware<String, Bitmap> {
+public class LruMemoryCache implements TrimmableMemoryCache<String, Bitmap>, ResizableMemoryCache<String, Bitmap>,
+		PeekableMemoryCache<String, Bitmap>, CacheStatsAware {
 
 	private final LinkedHashMap<String, Bitmap> map;
 
-	private final int maxSize;
+	private int maxSize;
 	/** Size of this cache in bytes */
 	private int size;
 
+	private final CacheStats stats = new CacheStats();
+
 	/**
 	 * @param maxSize Maximum sum of the sizes of the Bitmaps in this cache
 	 */
@@ -36,6 +44,7 @@ public class LruMemoryCache implements MemoryCacheAware<String, Bitmap> {
 		}
 		this.maxSize = maxSize;
 		this.map = new LinkedHashMap<String, Bitmap>(0, 0.75f, true);
+		stats.setCurrentSize(0);
 	}
 
 	/**
@@ -48,6 +57,24 @@ public class LruMemoryCache implements MemoryCacheAware<String, Bitmap> {
 			throw new NullPointerException("key == null");
 		}
 
+		synchronized (this) {
+			Bitmap value = map.get(key);
+			if (value == null) {
+				stats.recordMiss();
+			} else {
+				stats.recordHit();
+			}
+			return value;
+		}
+	}
+
+	/** Same as {@link #get(String)} but doesn't record statistics */
+	@Override
+	public final Bitmap peek(String key) {
+		if (key == null) {
+			throw new NullPointerException("key == null");
+		}
+
 		synchronized (this) {
 			return map.get(key);
 		}
@@ -68,9 +95,11 @@ public class LruMemoryCache implements MemoryCacheAware<String, Bitmap> {
 			if (previous != null) {
 				size -= sizeOf(key, previous);
 			}
+			stats.recordPut();
+			stats.setCurrentSize(size);
 		}
 
-		trimToSize(maxSize);
+		trimToSize(getMaxSize());
 		return true;
 	}
 
@@ -99,7 +128,12 @@ public class LruMemoryCache implements MemoryCacheAware<String, Bitmap> {
 				key = toEvict.getKey();
 				value = toEvict.getValue();
 				map.remove(key);
-				size -= sizeOf(key, value);
+				int valueSize = sizeOf(key, value);
+				size -= valueSize;
+				stats.setCurrentSize(size);
+				if (maxSize >= 0) { // otherwise cache is cleared
+					stats.recordEviction(valueSize);
+				}
 			}
 		}
 	}
@@ -115,6 +149,7 @@ public class LruMemoryCache implements MemoryCacheAware<String, Bitmap> {
 			Bitmap previous = map.remove(key);
 			if (previous != null) {
 				size -= sizeOf(key, previous);
+				stats.setCurrentSize(size);
 			}
 		}
 	}
@@ -131,6 +166,40 @@ public class LruMemoryCache implements MemoryCacheAware<String, Bitmap> {
 		trimToSize(-1); // -1 will evict 0-sized elements
 	}
 
+	/**
+	 * Sets new max size of cache. If current cache size exceeds new max size then the eldest entries are evicted until
+	 * the total of remaining entries is at or below new max size.
+	 */
+	@Override
+	public void resize(int maxSize) {
+		if (maxSize <= 0) {
+			throw new IllegalArgumentException("maxSize <= 0");
+		}
+		synchronized (this) {
+			this.maxSize = maxSize;
+		}
+		trimToSize(maxSize);
+	}
+
+	@Override
+	public synchronized int getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * Evicts the eldest entries until the total of remaining entries is at or below part of max size defined by
+	 * {@link MemoryCacheUtil#getTrimRatio(int)}
+	 */
+	@Override
+	public void trim(int level) {
+		trimToSize((int) (getMaxSize() * MemoryCacheUtil.getTrimRatio(level)));
+	}
+
+	@Override
+	public CacheStats getStats() {
+		return stats;
+	}
+
 	/**
 	 * Returns the size {@code Bitmap} in bytes.
 	 * <p>
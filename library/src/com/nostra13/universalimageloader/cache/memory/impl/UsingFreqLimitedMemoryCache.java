@@ -51,7 +51,7 @@ public class UsingFreqLimitedMemoryCache extends LimitedMemoryCache<String, Bitm
 	}
 
 	@Override
-	public boolean put(String key, Bitmap value) {
+	public synchronized boolean put(String key, Bitmap value) {
 		if (super.put(key, value)) {
 			usingCounts.put(value, 0);
 			return true;
@@ -75,7 +75,7 @@ public class UsingFreqLimitedMemoryCache extends LimitedMemoryCache<String, Bitm
 
 	@Override
 	public void remove(String key) {
-		Bitmap value = super.get(key);
+		Bitmap value = peek(key);
 		if (value != null) {
 			usingCounts.remove(value);
 		}
@@ -0,0 +1,183 @@
+/*******************************************************************************
+ * Copyright 2013 Sergey Tarasevich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.nostra13.universalimageloader.core;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+
+import android.graphics.Bitmap;
+import android.os.Handler;
+import android.text.TextUtils;
+
+import com.nostra13.universalimageloader.core.assist.BatchLoadingListener;
+import com.nostra13.universalimageloader.core.assist.FailReason;
+import com.nostra13.universalimageloader.core.assist.ImageSize;
+import com.nostra13.universalimageloader.core.assist.LoadingBatch;
+import com.nostra13.universalimageloader.utils.L;
+
+/**
+ * Loads batch of images keeping not more than <b>maxConcurrentTasks</b> tasks of batch in execution pool at the same
+ * time. Duplicated (and empty) URIs are loaded once. Progress and completion are reported to
+ * {@link BatchLoadingListener}.<br />
+ * Class is thread-safe.
+ * 
+ * @author Sergey Tarasevich (nostra13[at]gmail[dot]com)
+ * @since 1.8.5
+ */
+final class BatchLoader {
+
+	private final ImageLoader imageLoader;
+	private final ImageLoaderEngine engine;
+	private final ImageSize targetSize;
+	private final DisplayImageOptions options;
+	private final int maxConcurrentTasks;
+	private final BatchLoadingListener listener;
+	private final Handler handler;
+	private final LoadingBatch batch = new LoadingBatch();
+
+	private final Iterator<String> pendingUris;
+	private final int totalCount;
+	// Guarded by "this"
+	private int runningCount;
+	private int loadedCount;
+	private int failedCount;
+	private boolean scheduling;
+	private boolean completed;
+
+	BatchLoader(ImageLoader imageLoader, ImageLoaderEngine engine, Collection<String> uris, ImageSize targetSize, DisplayImageOptions options,
+			int maxConcurrentTasks, BatchLoadingListener listener) {
+		this.imageLoader = imageLoader;
+		this.engine = engine;
+		this.targetSize = targetSize;
+		this.options = options;
+		this.maxConcurrentTasks = maxConcurrentTasks;
+		this.listener = listener;
+		handler = options.getHandler();
+
+		Set<String> uniqueUris = new LinkedHashSet<String>();
+		for (String uri : uris) {
+			if (!TextUtils.isEmpty(uri)) {
+				uniqueUris.add(uri);
+			}
+		}
+		pendingUris = uniqueUris.iterator();
+		totalCount = uniqueUris.size();
+	}
+
+	LoadingBatch getBatch() {
+		return batch;
+	}
+
+	/** Submits first tasks of batch */
+	void start() {
+		scheduleTasks();
+	}
+
+	/**
+	 * Submits tasks while there are free slots. Only one thread schedules tasks at a time, others just leave if
+	 * scheduling is in progress (scheduling thread will see their freed slots). Also fires completion event when all
+	 * tasks are finished.
+	 */
+	private void scheduleTasks() {
+		synchronized (this) {
+			if (scheduling) return;
+			scheduling = true;
+		}
+		while (true) {
+			String uri;
+			synchronized (this) {
+				if (!batch.isCancelled() && runningCount < maxConcurrentTasks && pendingUris.hasNext()) {
+					uri = pendingUris.next();
+					runningCount++;
+				} else {
+					scheduling = false;
+					if (runningCount == 0 && !completed && (batch.isCancelled() || !pendingUris.hasNext())) {
+						completed = true;
+						fireBatchCompleteEvent(loadedCount, failedCount, batch.isCancelled());
+					}
+					return;
+				}
+			}
+			submit(uri);
+		}
+	}
+
+	private void submit(final String uri) {
+		ImageLoadingFuture future = new ImageLoadingFuture(batch, new ImageLoadingFuture.CompletionCallback() {
+			@Override
+			public void onFinished(ImageLoadingFuture future) {
+				onImageFinished(uri, future);
+			}
+		});
+		LoadAndDisplayImageTask task = imageLoader.createFutureTask(uri, targetSize, options, future);
+		if (task != null) {
+			try {
+				engine.submit(task);
+			} catch (RejectedExecutionException e) {
+				L.e(e);
+				future.onTaskFinished(); // frees slot of task
+			}
+		}
+	}
+
+	private void onImageFinished(String uri, ImageLoadingFuture future) {
+		int finishedCount;
+		synchronized (this) {
+			runningCount--;
+			if (future.isCancelled()) {
+				finishedCount = -1;
+			} else {
+				if (future.getFailReason() == null) {
+					loadedCount++;
+				} else {
+					failedCount++;
+				}
+				finishedCount = loadedCount + failedCount;
+			}
+		}
+		if (finishedCount >= 0) {
+			fireImageFinishedEvent(uri, future.getBitmap(), future.getFailReason(), finishedCount);
+		}
+		scheduleTasks();
+	}
+
+	private void fireImageFinishedEvent(final String uri, final Bitmap bitmap, final FailReason failReason, final int finishedCount) {
+		if (listener == null) return;
+		engine.postDisplayTask(handler, new Runnable() {
+			@Override
+			public void run() {
+				if (failReason == null) {
+					listener.onImageLoaded(uri, bitmap, finishedCount, totalCount);
+				} else {
+					listener.onImageFailed(uri, failReason, finishedCount, totalCount);
+				}
+			}
+		});
+	}
+
+	private void fireBatchCompleteEvent(final int loadedCount, final int failedCount, final boolean cancelled) {
+		if (listener == null) return;
+		engine.postDisplayTask(handler, new Runnable() {
+			@Override
+			public void run() {
+				listener.onBatchComplete(loadedCount, failedCount, cancelled);
+			}
+		});
+	}
+}
@@ -0,0 +1,50 @@
+/*******************************************************************************
+ * Copyright 2013 Sergey Tarasevich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.nostra13.universalimageloader.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+import com.nostra13.universalimageloader.core.download.ImageDownloader;
+
+/**
+ * Downloader which returns streams of image bytes held in memory. Used to decode images from
+ * {@linkplain ImageLoaderConfiguration#encodedImageMemoryCache encoded image memory cache} and disc cache files which
+ * were read into memory once. Incoming image URI is ignored.
+ * 
+ * @author Sergey Tarasevich (nostra13[at]gmail[dot]com)
+ * @since 1.8.5
+ */
+final class ByteArrayImageDownloader implements ImageDownloader {
+
+	private final byte[] imageBytes;
+	private final int length;
+
+	ByteArrayImageDownloader(byte[] imageBytes) {
+		this(imageBytes, imageBytes.length);
+	}
+
+	/** Image is held in first <b>length</b> bytes of <b>imageBytes</b> */
+	ByteArrayImageDownloader(byte[] imageBytes, int length) {
+		this.imageBytes = imageBytes;
+		this.length = length;
+	}
+
+	@Override
+	public InputStream getStream(String imageUri, Object extra) {
+		return new ByteArrayInputStream(imageBytes, 0, length);
+	}
+}
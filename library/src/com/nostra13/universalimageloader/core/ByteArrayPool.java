@@ -0,0 +1,70 @@
+/*******************************************************************************
+ * Copyright 2013 Sergey Tarasevich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.nostra13.universalimageloader.core;
+
+import java.util.Iterator;
+import java.util.LinkedList;
+
+/**
+ * Pool of byte arrays which are used as temporary buffers for reading of image files. Total size of pooled arrays
+ * doesn't exceed defined limit. Arrays are allocated with size rounded up to {@value #SIZE_STEP} bytes, so they can be
+ * reused for files of close sizes.<br />
+ * Class is thread-safe.
+ * 
+ * @author Sergey Tarasevich (nostra13[at]gmail[dot]com)
+ * @since 1.8.5
+ */
+final class ByteArrayPool {
+
+	private static final int SIZE_STEP = 16 * 1024;
+
+	private final int maxPoolSize;
+	private final LinkedList<byte[]> buffers = new LinkedList<byte[]>();
+	private int poolSize;
+
+	/** @param maxPoolSize Max total size of pooled arrays (in bytes) */
+	ByteArrayPool(int maxPoolSize) {
+		this.maxPoolSize = maxPoolSize;
+	}
+
+	/** Returns pooled array which length isn't less than <b>minLength</b>; or new array if there is no such array */
+	synchronized byte[] get(int minLength) {
+		Iterator<byte[]> it = buffers.iterator();
+		while (it.hasNext()) {
+			byte[] buffer = it.next();
+			if (buffer.length >= minLength) {
+				it.remove();
+				poolSize -= buffer.length;
+				return buffer;
+			}
+		}
+		return new byte[(minLength + SIZE_STEP - 1) / SIZE_STEP * SIZE_STEP];
+	}
+
+	/** Returns array into pool. Array is dropped if pool is full. */
+	synchronized void release(byte[] buffer) {
+		if (poolSize + buffer.length <= maxPoolSize) {
+			buffers.add(buffer);
+			poolSize += buffer.length;
+		}
+	}
+
+	/** Drops all pooled arrays */
+	synchronized void clear() {
+		buffers.clear();
+		poolSize = 0;
+	}
+}
@@ -0,0 +1,141 @@
+/*******************************************************************************
+ * Copyright 2013 Sergey Tarasevich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.nostra13.universalimageloader.core;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import com.nostra13.universalimageloader.core.download.ImageDownloader;
+import com.nostra13.universalimageloader.utils.IoUtils;
+
+/**
+ * Downloader which writes bytes of source stream into target file while they are read by decoder. Every
+ * {@link #getStream(String, Object) returned stream} replays already written part of file and then continues reading
+ * source stream. So image can be decoded (even in several passes) concurrently with its caching on disc.<br />
+ * Incoming image URI is ignored. Class isn't thread-safe, streams should be read one by one.
+ * 
+ * @author Sergey Tarasevich (nostra13[at]gmail[dot]com)
+ * @since 1.8.5
+ */
+final class CachingStreamDownloader implements ImageDownloader {
+
+	private final InputStream sourceStream;
+	private final File targetFile;
+	private final OutputStream targetStream;
+
+	private long writtenBytes;
+	private boolean sourceExhausted;
+
+	CachingStreamDownloader(InputStream sourceStream, File targetFile) throws IOException {
+		this.sourceStream = sourceStream;
+		this.targetFile = targetFile;
+		this.targetStream = new FileOutputStream(targetFile);
+	}
+
+	@Override
+	public InputStream getStream(String imageUri, Object extra) throws IOException {
+		return new ReplayInputStream();
+	}
+
+	/** Writes rest of source stream into target file and closes both streams */
+	void finish() throws IOException {
+		try {
+			if (!sourceExhausted) {
+				IoUtils.copyStream(sourceStream, targetStream);
+				sourceExhausted = true;
+			}
+			targetStream.flush();
+		} finally {
+			IoUtils.closeSilently(sourceStream);
+			IoUtils.closeSilently(targetStream);
+		}
+	}
+
+	/** Closes both streams and deletes incomplete target file */
+	void abort() {
+		IoUtils.closeSilently(sourceStream);
+		IoUtils.closeSilently(targetStream);
+		targetFile.delete();
+	}
+
+	private int readSource(byte[] buffer, int offset, int count) throws IOException {
+		if (sourceExhausted) return -1;
+
+		int read = sourceStream.read(buffer, offset, count);
+		if (read == -1) {
+			sourceExhausted = true;
+		} else {
+			targetStream.write(buffer, offset, read);
+			writtenBytes += read;
+		}
+		return read;
+	}
+
+	private class ReplayInputStream extends InputStream {
+
+		private InputStream fileStream;
+		private long position;
+
+		@Override
+		public int read() throws IOException {
+			byte[] b = new byte[1];
+			int read = read(b, 0, 1);
+			return read == -1 ? -1 : b[0] & 0xFF;
+		}
+
+		@Override
+		public int read(byte[] buffer, int offset, int count) throws IOException {
+			if (count == 0) return 0;
+
+			int read;
+			if (position < writtenBytes) {
+				if (fileStream == null) {
+					fileStream = new FileInputStream(targetFile);
+				}
+				read = fileStream.read(buffer, offset, (int) Math.min(count, writtenBytes - position));
+			} else {
+				closeFileStream();
+				read = readSource(buffer, offset, count);
+			}
+			if (read > 0) {
+				position += read;
+			}
+			return read;
+		}
+
+		@Override
+		public int available() throws IOException {
+			return position < writtenBytes ? (int) Math.min(Integer.MAX_VALUE, writtenBytes - position) : 0;
+		}
+
+		@Override
+		public void close() throws IOException {
+			// Source stream is closed by finish() or abort()
+			closeFileStream();
+		}
+
+		private void closeFileStream() {
+			if (fileStream != null) {
+				IoUtils.closeSilently(fileStream);
+				fileStream = null;
+			}
+		}
+	}
+}
@@ -43,6 +43,7 @@ import com.nostra13.universalimageloader.core.decode.BaseImageDecoder;
 import com.nostra13.universalimageloader.core.decode.ImageDecoder;
 import com.nostra13.universalimageloader.core.display.BitmapDisplayer;
 import com.nostra13.universalimageloader.core.display.SimpleBitmapDisplayer;
+import com.nostra13.universalimageloader.core.download.BandwidthEstimator;
 import com.nostra13.universalimageloader.core.download.BaseImageDownloader;
 import com.nostra13.universalimageloader.core.download.ImageDownloader;
 import com.nostra13.universalimageloader.utils.StorageUtils;
@@ -114,6 +115,14 @@ public class DefaultConfigurationFactory {
 		return new BaseImageDownloader(context);
 	}
 
+	/**
+	 * Creates default implementation of {@link ImageDownloader} - {@link BaseImageDownloader} which feeds incoming
+	 * bandwidth estimator
+	 */
+	public static ImageDownloader createImageDownloader(Context context, BandwidthEstimator bandwidthEstimator) {
+		return new BaseImageDownloader(context, BaseImageDownloader.DEFAULT_HTTP_CONNECT_TIMEOUT, BaseImageDownloader.DEFAULT_HTTP_READ_TIMEOUT, bandwidthEstimator);
+	}
+
 	/** Creates default implementation of {@link ImageDecoder} - {@link BaseImageDecoder} */
 	public static ImageDecoder createImageDecoder(boolean loggingEnabled) {
 		return new BaseImageDecoder(loggingEnabled);
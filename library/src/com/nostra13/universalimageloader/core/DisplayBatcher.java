@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright 2013 Sergey Tarasevich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.nostra13.universalimageloader.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+
+/**
+ * Collects display tasks (and listener events) posted to UI thread and runs them together in one pass per frame. So
+ * burst of completed loadings produces one message in main looper instead of message per image.<br />
+ * On Android 4.1+ pass is aligned to vsync (via {@link Choreographer}), on older versions pending tasks are run by one
+ * {@link Handler} message.<br />
+ * Tasks are run in order they were posted. Class is thread-safe.
+ * 
+ * @author Sergey Tarasevich (nostra13[at]gmail[dot]com)
+ * @since 1.8.5
+ */
+final class DisplayBatcher implements Runnable {
+
+	private final Handler handler = new Handler(Looper.getMainLooper());
+
+	private List<Runnable> pendingTasks = new ArrayList<Runnable>();
+	/** Used only on UI thread, it's swapped with {@link #pendingTasks} at each pass */
+	private List<Runnable> runningTasks = new ArrayList<Runnable>();
+	private boolean scheduled;
+	/** Frame callback (on Android 4.1+), it's created on UI thread at first pass */
+	private volatile Object frameCallback;
+
+	/** Adds task which will be run on UI thread at next frame */
+	void post(Runnable task) {
+		synchronized (this) {
+			pendingTasks.add(task);
+			if (scheduled) return;
+			scheduled = true;
+		}
+		if (frameCallback != null) {
+			postFrameCallback();
+		} else {
+			handler.post(this);
+		}
+	}
+
+	/** Runs all pending tasks. Must be called on UI thread. */
+	@Override
+	public void run() {
+		List<Runnable> tasks;
+		synchronized (this) {
+			tasks = pendingTasks;
+			pendingTasks = runningTasks;
+			runningTasks = tasks;
+			scheduled = false;
+		}
+		try {
+			for (int i = 0; i < tasks.size(); i++) {
+				tasks.get(i).run();
+			}
+		} finally {
+			tasks.clear();
+		}
+		if (frameCallback == null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+			frameCallback = new FrameCallback(this);
+		}
+	}
+
+	@TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+	private void postFrameCallback() {
+		((FrameCallback) frameCallback).post();
+	}
+
+	@TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+	private static class FrameCallback implements Choreographer.FrameCallback {
+
+		private final Choreographer choreographer = Choreographer.getInstance();
+		private final Runnable pass;
+
+		FrameCallback(Runnable pass) {
+			this.pass = pass;
+		}
+
+		void post() {
+			choreographer.postFrameCallback(this);
+		}
+
+		@Override
+		public void doFrame(long frameTimeNanos) {
+			pass.run();
+		}
+	}
+}
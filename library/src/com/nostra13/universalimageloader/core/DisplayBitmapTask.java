@@ -19,8 +19,9 @@ import android.graphics.Bitmap;
 import android.widget.ImageView;
 
 import com.nostra13.universalimageloader.core.assist.ImageLoadingListener;
+import com.nostra13.universalimageloader.core.assist.LoadingMetrics;
+import com.nostra13.universalimageloader.core.assist.LoadingMetricsListener;
 import com.nostra13.universalimageloader.core.display.BitmapDisplayer;
-import com.nostra13.universalimageloader.utils.L;
 
 /**
  * Displays bitmap in {@link ImageView}. Must be called on UI thread.
@@ -43,7 +44,11 @@ final class DisplayBitmapTask implements Runnable {
 	private final ImageLoadingListener listener;
 	private final ImageLoaderEngine engine;
 
-	private boolean loggingEnabled;
+	/** Is null if logging is disabled */
+	private final EventLog eventLog;
+	private LoadingMetrics metrics;
+	private LoadingMetricsListener metricsListener;
+	private long postTime;
 
 	public DisplayBitmapTask(Bitmap bitmap, ImageLoadingInfo imageLoadingInfo, ImageLoaderEngine engine) {
 		this.bitmap = bitmap;
@@ -53,18 +58,23 @@ final class DisplayBitmapTask implements Runnable {
 		displayer = imageLoadingInfo.options.getDisplayer();
 		listener = imageLoadingInfo.listener;
 		this.engine = engine;
+		eventLog = engine.configuration.eventLog;
 	}
 
 	public void run() {
+		if (metrics != null) metrics.addDuration(LoadingMetrics.Stage.UI_POST, System.nanoTime() - postTime);
+
 		if (isViewWasReused()) {
-			if (loggingEnabled) L.i(LOG_TASK_CANCELLED, memoryCacheKey);
+			if (eventLog != null) eventLog.add(LOG_TASK_CANCELLED, memoryCacheKey);
 			listener.onLoadingCancelled(imageUri, imageView);
 		} else {
-			if (loggingEnabled) L.i(LOG_DISPLAY_IMAGE_IN_IMAGEVIEW, memoryCacheKey);
+			if (eventLog != null) eventLog.add(LOG_DISPLAY_IMAGE_IN_IMAGEVIEW, memoryCacheKey);
 			Bitmap displayedBitmap = displayer.display(bitmap, imageView);
 			listener.onLoadingComplete(imageUri, imageView, displayedBitmap);
 			engine.cancelDisplayTaskFor(imageView);
 		}
+
+		if (metrics != null) metricsListener.onLoadingMetrics(metrics);
 	}
 
 	/** Checks whether memory cache key (image URI) for current ImageView is actual */
@@ -73,7 +83,10 @@ final class DisplayBitmapTask implements Runnable {
 		return !memoryCacheKey.equals(currentCacheKey);
 	}
 
-	void setLoggingEnabled(boolean loggingEnabled) {
-		this.loggingEnabled = loggingEnabled;
+	/** Sets metrics which should be completed and reported on displaying. Must be called right before task posting. */
+	void setLoadingMetrics(LoadingMetrics metrics, LoadingMetricsListener metricsListener) {
+		this.metrics = metrics;
+		this.metricsListener = metricsListener;
+		postTime = System.nanoTime();
 	}
 }
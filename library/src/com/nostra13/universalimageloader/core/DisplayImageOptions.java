@@ -18,6 +18,7 @@ package com.nostra13.universalimageloader.core;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory.Options;
 import android.os.Handler;
+import android.os.Looper;
 import android.widget.ImageView;
 
 import com.nostra13.universalimageloader.core.assist.ImageLoadingListener;
@@ -43,6 +44,7 @@ import com.nostra13.universalimageloader.core.process.BitmapProcessor;
  * <li>pre-processor for image Bitmap (before caching in memory)</li>
  * <li>post-processor for image Bitmap (after caching in memory, before displaying)</li>
  * <li>how decoded {@link Bitmap} will be displayed</li>
+ * <li>max size of disc cached image which can be loaded synchronously (bypassing task queues)</li>
  * </ul>
  * 
  * You can create instance:
@@ -73,6 +75,7 @@ public final class DisplayImageOptions {
 	private final BitmapProcessor postProcessor;
 	private final BitmapDisplayer displayer;
 	private final Handler handler;
+	private final int maxFileSizeForSyncLoading;
 
 	private DisplayImageOptions(Builder builder) {
 		stubImage = builder.stubImage;
@@ -89,6 +92,7 @@ public final class DisplayImageOptions {
 		postProcessor = builder.postProcessor;
 		displayer = builder.displayer;
 		handler = builder.handler;
+		maxFileSizeForSyncLoading = builder.maxFileSizeForSyncLoading;
 	}
 
 	public boolean shouldShowStubImage() {
@@ -115,6 +119,10 @@ public final class DisplayImageOptions {
 		return delayBeforeLoading > 0;
 	}
 
+	public boolean shouldLoadCachedImagesSynchronously() {
+		return maxFileSizeForSyncLoading > 0;
+	}
+
 	public int getStubImage() {
 		return stubImage;
 	}
@@ -171,6 +179,15 @@ public final class DisplayImageOptions {
 		return (handler == null ? new Handler() : handler);
 	}
 
+	/** Returns custom handler; or handler of main thread if custom handler isn't set */
+	Handler getHandlerOrMainThreadHandler() {
+		return (handler == null ? new Handler(Looper.getMainLooper()) : handler);
+	}
+
+	public int getMaxFileSizeForSyncLoading() {
+		return maxFileSizeForSyncLoading;
+	}
+
 	/**
 	 * Builder for {@link DisplayImageOptions}
 	 * 
@@ -191,6 +208,7 @@ public final class DisplayImageOptions {
 		private BitmapProcessor postProcessor = null;
 		private BitmapDisplayer displayer = DefaultConfigurationFactory.createBitmapDisplayer();
 		private Handler handler = null;
+		private int maxFileSizeForSyncLoading = 0;
 
 		public Builder() {
 			decodingOptions.inPurgeable = true;
@@ -324,6 +342,29 @@ public final class DisplayImageOptions {
 			return this;
 		}
 
+		/**
+		 * Images cached on disc which file size doesn't exceed <b>maxFileSize</b> will be loaded without waiting in
+		 * common task queues:
+		 * <ul>
+		 * <li>if image is displayed from background thread then image is decoded right on this thread (so
+		 * <code>displayImage(...)</code> call blocks until image is decoded)</li>
+		 * <li>if image is displayed from UI thread then image is decoded by separate low-latency thread</li>
+		 * </ul>
+		 * Other images are loaded as usual. Image won't be loaded synchronously if
+		 * {@linkplain ImageLoader#pause() ImageLoader is paused} or {@linkplain #delayBeforeLoading(int) delay before
+		 * loading} is set.<br />
+		 * In this mode all changes of ImageView (stub image, displaying of image) and listener events are done on main
+		 * thread (or on thread of custom {@linkplain #handler(Handler) handler}), so <code>displayImage(...)</code> can be
+		 * called on background thread which doesn't have a Looper.<br />
+		 * Default value - 0 (images are never loaded synchronously)
+		 * 
+		 * @param maxFileSize Max size (in bytes) of disc cached image file for synchronous loading
+		 */
+		public Builder loadCachedImagesSynchronously(int maxFileSize) {
+			this.maxFileSizeForSyncLoading = maxFileSize;
+			return this;
+		}
+
 		/** Sets all options equal to incoming options */
 		public Builder cloneFrom(DisplayImageOptions options) {
 			stubImage = options.stubImage;
@@ -340,6 +381,7 @@ public final class DisplayImageOptions {
 			postProcessor = options.postProcessor;
 			displayer = options.displayer;
 			handler = options.handler;
+			maxFileSizeForSyncLoading = options.maxFileSizeForSyncLoading;
 			return this;
 		}
 
@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright 2013 Sergey Tarasevich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.nostra13.universalimageloader.core;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Ring buffer of ImageLoader events. Event is stored as reference to its message format (constant) and arguments, so
+ * recording of event doesn't allocate memory. Messages are formatted only on {@linkplain #dump() dumping}.<br />
+ * Class is thread-safe.
+ * 
+ * @author Sergey Tarasevich (nostra13[at]gmail[dot]com)
+ * @since 1.8.5
+ */
+final class EventLog {
+
+	static final int DEFAULT_CAPACITY = 512;
+
+	private static final String DUMP_FORMAT = "%s %s: %s";
+	private static final String TIME_FORMAT = "HH:mm:ss.SSS";
+
+	private static final byte ARGS_OBJECT = 0;
+	private static final byte ARGS_LONG_OBJECT = 1;
+	private static final byte ARGS_LONG_OBJECT_OBJECT = 2;
+
+	private final String[] formats;
+	private final byte[] argTypes;
+	private final long[] longArgs;
+	private final Object[] args1;
+	private final Object[] args2;
+	private final long[] times;
+	private final String[] threadNames;
+
+	private int next;
+	private int count;
+
+	EventLog(int capacity) {
+		formats = new String[capacity];
+		argTypes = new byte[capacity];
+		longArgs = new long[capacity];
+		args1 = new Object[capacity];
+		args2 = new Object[capacity];
+		times = new long[capacity];
+		threadNames = new String[capacity];
+	}
+
+	/** Records event with message format containing one argument: (1) - object argument */
+	void add(String format, Object arg) {
+		add(format, ARGS_OBJECT, 0, arg, null);
+	}
+
+	/** Records event with message format containing two arguments: (1) - long argument, (2) - object argument */
+	void add(String format, long longArg, Object arg) {
+		add(format, ARGS_LONG_OBJECT, longArg, arg, null);
+	}
+
+	/**
+	 * Records event with message format containing three arguments: (1) - long argument, (2), (3) - object arguments
+	 */
+	void add(String format, long longArg, Object arg1, Object arg2) {
+		add(format, ARGS_LONG_OBJECT_OBJECT, longArg, arg1, arg2);
+	}
+
+	private synchronized void add(String format, byte argType, long longArg, Object arg1, Object arg2) {
+		int i = next;
+		formats[i] = format;
+		argTypes[i] = argType;
+		longArgs[i] = longArg;
+		args1[i] = arg1;
+		args2[i] = arg2;
+		times[i] = System.currentTimeMillis();
+		threadNames[i] = Thread.currentThread().getName();
+
+		next = (i + 1) % formats.length;
+		if (count < formats.length) count++;
+	}
+
+	/** Returns formatted events (the oldest first) */
+	synchronized List<String> dump() {
+		List<String> events = new ArrayList<String>(count);
+		SimpleDateFormat timeFormat = new SimpleDateFormat(TIME_FORMAT, Locale.US);
+		Date date = new Date();
+		int first = (next - count + formats.length) % formats.length;
+		for (int n = 0; n < count; n++) {
+			int i = (first + n) % formats.length;
+			String message;
+			switch (argTypes[i]) {
+				case ARGS_LONG_OBJECT:
+					message = String.format(formats[i], longArgs[i], args1[i]);
+					break;
+				case ARGS_LONG_OBJECT_OBJECT:
+					message = String.format(formats[i], longArgs[i], args1[i], args2[i]);
+					break;
+				default:
+					message = String.format(formats[i], args1[i]);
+					break;
+			}
+			date.setTime(times[i]);
+			events.add(String.format(DUMP_FORMAT, timeFormat.format(date), threadNames[i], message));
+		}
+		return events;
+	}
+
+	synchronized void clear() {
+		for (int i = 0; i < formats.length; i++) {
+			formats[i] = null;
+			args1[i] = null;
+			args2[i] = null;
+			threadNames[i] = null;
+		}
+		next = 0;
+		count = 0;
+	}
+}
@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright 2013 Sergey Tarasevich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.nostra13.universalimageloader.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Limits count of concurrently running network tasks per host (see
+ * {@link ImageLoaderConfiguration.Builder#maxTasksPerHost(int)}). Tasks which exceed the limit wait until running
+ * task of their host finishes and passes its slot to them.<br />
+ * Class is thread-safe.
+ * 
+ * @author Sergey Tarasevich (nostra13[at]gmail[dot]com)
+ * @since 1.8.5
+ */
+final class HostTaskLimiter<T> {
+
+	private final int maxTasksPerHost;
+	private final boolean lifo;
+
+	/** Count of running tasks per host */
+	private final Map<String, Integer> runningTasksPerHost = new HashMap<String, Integer>();
+	/** Tasks which exceeded per-host limit and wait for free slot */
+	private final Map<String, LinkedList<T>> waitingTasksPerHost = new HashMap<String, LinkedList<T>>();
+
+	/**
+	 * @param maxTasksPerHost Max count of running tasks per host
+	 * @param lifo Whether last deferred task of host should get free slot first
+	 */
+	HostTaskLimiter(int maxTasksPerHost, boolean lifo) {
+		this.maxTasksPerHost = maxTasksPerHost;
+		this.lifo = lifo;
+	}
+
+	/**
+	 * Takes slot of host for task. If host already has max count of running tasks then task is deferred.
+	 * 
+	 * @return <b>true</b> - if task got the slot and should be run; <b>false</b> - if task is deferred
+	 */
+	synchronized boolean tryAcquire(String host, T task) {
+		int runningCount = getRunningTaskCount(host);
+		if (runningCount >= maxTasksPerHost) {
+			LinkedList<T> waitingTasks = waitingTasksPerHost.get(host);
+			if (waitingTasks == null) {
+				waitingTasks = new LinkedList<T>();
+				waitingTasksPerHost.put(host, waitingTasks);
+			}
+			waitingTasks.add(task);
+			return false;
+		}
+		runningTasksPerHost.put(host, runningCount + 1);
+		return true;
+	}
+
+	/**
+	 * Frees slot of host. If there are deferred tasks of this host then the slot is passed to next of them.
+	 * 
+	 * @return Next deferred task which got the slot (it must be run or {@linkplain #release(String) released}
+	 *         then); <b>null</b> - if there are no deferred tasks of the host
+	 */
+	synchronized T release(String host) {
+		LinkedList<T> waitingTasks = waitingTasksPerHost.get(host);
+		if (waitingTasks != null) {
+			T nextTask = lifo ? waitingTasks.removeLast() : waitingTasks.removeFirst();
+			if (waitingTasks.isEmpty()) {
+				waitingTasksPerHost.remove(host);
+			}
+			return nextTask;
+		}
+
+		int runningCount = getRunningTaskCount(host);
+		if (runningCount <= 1) {
+			runningTasksPerHost.remove(host);
+		} else {
+			runningTasksPerHost.put(host, runningCount - 1);
+		}
+		return null;
+	}
+
+	/** Removes all deferred tasks. Counts of running tasks aren't changed. */
+	synchronized List<T> clearWaitingTasks() {
+		List<T> tasks = new ArrayList<T>();
+		for (LinkedList<T> waitingTasks : waitingTasksPerHost.values()) {
+			tasks.addAll(waitingTasks);
+		}
+		waitingTasksPerHost.clear();
+		return tasks;
+	}
+
+	synchronized int getRunningTaskCount(String host) {
+		Integer runningTasks = runningTasksPerHost.get(host);
+		return runningTasks == null ? 0 : runningTasks;
+	}
+
+	synchronized int getWaitingTaskCount() {
+		int count = 0;
+		for (LinkedList<T> waitingTasks : waitingTasksPerHost.values()) {
+			count += waitingTasks.size();
+		}
+		return count;
+	}
+}
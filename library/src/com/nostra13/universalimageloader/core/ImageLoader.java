@@ -15,20 +15,38 @@
  *******************************************************************************/
 package com.nostra13.universalimageloader.core;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import android.annotation.TargetApi;
+import android.content.ComponentCallbacks;
+import android.content.ComponentCallbacks2;
+import android.content.res.Configuration;
 import android.graphics.Bitmap;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
 import android.text.TextUtils;
 import android.view.View;
 import android.view.ViewGroup.LayoutParams;
 import android.widget.ImageView;
 import android.widget.ImageView.ScaleType;
 
+import com.nostra13.universalimageloader.cache.CacheStats;
+import com.nostra13.universalimageloader.cache.CacheStatsAware;
 import com.nostra13.universalimageloader.cache.disc.DiscCacheAware;
 import com.nostra13.universalimageloader.cache.memory.MemoryCacheAware;
+import com.nostra13.universalimageloader.cache.memory.TrimmableMemoryCache;
+import com.nostra13.universalimageloader.core.assist.BatchLoadingListener;
+import com.nostra13.universalimageloader.core.assist.EngineStats;
 import com.nostra13.universalimageloader.core.assist.FailReason;
 import com.nostra13.universalimageloader.core.assist.FlushedInputStream;
 import com.nostra13.universalimageloader.core.assist.ImageLoadingListener;
 import com.nostra13.universalimageloader.core.assist.ImageSize;
+import com.nostra13.universalimageloader.core.assist.LoadingBatch;
 import com.nostra13.universalimageloader.core.assist.MemoryCacheUtil;
+import com.nostra13.universalimageloader.core.assist.PrefetchLevel;
 import com.nostra13.universalimageloader.core.assist.SimpleImageLoadingListener;
 import com.nostra13.universalimageloader.core.display.BitmapDisplayer;
 import com.nostra13.universalimageloader.core.display.FakeBitmapDisplayer;
@@ -52,12 +70,15 @@ public class ImageLoader {
 
 	private static final String WARNING_RE_INIT_CONFIG = "Try to initialize ImageLoader which had already been initialized before. "
 			+ "To re-init ImageLoader with new configuration call ImageLoader.destroy() at first.";
+	private static final String ERROR_WRONG_CONCURRENCY = "maxConcurrentTasks must be positive";
 	private static final String ERROR_WRONG_ARGUMENTS = "Wrong arguments were passed to displayImage() method (ImageView reference must not be null)";
 	private static final String ERROR_NOT_INIT = "ImageLoader must be init with configuration before using";
 	private static final String ERROR_INIT_CONFIG_WITH_NULL = "ImageLoader configuration can not be initialized with null";
 
 	private ImageLoaderConfiguration configuration;
 	private ImageLoaderEngine engine;
+	/** Is null on Android < 4.0 */
+	private ComponentCallbacks memoryTrimCallbacks;
 
 	private final ImageLoadingListener emptyListener = new SimpleImageLoadingListener();
 	private final BitmapDisplayer fakeBitmapDisplayer = new FakeBitmapDisplayer();
@@ -95,6 +116,7 @@ public class ImageLoader {
 			if (configuration.loggingEnabled) L.d(LOG_INIT_CONFIG);
 			engine = new ImageLoaderEngine(configuration);
 			this.configuration = configuration;
+			registerMemoryTrimCallbacks();
 		} else {
 			L.w(WARNING_RE_INIT_CONFIG);
 		}
@@ -176,7 +198,7 @@ public class ImageLoader {
 	 * @throws IllegalStateException if {@link #init(ImageLoaderConfiguration)} method wasn't called before
 	 * @throws IllegalArgumentException if passed <b>imageView</b> is null
 	 */
-	public void displayImage(String uri, ImageView imageView, DisplayImageOptions options, ImageLoadingListener listener) {
+	public void displayImage(final String uri, final ImageView imageView, DisplayImageOptions options, ImageLoadingListener listener) {
 		checkConfiguration();
 		if (imageView == null) {
 			throw new IllegalArgumentException(ERROR_WRONG_ARGUMENTS);
@@ -187,16 +209,28 @@ public class ImageLoader {
 		if (options == null) {
 			options = configuration.defaultDisplayImageOptions;
 		}
+		final ImageLoadingListener finalListener = listener;
+		final DisplayImageOptions finalOptions = options;
+
+		// In this mode method can be called on background thread, then view is changed and listener is called on main
+		// thread (or thread of custom handler)
+		boolean loadSynchronously = options.shouldLoadCachedImagesSynchronously() && !options.shouldDelayBeforeLoading();
+		Handler viewHandler = loadSynchronously ? options.getHandlerOrMainThreadHandler() : null;
 
 		if (TextUtils.isEmpty(uri)) {
 			engine.cancelDisplayTaskFor(imageView);
-			listener.onLoadingStarted(uri, imageView);
-			if (options.shouldShowImageForEmptyUri()) {
-				imageView.setImageResource(options.getImageForEmptyUri());
-			} else {
-				imageView.setImageBitmap(null);
-			}
-			listener.onLoadingComplete(uri, imageView, null);
+			runOnViewThread(viewHandler, new Runnable() {
+				@Override
+				public void run() {
+					finalListener.onLoadingStarted(uri, imageView);
+					if (finalOptions.shouldShowImageForEmptyUri()) {
+						imageView.setImageResource(finalOptions.getImageForEmptyUri());
+					} else {
+						imageView.setImageBitmap(null);
+					}
+					finalListener.onLoadingComplete(uri, imageView, null);
+				}
+			});
 			return;
 		}
 
@@ -205,32 +239,65 @@ public class ImageLoader {
 		String memoryCacheKey = MemoryCacheUtil.generateKey(uri, targetSize);
 		engine.prepareDisplayTaskFor(imageView, memoryCacheKey);
 
-		listener.onLoadingStarted(uri, imageView);
-		Bitmap bmp = configuration.memoryCache.get(memoryCacheKey);
+		runOnViewThread(viewHandler, new Runnable() {
+			@Override
+			public void run() {
+				finalListener.onLoadingStarted(uri, imageView);
+			}
+		});
+		final Bitmap bmp = configuration.memoryCache.get(memoryCacheKey);
 		if (bmp != null && !bmp.isRecycled()) {
-			if (configuration.loggingEnabled) L.i(LOG_LOAD_IMAGE_FROM_MEMORY_CACHE, memoryCacheKey);
+			if (configuration.eventLog != null) configuration.eventLog.add(LOG_LOAD_IMAGE_FROM_MEMORY_CACHE, memoryCacheKey);
 
 			if (options.shouldPostProcess()) {
 				ImageLoadingInfo imageLoadingInfo = new ImageLoadingInfo(uri, imageView, targetSize, memoryCacheKey, options, listener,
 						engine.getLockForUri(uri));
-				ProcessAndDisplayImageTask displayTask = new ProcessAndDisplayImageTask(engine, bmp, imageLoadingInfo, options.getHandler());
+				Handler handler = loadSynchronously ? viewHandler : options.getHandler();
+				ProcessAndDisplayImageTask displayTask = new ProcessAndDisplayImageTask(engine, bmp, imageLoadingInfo, handler);
 				engine.submit(displayTask);
 			} else {
-				options.getDisplayer().display(bmp, imageView);
-				listener.onLoadingComplete(uri, imageView, bmp);
+				runOnViewThread(viewHandler, new Runnable() {
+					@Override
+					public void run() {
+						finalOptions.getDisplayer().display(bmp, imageView);
+						finalListener.onLoadingComplete(uri, imageView, bmp);
+					}
+				});
 			}
 		} else {
-			if (options.shouldShowStubImage()) {
-				imageView.setImageResource(options.getStubImage());
-			} else {
-				if (options.isResetViewBeforeLoading()) {
-					imageView.setImageBitmap(null);
+			runOnViewThread(viewHandler, new Runnable() {
+				@Override
+				public void run() {
+					if (finalOptions.shouldShowStubImage()) {
+						imageView.setImageResource(finalOptions.getStubImage());
+					} else {
+						if (finalOptions.isResetViewBeforeLoading()) {
+							imageView.setImageBitmap(null);
+						}
+					}
 				}
-			}
+			});
 
 			ImageLoadingInfo imageLoadingInfo = new ImageLoadingInfo(uri, imageView, targetSize, memoryCacheKey, options, listener, engine.getLockForUri(uri));
-			LoadAndDisplayImageTask displayTask = new LoadAndDisplayImageTask(engine, imageLoadingInfo, options.getHandler());
-			engine.submit(displayTask);
+			if (loadSynchronously) {
+				LoadAndDisplayImageTask displayTask = new LoadAndDisplayImageTask(engine, imageLoadingInfo, viewHandler);
+				engine.submitSync(displayTask, options.getMaxFileSizeForSyncLoading());
+			} else {
+				LoadAndDisplayImageTask displayTask = new LoadAndDisplayImageTask(engine, imageLoadingInfo, options.getHandler());
+				engine.submit(displayTask);
+			}
+		}
+	}
+
+	/**
+	 * Runs <b>action</b> on thread of <b>handler</b> (right away if it's current thread). If handler is null then
+	 * action is run on current thread.
+	 */
+	private static void runOnViewThread(Handler handler, Runnable action) {
+		if (handler == null || handler.getLooper() == Looper.myLooper()) {
+			action.run();
+		} else {
+			handler.post(action);
 		}
 	}
 
@@ -258,7 +325,7 @@ public class ImageLoader {
 	 * @param minImageSize Minimal size for {@link Bitmap} which will be returned in
 	 *            {@linkplain ImageLoadingListener#onLoadingComplete(Bitmap) callback}. Downloaded image will be decoded
 	 *            and scaled to {@link Bitmap} of the size which is <b>equal or larger</b> (usually a bit larger) than
-	 *            incoming minImageSize .
+	 *            incoming targetImageSize.
 	 * @param listener {@linkplain ImageLoadingListener Listener} for image loading process. Listener fires events on UI
 	 *            thread.
 	 * 
@@ -297,7 +364,7 @@ public class ImageLoader {
 	 * @param targetImageSize Minimal size for {@link Bitmap} which will be returned in
 	 *            {@linkplain ImageLoadingListener#onLoadingComplete(Bitmap) callback}. Downloaded image will be decoded
 	 *            and scaled to {@link Bitmap} of the size which is <b>equal or larger</b> (usually a bit larger) than
-	 *            incoming minImageSize .
+	 *            incoming targetImageSize.
 	 * @param options {@linkplain DisplayImageOptions Display image options} for image displaying. If <b>null</b> -
 	 *            default display image options
 	 *            {@linkplain ImageLoaderConfiguration.Builder#defaultDisplayImageOptions(DisplayImageOptions) from
@@ -331,6 +398,231 @@ public class ImageLoader {
 		displayImage(uri, fakeImage, optionsWithFakeDisplayer, listener);
 	}
 
+	/**
+	 * Loads and decodes image synchronously on calling thread. Memory and disc caches are used as for
+	 * {@link #loadImage(String, ImageLoadingListener)}; if the same image is loading by other task at this moment then
+	 * method waits for this loading.<br />
+	 * <b>NOTE:</b> {@link #init(ImageLoaderConfiguration)} method must be called before this method call<br />
+	 * <b>NOTE:</b> Method blocks calling thread so it shouldn't be called on UI thread. If ImageLoader is
+	 * {@linkplain #pause() paused} then calling thread also waits until ImageLoader is {@linkplain #resume() resumed}.
+	 * 
+	 * @param uri Image URI (i.e. "http://site.com/image.png", "file:///mnt/sdcard/image.png")
+	 * @return Loaded bitmap; <b>null</b> - if loading failed
+	 * @throws IllegalStateException if {@link #init(ImageLoaderConfiguration)} method wasn't called before
+	 */
+	public Bitmap loadImageSync(String uri) {
+		return loadImageSync(uri, null, null);
+	}
+
+	/**
+	 * Loads and decodes image synchronously on calling thread. See {@link #loadImageSync(String)}.
+	 * 
+	 * @param uri Image URI (i.e. "http://site.com/image.png", "file:///mnt/sdcard/image.png")
+	 * @param targetImageSize Minimal size for {@link Bitmap} which will be returned. Downloaded image will be decoded
+	 *            and scaled to {@link Bitmap} of the size which is <b>equal or larger</b> (usually a bit larger) than
+	 *            incoming targetImageSize. If <b>null</b> - size defined by
+	 *            {@link ImageLoaderConfiguration.Builder#memoryCacheExtraOptions(int, int)} will be used.
+	 * @param options {@linkplain DisplayImageOptions Display image options} for image loading. If <b>null</b> - default
+	 *            display image options
+	 *            {@linkplain ImageLoaderConfiguration.Builder#defaultDisplayImageOptions(DisplayImageOptions) from
+	 *            configuration} will be used.
+	 * @return Loaded bitmap; <b>null</b> - if loading failed
+	 * @throws IllegalStateException if {@link #init(ImageLoaderConfiguration)} method wasn't called before
+	 */
+	public Bitmap loadImageSync(String uri, ImageSize targetImageSize, DisplayImageOptions options) {
+		checkConfiguration();
+		ImageLoadingFuture future = new ImageLoadingFuture();
+		LoadAndDisplayImageTask task = createFutureTask(uri, targetImageSize, options, future);
+		if (task != null) {
+			task.run();
+		}
+		return future.getBitmap();
+	}
+
+	/**
+	 * Adds load image task to execution pool. Loaded image can be got from returned {@link ImageLoadingFuture} on any
+	 * thread, no UI thread is involved.<br />
+	 * <b>NOTE:</b> {@link #init(ImageLoaderConfiguration)} method must be called before this method call
+	 * 
+	 * @param uri Image URI (i.e. "http://site.com/image.png", "file:///mnt/sdcard/image.png")
+	 * @return Future for loaded bitmap which also can cancel loading
+	 * @throws IllegalStateException if {@link #init(ImageLoaderConfiguration)} method wasn't called before
+	 */
+	public ImageLoadingFuture loadImageAsync(String uri) {
+		return loadImageAsync(uri, null, null);
+	}
+
+	/**
+	 * Adds load image task to execution pool. See {@link #loadImageAsync(String)}.
+	 * 
+	 * @param uri Image URI (i.e. "http://site.com/image.png", "file:///mnt/sdcard/image.png")
+	 * @param targetImageSize Minimal size for {@link Bitmap} which will be returned. If <b>null</b> - size defined by
+	 *            {@link ImageLoaderConfiguration.Builder#memoryCacheExtraOptions(int, int)} will be used.
+	 * @param options {@linkplain DisplayImageOptions Display image options} for image loading. If <b>null</b> - default
+	 *            display image options
+	 *            {@linkplain ImageLoaderConfiguration.Builder#defaultDisplayImageOptions(DisplayImageOptions) from
+	 *            configuration} will be used.
+	 * @return Future for loaded bitmap which also can cancel loading
+	 * @throws IllegalStateException if {@link #init(ImageLoaderConfiguration)} method wasn't called before
+	 */
+	public ImageLoadingFuture loadImageAsync(String uri, ImageSize targetImageSize, DisplayImageOptions options) {
+		checkConfiguration();
+		ImageLoadingFuture future = new ImageLoadingFuture();
+		LoadAndDisplayImageTask task = createFutureTask(uri, targetImageSize, options, future);
+		if (task != null) {
+			engine.submit(task);
+		}
+		return future;
+	}
+
+	/**
+	 * Loads batch of images. Duplicated URIs are loaded once. Not more than
+	 * {@linkplain ImageLoaderConfiguration.Builder#threadPoolSize(int) thread pool size} images of batch are loaded
+	 * at the same time. See {@link #loadImages(Collection, ImageSize, DisplayImageOptions, int, BatchLoadingListener)}.
+	 * 
+	 * @return Batch which can cancel loading of these images
+	 * @throws IllegalStateException if {@link #init(ImageLoaderConfiguration)} method wasn't called before
+	 */
+	public LoadingBatch loadImages(Collection<String> uris, DisplayImageOptions options, BatchLoadingListener listener) {
+		checkConfiguration();
+		return loadImages(uris, null, options, configuration.threadPoolSize, listener);
+	}
+
+	/**
+	 * Loads batch of images. Duplicated (and empty) URIs are loaded once. Images are loaded as by
+	 * {@link #loadImageAsync(String, ImageSize, DisplayImageOptions)} but not more than <b>maxConcurrentTasks</b>
+	 * images of batch are submitted to execution pool at the same time, so batch doesn't block other loadings.<br />
+	 * Listener is notified about every loaded image and once about batch completion.<br />
+	 * <b>NOTE:</b> {@link #init(ImageLoaderConfiguration)} method must be called before this method call
+	 * 
+	 * @param uris Image URIs
+	 * @param targetImageSize Minimal size for loaded bitmaps. If <b>null</b> - size defined by
+	 *            {@link ImageLoaderConfiguration.Builder#memoryCacheExtraOptions(int, int)} will be used.
+	 * @param options {@linkplain DisplayImageOptions Display image options} for image loading. If <b>null</b> - default
+	 *            display image options
+	 *            {@linkplain ImageLoaderConfiguration.Builder#defaultDisplayImageOptions(DisplayImageOptions) from
+	 *            configuration} will be used.
+	 * @param maxConcurrentTasks Max count of batch images which are loaded at the same time
+	 * @param listener {@linkplain BatchLoadingListener Listener} for batch loading process; can be null. Listener fires
+	 *            events on UI thread (or on thread of
+	 *            {@linkplain DisplayImageOptions.Builder#handler(android.os.Handler) custom handler}).
+	 * @return Batch which can cancel loading of these images
+	 * @throws IllegalStateException if {@link #init(ImageLoaderConfiguration)} method wasn't called before
+	 * @throws IllegalArgumentException if <b>maxConcurrentTasks</b> isn't positive
+	 */
+	public LoadingBatch loadImages(Collection<String> uris, ImageSize targetImageSize, DisplayImageOptions options, int maxConcurrentTasks,
+			BatchLoadingListener listener) {
+		checkConfiguration();
+		if (maxConcurrentTasks <= 0) {
+			throw new IllegalArgumentException(ERROR_WRONG_CONCURRENCY);
+		}
+		if (targetImageSize == null) {
+			targetImageSize = new ImageSize(configuration.maxImageWidthForMemoryCache, configuration.maxImageHeightForMemoryCache);
+		}
+		if (options == null) {
+			options = configuration.defaultDisplayImageOptions;
+		}
+
+		BatchLoader batchLoader = new BatchLoader(this, engine, uris, targetImageSize, options, maxConcurrentTasks, listener);
+		batchLoader.start();
+		return batchLoader.getBatch();
+	}
+
+	/**
+	 * Creates task which loads image into <b>future</b>. Returns <b>null</b> and completes future if there is nothing
+	 * to load (empty URI or image is cached in memory).
+	 */
+	LoadAndDisplayImageTask createFutureTask(String uri, ImageSize targetImageSize, DisplayImageOptions options, ImageLoadingFuture future) {
+		if (targetImageSize == null) {
+			targetImageSize = new ImageSize(configuration.maxImageWidthForMemoryCache, configuration.maxImageHeightForMemoryCache);
+		}
+		if (options == null) {
+			options = configuration.defaultDisplayImageOptions;
+		}
+		if (TextUtils.isEmpty(uri)) {
+			future.complete(null);
+			return null;
+		}
+
+		String memoryCacheKey = MemoryCacheUtil.generateKey(uri, targetImageSize);
+		Bitmap bmp = configuration.memoryCache.get(memoryCacheKey);
+		if (bmp != null && !bmp.isRecycled() && !options.shouldPostProcess()) {
+			if (configuration.eventLog != null) configuration.eventLog.add(LOG_LOAD_IMAGE_FROM_MEMORY_CACHE, memoryCacheKey);
+			future.complete(bmp);
+			return null;
+		}
+
+		ImageLoadingInfo imageLoadingInfo = new ImageLoadingInfo(uri, targetImageSize, memoryCacheKey, options, engine.getLockForUri(uri), future);
+		return new LoadAndDisplayImageTask(engine, imageLoadingInfo, null);
+	}
+
+	/**
+	 * Prefetches image to warm caches: downloads it into disc cache and (for {@link PrefetchLevel#MEMORY}) decodes it
+	 * into memory cache. Image isn't displayed and no view is created. Prefetch tasks are executed by separate thread
+	 * pool of lowest priority and share "one load per URI" logic with display tasks.<br />
+	 * Default {@linkplain DisplayImageOptions display image options} from {@linkplain ImageLoaderConfiguration
+	 * configuration} are used (with enabled caching).<br />
+	 * <b>NOTE:</b> {@link #init(ImageLoaderConfiguration)} method must be called before this method call
+	 * 
+	 * @param uri Image URI (i.e. "http://site.com/image.png", "file:///mnt/sdcard/image.png")
+	 * @param targetImageSize Size of views which will display image (it defines memory cache key, so it should be the
+	 *            same as for following {@link #displayImage(String, ImageView)} calls). If <b>null</b> - size defined by
+	 *            {@link ImageLoaderConfiguration.Builder#memoryCacheExtraOptions(int, int)} will be used.
+	 * @param level Defines which caches are warmed
+	 * @param batch Batch which can cancel prefetching; can be null
+	 * @throws IllegalStateException if {@link #init(ImageLoaderConfiguration)} method wasn't called before
+	 */
+	public void prefetch(String uri, ImageSize targetImageSize, PrefetchLevel level, LoadingBatch batch) {
+		checkConfiguration();
+		if (batch == null) {
+			batch = new LoadingBatch();
+		}
+		submitPrefetch(uri, getTargetSizeForPrefetch(targetImageSize), level, createPrefetchOptions(level), batch);
+	}
+
+	/**
+	 * Prefetches images to warm caches. See {@link #prefetch(String, ImageSize, PrefetchLevel, LoadingBatch)}.
+	 * 
+	 * @return Batch which can cancel prefetching of these images
+	 * @throws IllegalStateException if {@link #init(ImageLoaderConfiguration)} method wasn't called before
+	 */
+	public LoadingBatch prefetch(Collection<String> uris, ImageSize targetImageSize, PrefetchLevel level) {
+		checkConfiguration();
+		LoadingBatch batch = new LoadingBatch();
+		ImageSize targetSize = getTargetSizeForPrefetch(targetImageSize);
+		DisplayImageOptions options = createPrefetchOptions(level);
+		for (String uri : uris) {
+			submitPrefetch(uri, targetSize, level, options, batch);
+		}
+		return batch;
+	}
+
+	private void submitPrefetch(String uri, ImageSize targetSize, PrefetchLevel level, DisplayImageOptions options, LoadingBatch batch) {
+		if (TextUtils.isEmpty(uri)) return;
+
+		String memoryCacheKey = MemoryCacheUtil.generateKey(uri, targetSize);
+		Bitmap bmp = configuration.memoryCache.get(memoryCacheKey);
+		if (bmp != null && !bmp.isRecycled()) return; // already in memory
+
+		ImageLoadingInfo imageLoadingInfo = new ImageLoadingInfo(uri, targetSize, memoryCacheKey, options, engine.getLockForUri(uri), level, batch);
+		engine.submitPrefetch(new LoadAndDisplayImageTask(engine, imageLoadingInfo, options.getHandler()));
+	}
+
+	private ImageSize getTargetSizeForPrefetch(ImageSize targetImageSize) {
+		if (targetImageSize == null) {
+			return new ImageSize(configuration.maxImageWidthForMemoryCache, configuration.maxImageHeightForMemoryCache);
+		}
+		return targetImageSize;
+	}
+
+	private DisplayImageOptions createPrefetchOptions(PrefetchLevel level) {
+		DisplayImageOptions.Builder builder = new DisplayImageOptions.Builder().cloneFrom(configuration.defaultDisplayImageOptions).cacheOnDisc();
+		if (level == PrefetchLevel.MEMORY) {
+			builder.cacheInMemory();
+		}
+		return builder.build();
+	}
+
 	/**
 	 * Checks if ImageLoader's configuration was initialized
 	 * 
@@ -343,7 +635,8 @@ public class ImageLoader {
 	}
 
 	/**
-	 * Returns memory cache
+	 * Returns memory cache. It can be wrapped by decorators so use
+	 * {@link MemoryCacheUtil#getResizableCache(MemoryCacheAware)} to resize it.
 	 * 
 	 * @throws IllegalStateException if {@link #init(ImageLoaderConfiguration)} method wasn't called before
 	 */
@@ -353,13 +646,76 @@ public class ImageLoader {
 	}
 
 	/**
-	 * Clears memory cache
+	 * Returns usage statistics of memory cache; or null if memory cache doesn't collect statistics (doesn't implement
+	 * {@link CacheStatsAware})
+	 * 
+	 * @throws IllegalStateException if {@link #init(ImageLoaderConfiguration)} method wasn't called before
+	 */
+	public CacheStats getMemoryCacheStats() {
+		checkConfiguration();
+		return configuration.memoryCacheStats;
+	}
+
+	/**
+	 * Returns snapshot of engine state: queue depth and thread utilization of task executors, count of rejected tasks.
+	 * 
+	 * @throws IllegalStateException if {@link #init(ImageLoaderConfiguration)} method wasn't called before
+	 */
+	public EngineStats getEngineStats() {
+		checkConfiguration();
+		return engine.getStats();
+	}
+
+	/**
+	 * Shrinks memory cache (and memory cache for encoded images) according to memory pressure level. If memory cache
+	 * is {@link TrimmableMemoryCache} then it's trimmed proportionally; otherwise it's cleared on
+	 * {@link ComponentCallbacks2#TRIM_MEMORY_COMPLETE} (and higher) level only.<br />
+	 * ImageLoader calls this method automatically on Android 4.0+ (on {@link ComponentCallbacks2#onTrimMemory(int)}
+	 * and {@link ComponentCallbacks#onLowMemory()} callbacks of application). On older versions you can call it from
+	 * {@link android.app.Application#onLowMemory()}.
+	 * 
+	 * @param level Memory trim level, one of {@link ComponentCallbacks2} <b>TRIM_MEMORY_...</b> constants
+	 * @throws IllegalStateException if {@link #init(ImageLoaderConfiguration)} method wasn't called before
+	 */
+	public void trimMemory(int level) {
+		checkConfiguration();
+		engine.getBufferPool().clear();
+		trimMemoryCache(configuration.memoryCache, level);
+		if (configuration.encodedImageMemoryCache != null) {
+			trimMemoryCache(configuration.encodedImageMemoryCache, level);
+		}
+	}
+
+	private static <V> void trimMemoryCache(MemoryCacheAware<String, V> memoryCache, int level) {
+		if (memoryCache instanceof TrimmableMemoryCache) {
+			((TrimmableMemoryCache<String, V>) memoryCache).trim(level);
+		} else if (MemoryCacheUtil.getTrimRatio(level) == 0) {
+			memoryCache.clear();
+		}
+	}
+
+	/**
+	 * Returns memory cache for encoded images; or null if encoded images aren't cached in memory
+	 * 
+	 * @throws IllegalStateException if {@link #init(ImageLoaderConfiguration)} method wasn't called before
+	 * @see ImageLoaderConfiguration.Builder#encodedImageMemoryCache(MemoryCacheAware)
+	 */
+	public MemoryCacheAware<String, byte[]> getEncodedImageMemoryCache() {
+		checkConfiguration();
+		return configuration.encodedImageMemoryCache;
+	}
+
+	/**
+	 * Clears memory cache (and memory cache for encoded images if it's set)
 	 * 
 	 * @throws IllegalStateException if {@link #init(ImageLoaderConfiguration)} method wasn't called before
 	 */
 	public void clearMemoryCache() {
 		checkConfiguration();
 		configuration.memoryCache.clear();
+		if (configuration.encodedImageMemoryCache != null) {
+			configuration.encodedImageMemoryCache.clear();
+		}
 	}
 
 	/**
@@ -372,6 +728,17 @@ public class ImageLoader {
 		return configuration.discCache;
 	}
 
+	/**
+	 * Returns usage statistics of disc cache; or null if disc cache doesn't collect statistics (doesn't implement
+	 * {@link CacheStatsAware})
+	 * 
+	 * @throws IllegalStateException if {@link #init(ImageLoaderConfiguration)} method wasn't called before
+	 */
+	public CacheStats getDiscCacheStats() {
+		checkConfiguration();
+		return configuration.discCacheStats;
+	}
+
 	/**
 	 * Clears disc cache.
 	 * 
@@ -387,6 +754,17 @@ public class ImageLoader {
 		return engine.getLoadingUriForView(imageView);
 	}
 
+	/**
+	 * Returns formatted events of ImageLoader work (the oldest first) if
+	 * {@linkplain ImageLoaderConfiguration.Builder#enableLogging() logging is enabled}; empty list otherwise.
+	 * 
+	 * @throws IllegalStateException if {@link #init(ImageLoaderConfiguration)} method wasn't called before
+	 */
+	public List<String> dumpLog() {
+		checkConfiguration();
+		return configuration.eventLog == null ? Collections.<String> emptyList() : configuration.eventLog.dump();
+	}
+
 	/**
 	 * Cancel the task of loading and displaying image for passed {@link ImageView}.
 	 * 
@@ -434,6 +812,35 @@ public class ImageLoader {
 		engine.resume();
 	}
 
+	/**
+	 * Throttles ImageLoader: network loadings are deferred until ImageLoader is {@link #unthrottle() unthrottled}.
+	 * Unlike {@link #pause()} images from memory and disc caches and local images are still loaded and displayed.
+	 * 
+	 * @see #throttle(int)
+	 */
+	public void throttle() {
+		throttle(0);
+	}
+
+	/**
+	 * Throttles ImageLoader: count of concurrent network loadings is limited by <b>maxNetworkTasks</b> until
+	 * ImageLoader is {@link #unthrottle() unthrottled}. Images from memory and disc caches and local images are loaded
+	 * and displayed as usual. It keeps scrolling smooth while cached images are still displayed.
+	 * 
+	 * @param maxNetworkTasks Max count of concurrent network loadings; 0 - all network loadings are deferred
+	 */
+	public void throttle(int maxNetworkTasks) {
+		engine.throttle(maxNetworkTasks);
+	}
+
+	/**
+	 * Cancels {@linkplain #throttle(int) throttling}. Limit of concurrent network loadings grows gradually (by one
+	 * every 100 ms), so deferred tasks don't start all at once.
+	 */
+	public void unthrottle() {
+		engine.unthrottle();
+	}
+
 	/**
 	 * Cancels all running and scheduled display image tasks.<br />
 	 * ImageLoader still can be used after calling this method.
@@ -450,7 +857,42 @@ public class ImageLoader {
 	public void destroy() {
 		if (configuration != null && configuration.loggingEnabled) L.d(LOG_DESTROY);
 		stop();
+		unregisterMemoryTrimCallbacks();
 		engine = null;
 		configuration = null;
 	}
+
+	@TargetApi(Build.VERSION_CODES.ICE_CREAM_SANDWICH)
+	private void registerMemoryTrimCallbacks() {
+		if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.ICE_CREAM_SANDWICH) {
+			memoryTrimCallbacks = new MemoryTrimCallbacks();
+			configuration.context.registerComponentCallbacks(memoryTrimCallbacks);
+		}
+	}
+
+	@TargetApi(Build.VERSION_CODES.ICE_CREAM_SANDWICH)
+	private void unregisterMemoryTrimCallbacks() {
+		if (memoryTrimCallbacks != null) {
+			configuration.context.unregisterComponentCallbacks(memoryTrimCallbacks);
+			memoryTrimCallbacks = null;
+		}
+	}
+
+	/** Trims memory cache on memory pressure */
+	@TargetApi(Build.VERSION_CODES.ICE_CREAM_SANDWICH)
+	private class MemoryTrimCallbacks implements ComponentCallbacks2 {
+		@Override
+		public void onTrimMemory(int level) {
+			if (isInited()) trimMemory(level);
+		}
+
+		@Override
+		public void onLowMemory() {
+			if (isInited()) trimMemory(TRIM_MEMORY_COMPLETE);
+		}
+
+		@Override
+		public void onConfigurationChanged(Configuration newConfig) {
+		}
+	}
 }
@@ -21,15 +21,20 @@ import android.content.Context;
 import android.graphics.Bitmap;
 import android.graphics.Bitmap.CompressFormat;
 
+import com.nostra13.universalimageloader.cache.CacheStats;
+import com.nostra13.universalimageloader.cache.CacheStatsAware;
 import com.nostra13.universalimageloader.cache.disc.DiscCacheAware;
 import com.nostra13.universalimageloader.cache.disc.impl.UnlimitedDiscCache;
 import com.nostra13.universalimageloader.cache.disc.naming.FileNameGenerator;
 import com.nostra13.universalimageloader.cache.memory.MemoryCacheAware;
 import com.nostra13.universalimageloader.cache.memory.impl.FuzzyKeyMemoryCache;
+import com.nostra13.universalimageloader.core.assist.LoadingMetricsListener;
 import com.nostra13.universalimageloader.core.assist.MemoryCacheUtil;
 import com.nostra13.universalimageloader.core.assist.QueueProcessingType;
 import com.nostra13.universalimageloader.core.decode.ImageDecoder;
+import com.nostra13.universalimageloader.core.download.BandwidthEstimator;
 import com.nostra13.universalimageloader.core.download.ImageDownloader;
+import com.nostra13.universalimageloader.core.download.ImageUriResolver;
 import com.nostra13.universalimageloader.core.download.NetworkDeniedImageDownloader;
 import com.nostra13.universalimageloader.core.download.SlowNetworkImageDownloader;
 import com.nostra13.universalimageloader.utils.L;
@@ -56,22 +61,42 @@ public final class ImageLoaderConfiguration {
 	final int maxImageHeightForDiscCache;
 	final CompressFormat imageCompressFormatForDiscCache;
 	final int imageQualityForDiscCache;
+	final boolean decodeWhileCachingOnDisc;
+	final boolean batchDisplayUpdates;
 
 	final Executor taskExecutor;
 	final Executor taskExecutorForCachedImages;
+	final Executor taskExecutorForLocalImages;
+	final Executor taskExecutorForAppResources;
 	final boolean customExecutor;
 	final boolean customExecutorForCachedImages;
+	final boolean customExecutorForLocalImages;
+	final boolean customExecutorForAppResources;
 
 	final int threadPoolSize;
+	/** Thread pool size of default executors for local images and application resources */
+	final int localThreadPoolSize;
 	final int threadPriority;
 	final QueueProcessingType tasksProcessingType;
+	final int maxTasksPerHost;
 
 	final MemoryCacheAware<String, Bitmap> memoryCache;
+	/** Is null if encoded images aren't cached in memory */
+	final MemoryCacheAware<String, byte[]> encodedImageMemoryCache;
 	final DiscCacheAware discCache;
+	/** Is null if memory cache doesn't collect statistics */
+	final CacheStats memoryCacheStats;
+	/** Is null if disc cache doesn't collect statistics */
+	final CacheStats discCacheStats;
 	final ImageDownloader downloader;
 	final ImageDecoder decoder;
+	final BandwidthEstimator bandwidthEstimator;
+	final ImageUriResolver imageUriResolver;
 	final DisplayImageOptions defaultDisplayImageOptions;
 	final boolean loggingEnabled;
+	/** Is null if logging is disabled */
+	final EventLog eventLog;
+	final LoadingMetricsListener loadingMetricsListener;
 
 	final DiscCacheAware reserveDiscCache;
 	final ImageDownloader networkDeniedDownloader;
@@ -85,20 +110,35 @@ public final class ImageLoaderConfiguration {
 		maxImageHeightForDiscCache = builder.maxImageHeightForDiscCache;
 		imageCompressFormatForDiscCache = builder.imageCompressFormatForDiscCache;
 		imageQualityForDiscCache = builder.imageQualityForDiscCache;
+		decodeWhileCachingOnDisc = builder.decodeWhileCachingOnDisc;
+		batchDisplayUpdates = builder.batchDisplayUpdates;
 		taskExecutor = builder.taskExecutor;
 		taskExecutorForCachedImages = builder.taskExecutorForCachedImages;
+		taskExecutorForLocalImages = builder.taskExecutorForLocalImages;
+		taskExecutorForAppResources = builder.taskExecutorForAppResources;
 		threadPoolSize = builder.threadPoolSize;
+		localThreadPoolSize = Math.min(builder.threadPoolSize, Builder.MAX_LOCAL_THREAD_POOL_SIZE);
 		threadPriority = builder.threadPriority;
 		tasksProcessingType = builder.tasksProcessingType;
+		maxTasksPerHost = builder.maxTasksPerHost;
 		discCache = builder.discCache;
 		memoryCache = builder.memoryCache;
+		encodedImageMemoryCache = builder.encodedImageMemoryCache;
+		memoryCacheStats = getCacheStats(memoryCache);
+		discCacheStats = getCacheStats(discCache);
 		defaultDisplayImageOptions = builder.defaultDisplayImageOptions;
 		loggingEnabled = builder.loggingEnabled;
+		eventLog = loggingEnabled ? new EventLog(EventLog.DEFAULT_CAPACITY) : null;
+		loadingMetricsListener = builder.loadingMetricsListener;
 		downloader = builder.downloader;
 		decoder = builder.decoder;
+		bandwidthEstimator = builder.bandwidthEstimator;
+		imageUriResolver = builder.imageUriResolver;
 
 		customExecutor = builder.customExecutor;
 		customExecutorForCachedImages = builder.customExecutorForCachedImages;
+		customExecutorForLocalImages = builder.customExecutorForLocalImages;
+		customExecutorForAppResources = builder.customExecutorForAppResources;
 
 		networkDeniedDownloader = new NetworkDeniedImageDownloader(downloader);
 		slowNetworkDownloader = new SlowNetworkImageDownloader(downloader);
@@ -106,6 +146,10 @@ public final class ImageLoaderConfiguration {
 		reserveDiscCache = DefaultConfigurationFactory.createReserveDiscCache(context);
 	}
 
+	private static CacheStats getCacheStats(Object cache) {
+		return cache instanceof CacheStatsAware ? ((CacheStatsAware) cache).getStats() : null;
+	}
+
 	/**
 	 * Creates default configuration for {@link ImageLoader} <br />
 	 * <b>Default values:</b>
@@ -114,16 +158,19 @@ public final class ImageLoaderConfiguration {
 	 * <li>maxImageHeightForMemoryCache = device's screen height</li>
 	 * <li>maxImageWidthForDiscCache = unlimited</li>
 	 * <li>maxImageHeightForDiscCache = unlimited</li>
-	 * <li>threadPoolSize = {@link Builder#DEFAULT_THREAD_POOL_SIZE this}</li>
+	 * <li>threadPoolSize = {@link Builder#DEFAULT_THREAD_POOL_SIZE this} (local images and application resources are
+	 * loaded by up to {@link Builder#MAX_LOCAL_THREAD_POOL_SIZE this} threads)</li>
 	 * <li>threadPriority = {@link Builder#DEFAULT_THREAD_PRIORITY this}</li>
 	 * <li>allow to cache different sizes of image in memory</li>
 	 * <li>memoryCache = {@link DefaultConfigurationFactory#createMemoryCache(int)}</li>
 	 * <li>discCache = {@link UnlimitedDiscCache}</li>
-	 * <li>imageDownloader = {@link DefaultConfigurationFactory#createImageDownloader(Context)}</li>
+	 * <li>imageDownloader = {@link DefaultConfigurationFactory#createImageDownloader(Context, BandwidthEstimator)}</li>
 	 * <li>imageDecoder = {@link DefaultConfigurationFactory#createImageDecoder(boolean)}</li>
 	 * <li>discCacheFileNameGenerator = {@link DefaultConfigurationFactory#createFileNameGenerator()}</li>
 	 * <li>defaultDisplayImageOptions = {@link DisplayImageOptions#createSimple() Simple options}</li>
 	 * <li>tasksProcessingOrder = {@link QueueProcessingType#FIFO}</li>
+	 * <li>maxTasksPerHost = unlimited</li>
+	 * <li>imageUriResolver = null (original image URIs are downloaded)</li>
 	 * <li>detailed logging disabled</li>
 	 * </ul>
 	 * */
@@ -142,10 +189,16 @@ public final class ImageLoaderConfiguration {
 		private static final String WARNING_OVERLAP_DISC_CACHE_NAME_GENERATOR = "discCache() and discCacheFileNameGenerator() calls overlap each other";
 		private static final String WARNING_OVERLAP_MEMORY_CACHE = "memoryCache() and memoryCacheSize() calls overlap each other";
 		private static final String WARNING_OVERLAP_EXECUTOR = "threadPoolSize(), threadPriority() and tasksProcessingOrder() calls "
-				+ "can overlap taskExecutor() and taskExecutorForCachedImages() calls.";
+				+ "can overlap taskExecutor(), taskExecutorForCachedImages(), taskExecutorForLocalImages() and "
+				+ "taskExecutorForAppResources() calls.";
 
 		/** {@value} */
 		public static final int DEFAULT_THREAD_POOL_SIZE = 3;
+		/**
+		 * {@value} - max thread pool size of default executors for local images and application resources (loading of
+		 * such images doesn't wait for network)
+		 */
+		public static final int MAX_LOCAL_THREAD_POOL_SIZE = 2;
 		/** {@value} */
 		public static final int DEFAULT_THREAD_PRIORITY = Thread.NORM_PRIORITY - 1;
 		/** {@value} */
@@ -159,29 +212,40 @@ public final class ImageLoaderConfiguration {
 		private int maxImageHeightForDiscCache = 0;
 		private CompressFormat imageCompressFormatForDiscCache = null;
 		private int imageQualityForDiscCache = 0;
+		private boolean decodeWhileCachingOnDisc = false;
+		private boolean batchDisplayUpdates = false;
 
 		private Executor taskExecutor = null;
 		private Executor taskExecutorForCachedImages = null;
+		private Executor taskExecutorForLocalImages = null;
+		private Executor taskExecutorForAppResources = null;
 		private boolean customExecutor = false;
 		private boolean customExecutorForCachedImages = false;
+		private boolean customExecutorForLocalImages = false;
+		private boolean customExecutorForAppResources = false;
 
 		private int threadPoolSize = DEFAULT_THREAD_POOL_SIZE;
 		private int threadPriority = DEFAULT_THREAD_PRIORITY;
 		private boolean denyCacheImageMultipleSizesInMemory = false;
 		private QueueProcessingType tasksProcessingType = DEFAULT_TASK_PROCESSING_TYPE;
+		private int maxTasksPerHost = 0;
 
 		private int memoryCacheSize = 0;
 		private int discCacheSize = 0;
 		private int discCacheFileCount = 0;
 
 		private MemoryCacheAware<String, Bitmap> memoryCache = null;
+		private MemoryCacheAware<String, byte[]> encodedImageMemoryCache = null;
 		private DiscCacheAware discCache = null;
 		private FileNameGenerator discCacheFileNameGenerator = null;
 		private ImageDownloader downloader = null;
 		private ImageDecoder decoder;
+		private BandwidthEstimator bandwidthEstimator = null;
+		private ImageUriResolver imageUriResolver = null;
 		private DisplayImageOptions defaultDisplayImageOptions = null;
 
 		private boolean loggingEnabled = false;
+		private LoadingMetricsListener loadingMetricsListener = null;
 
 		public Builder(Context context) {
 			this.context = context.getApplicationContext();
@@ -221,7 +285,8 @@ public final class ImageLoaderConfiguration {
 		}
 
 		/**
-		 * Sets custom {@linkplain Executor executor} for tasks of loading and displaying images.<br />
+		 * Sets custom {@linkplain Executor executor} for tasks of loading and displaying images from the network (and
+		 * from other sources with unsupported schemes).<br />
 		 * <br />
 		 * <b>NOTE:</b> If you set custom executor then following configuration options will not be considered for this
 		 * executor:
@@ -232,6 +297,8 @@ public final class ImageLoaderConfiguration {
 		 * </ul>
 		 * 
 		 * @see #taskExecutorForCachedImages(Executor)
+		 * @see #taskExecutorForLocalImages(Executor)
+		 * @see #taskExecutorForAppResources(Executor)
 		 */
 		public Builder taskExecutor(Executor executor) {
 			if (threadPoolSize != DEFAULT_THREAD_POOL_SIZE || threadPriority != DEFAULT_THREAD_PRIORITY || tasksProcessingType != DEFAULT_TASK_PROCESSING_TYPE) {
@@ -270,11 +337,59 @@ public final class ImageLoaderConfiguration {
 		}
 
 		/**
-		 * Sets thread pool size for image display tasks.<br />
+		 * Sets custom {@linkplain Executor executor} for tasks of loading and displaying <b>local</b> images (from file
+		 * system - "file://...", and from content providers - "content://..."). So loading of local images doesn't wait
+		 * for network tasks.<br />
+		 * <br />
+		 * <b>NOTE:</b> If you set custom executor then following configuration options will not be considered for this
+		 * executor:
+		 * <ul>
+		 * <li>{@link #threadPoolSize(int)}</li>
+		 * <li>{@link #threadPriority(int)}</li>
+		 * <li>{@link #tasksProcessingOrder(QueueProcessingType)}</li>
+		 * </ul>
+		 * 
+		 * @see #taskExecutor(Executor)
+		 */
+		public Builder taskExecutorForLocalImages(Executor executorForLocalImages) {
+			if (threadPoolSize != DEFAULT_THREAD_POOL_SIZE || threadPriority != DEFAULT_THREAD_PRIORITY || tasksProcessingType != DEFAULT_TASK_PROCESSING_TYPE) {
+				L.w(WARNING_OVERLAP_EXECUTOR);
+			}
+
+			this.taskExecutorForLocalImages = executorForLocalImages;
+			return this;
+		}
+
+		/**
+		 * Sets custom {@linkplain Executor executor} for tasks of loading and displaying images from application
+		 * resources (from assets - "assets://...", and from drawables - "drawable://...").<br />
+		 * <br />
+		 * <b>NOTE:</b> If you set custom executor then following configuration options will not be considered for this
+		 * executor:
+		 * <ul>
+		 * <li>{@link #threadPoolSize(int)}</li>
+		 * <li>{@link #threadPriority(int)}</li>
+		 * <li>{@link #tasksProcessingOrder(QueueProcessingType)}</li>
+		 * </ul>
+		 * 
+		 * @see #taskExecutor(Executor)
+		 */
+		public Builder taskExecutorForAppResources(Executor executorForAppResources) {
+			if (threadPoolSize != DEFAULT_THREAD_POOL_SIZE || threadPriority != DEFAULT_THREAD_PRIORITY || tasksProcessingType != DEFAULT_TASK_PROCESSING_TYPE) {
+				L.w(WARNING_OVERLAP_EXECUTOR);
+			}
+
+			this.taskExecutorForAppResources = executorForAppResources;
+			return this;
+		}
+
+		/**
+		 * Sets thread pool size for image display tasks. Default executors for local images and application resources
+		 * have at most {@link #MAX_LOCAL_THREAD_POOL_SIZE} threads.<br />
 		 * Default value - {@link #DEFAULT_THREAD_POOL_SIZE this}
 		 * */
 		public Builder threadPoolSize(int threadPoolSize) {
-			if (taskExecutor != null || taskExecutorForCachedImages != null) {
+			if (taskExecutor != null || taskExecutorForCachedImages != null || taskExecutorForLocalImages != null || taskExecutorForAppResources != null) {
 				L.w(WARNING_OVERLAP_EXECUTOR);
 			}
 
@@ -288,7 +403,7 @@ public final class ImageLoaderConfiguration {
 		 * Default value - {@link #DEFAULT_THREAD_PRIORITY this}
 		 * */
 		public Builder threadPriority(int threadPriority) {
-			if (taskExecutor != null || taskExecutorForCachedImages != null) {
+			if (taskExecutor != null || taskExecutorForCachedImages != null || taskExecutorForLocalImages != null || taskExecutorForAppResources != null) {
 				L.w(WARNING_OVERLAP_EXECUTOR);
 			}
 
@@ -322,7 +437,7 @@ public final class ImageLoaderConfiguration {
 		 * Default value - {@link QueueProcessingType#FIFO}
 		 */
 		public Builder tasksProcessingOrder(QueueProcessingType tasksProcessingType) {
-			if (taskExecutor != null || taskExecutorForCachedImages != null) {
+			if (taskExecutor != null || taskExecutorForCachedImages != null || taskExecutorForLocalImages != null || taskExecutorForAppResources != null) {
 				L.w(WARNING_OVERLAP_EXECUTOR);
 			}
 
@@ -330,6 +445,19 @@ public final class ImageLoaderConfiguration {
 			return this;
 		}
 
+		/**
+		 * Sets maximum count of simultaneously running network tasks for one host. Other tasks for this host will wait
+		 * for free slot without occupying of executor's threads. So slow host can't block loading of images from other
+		 * hosts and from local sources.<br />
+		 * Default value - unlimited.
+		 */
+		public Builder maxTasksPerHost(int maxTasksPerHost) {
+			if (maxTasksPerHost <= 0) throw new IllegalArgumentException("maxTasksPerHost must be a positive number");
+
+			this.maxTasksPerHost = maxTasksPerHost;
+			return this;
+		}
+
 		/**
 		 * Sets maximum memory cache size for {@link android.graphics.Bitmap bitmaps} (in bytes).<br />
 		 * Default value - 1/8 of available app memory.<br />
@@ -368,6 +496,21 @@ public final class ImageLoaderConfiguration {
 			return this;
 		}
 
+		/**
+		 * Sets second-level memory cache for encoded images (bytes of image files, e.g. JPEG or PNG). It's consulted
+		 * before disc cache if image isn't found in memory cache for {@link android.graphics.Bitmap bitmaps}. Encoded
+		 * images are much smaller than decoded bitmaps so this cache can keep much more images in memory. Images are
+		 * put into this cache when they are read from disc cache (so they should be cached on disc, see
+		 * {@link DisplayImageOptions.Builder#cacheOnDisc()}).<br />
+		 * Default value - null (encoded images aren't cached in memory)
+		 * 
+		 * @see com.nostra13.universalimageloader.cache.memory.impl.LruByteArrayMemoryCache
+		 */
+		public Builder encodedImageMemoryCache(MemoryCacheAware<String, byte[]> encodedImageMemoryCache) {
+			this.encodedImageMemoryCache = encodedImageMemoryCache;
+			return this;
+		}
+
 		/**
 		 * Sets maximum disc cache size for images (in bytes).<br />
 		 * By default: disc cache is unlimited.<br />
@@ -422,11 +565,39 @@ public final class ImageLoaderConfiguration {
 			return this;
 		}
 
+		/**
+		 * Image will be decoded concurrently with its downloading and caching on disc (if
+		 * {@link DisplayImageOptions.Builder#cacheOnDisc() caching on disc} is enabled) instead of decoding after
+		 * download completion. It reduces time to display image at first loading.<br />
+		 * <b>NOTE:</b> This option isn't considered if {@link #discCacheExtraOptions(int, int, CompressFormat, int)
+		 * image size for disc cache} is set, because image should be resized before caching then.
+		 */
+		public Builder decodeWhileCachingOnDisc() {
+			this.decodeWhileCachingOnDisc = true;
+			return this;
+		}
+
+		/**
+		 * Images (and loading events) which should be displayed on UI thread will be collected and displayed together
+		 * in one pass per frame instead of posting separate message for every image. It reduces main looper load when
+		 * many images are loaded at the same time (e.g. cached images of a grid).<br />
+		 * <b>NOTE:</b> This option is considered only for
+		 * {@linkplain DisplayImageOptions.Builder#handler(android.os.Handler) handlers} of main thread.
+		 */
+		public Builder batchDisplayUpdates() {
+			this.batchDisplayUpdates = true;
+			return this;
+		}
+
 		/**
 		 * Sets utility which will be responsible for downloading of image.<br />
 		 * Default value -
-		 * {@link com.nostra13.universalimageloader.core.DefaultConfigurationFactory#createImageDownloader(Context)
-		 * DefaultConfigurationFactory.createImageDownloader()}
+		 * {@link com.nostra13.universalimageloader.core.DefaultConfigurationFactory#createImageDownloader(Context, BandwidthEstimator)
+		 * DefaultConfigurationFactory.createImageDownloader()}<br />
+		 * <b>NOTE:</b> Custom downloader should feed {@linkplain #bandwidthEstimator(BandwidthEstimator) bandwidth
+		 * estimator} itself (e.g. via
+		 * {@link com.nostra13.universalimageloader.core.download.BaseImageDownloader#BaseImageDownloader(Context, int, int, BandwidthEstimator)
+		 * BaseImageDownloader constructor}) if {@link #imageUriResolver(ImageUriResolver)} is used.
 		 * */
 		public Builder imageDownloader(ImageDownloader imageDownloader) {
 			this.downloader = imageDownloader;
@@ -444,6 +615,27 @@ public final class ImageLoaderConfiguration {
 			return this;
 		}
 
+		/**
+		 * Sets estimator of network bandwidth. Estimated bandwidth is passed to
+		 * {@linkplain #imageUriResolver(ImageUriResolver) image URI resolver}.<br />
+		 * Default value - new {@link BandwidthEstimator} which is fed by default image downloader
+		 */
+		public Builder bandwidthEstimator(BandwidthEstimator bandwidthEstimator) {
+			this.bandwidthEstimator = bandwidthEstimator;
+			return this;
+		}
+
+		/**
+		 * Sets resolver which selects URI for network image downloading considering estimated bandwidth (e.g.
+		 * resolver can choose lower resolution image variant on slow networks). Downloaded image is cached by original
+		 * URI.<br />
+		 * Default value - null (original image URIs are downloaded)
+		 */
+		public Builder imageUriResolver(ImageUriResolver imageUriResolver) {
+			this.imageUriResolver = imageUriResolver;
+			return this;
+		}
+
 		/**
 		 * Sets disc cache for images.<br />
 		 * Default value - {@link com.nostra13.universalimageloader.cache.disc.impl.UnlimitedDiscCache
@@ -481,12 +673,26 @@ public final class ImageLoaderConfiguration {
 			return this;
 		}
 
-		/** Enabled detail logging of {@link ImageLoader} work */
+		/**
+		 * Enabled detail logging of {@link ImageLoader} work. Events of image loading tasks are recorded into event log
+		 * (it keeps last {@value EventLog#DEFAULT_CAPACITY} events) without formatting and they can be got by
+		 * {@link ImageLoader#dumpLog()}.
+		 */
 		public Builder enableLogging() {
 			this.loggingEnabled = true;
 			return this;
 		}
 
+		/**
+		 * Sets listener which receives timings of image loading stages and byte counts for every image loading task.
+		 * Metrics aren't collected if listener isn't set.<br />
+		 * Default value - null
+		 */
+		public Builder loadingMetricsListener(LoadingMetricsListener loadingMetricsListener) {
+			this.loadingMetricsListener = loadingMetricsListener;
+			return this;
+		}
+
 		/** Builds configured {@link ImageLoaderConfiguration} object */
 		public ImageLoaderConfiguration build() {
 			initEmptyFiledsWithDefaultValues();
@@ -504,6 +710,17 @@ public final class ImageLoaderConfiguration {
 			} else {
 				customExecutorForCachedImages = true;
 			}
+			int localThreadPoolSize = Math.min(threadPoolSize, MAX_LOCAL_THREAD_POOL_SIZE);
+			if (taskExecutorForLocalImages == null) {
+				taskExecutorForLocalImages = DefaultConfigurationFactory.createExecutor(localThreadPoolSize, threadPriority, tasksProcessingType);
+			} else {
+				customExecutorForLocalImages = true;
+			}
+			if (taskExecutorForAppResources == null) {
+				taskExecutorForAppResources = DefaultConfigurationFactory.createExecutor(localThreadPoolSize, threadPriority, tasksProcessingType);
+			} else {
+				customExecutorForAppResources = true;
+			}
 			if (discCache == null) {
 				if (discCacheFileNameGenerator == null) {
 					discCacheFileNameGenerator = DefaultConfigurationFactory.createFileNameGenerator();
@@ -516,8 +733,11 @@ public final class ImageLoaderConfiguration {
 			if (denyCacheImageMultipleSizesInMemory) {
 				memoryCache = new FuzzyKeyMemoryCache<String, Bitmap>(memoryCache, MemoryCacheUtil.createFuzzyKeyComparator());
 			}
+			if (bandwidthEstimator == null) {
+				bandwidthEstimator = new BandwidthEstimator();
+			}
 			if (downloader == null) {
-				downloader = DefaultConfigurationFactory.createImageDownloader(context);
+				downloader = DefaultConfigurationFactory.createImageDownloader(context, bandwidthEstimator);
 			}
 			if (decoder == null) {
 				decoder = DefaultConfigurationFactory.createImageDecoder(loggingEnabled);
@@ -15,6 +15,7 @@
  *******************************************************************************/
 package com.nostra13.universalimageloader.core;
 
+import java.io.File;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -22,15 +23,23 @@ import java.util.WeakHashMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
 
+import android.os.Handler;
+import android.os.Looper;
 import android.view.View;
 import android.widget.ImageView;
 
+import com.nostra13.universalimageloader.core.assist.EngineStats;
+import com.nostra13.universalimageloader.core.assist.EngineStats.ExecutorStats;
 import com.nostra13.universalimageloader.core.assist.FailReason;
 import com.nostra13.universalimageloader.core.assist.FlushedInputStream;
 import com.nostra13.universalimageloader.core.assist.ImageLoadingListener;
+import com.nostra13.universalimageloader.core.assist.QueueProcessingType;
+import com.nostra13.universalimageloader.core.download.ImageDownloader.Scheme;
 
 /**
  * {@link ImageLoader} engine which responsible for {@linkplain LoadAndDisplayImageTask display task} execution.
@@ -40,48 +49,162 @@ import com.nostra13.universalimageloader.core.assist.ImageLoadingListener;
  */
 class ImageLoaderEngine {
 
+	/** Count of threads which prefetch images */
+	private static final int PREFETCH_THREAD_POOL_SIZE = 2;
+	/** Max total size of pooled buffers for reading of disc cache files */
+	private static final int MAX_BUFFER_POOL_SIZE = 1024 * 1024; // 1 Mb
+
 	final ImageLoaderConfiguration configuration;
 
 	private Executor taskExecutor;
 	private Executor taskExecutorForCachedImages;
+	private Executor taskExecutorForLocalImages;
+	private Executor taskExecutorForAppResources;
 	private ExecutorService taskDistributor;
+	private Executor prefetchExecutor;
+	private Executor syncLoadingExecutor;
 
 	private final Map<Integer, String> cacheKeysForImageViews = Collections.synchronizedMap(new HashMap<Integer, String>());
 	private final Map<String, ReentrantLock> uriLocks = new WeakHashMap<String, ReentrantLock>();
+	/** null - if count of network tasks per host isn't limited */
+	private final HostTaskLimiter<LoadAndDisplayImageTask> hostTaskLimiter;
 
 	private final AtomicBoolean paused = new AtomicBoolean(false);
 	private final AtomicBoolean networkDenied = new AtomicBoolean(false);
 	private final AtomicBoolean slowNetwork = new AtomicBoolean(false);
+	private final AtomicLong rejectedTasks = new AtomicLong();
+	private final ByteArrayPool bufferPool = new ByteArrayPool(MAX_BUFFER_POOL_SIZE);
+	private final ThrottleGate throttleGate;
+	/** null - if display updates aren't batched */
+	private final DisplayBatcher displayBatcher;
 
 	ImageLoaderEngine(ImageLoaderConfiguration configuration) {
 		this.configuration = configuration;
 
 		taskExecutor = configuration.taskExecutor;
 		taskExecutorForCachedImages = configuration.taskExecutorForCachedImages;
+		taskExecutorForLocalImages = configuration.taskExecutorForLocalImages;
+		taskExecutorForAppResources = configuration.taskExecutorForAppResources;
 
 		taskDistributor = Executors.newCachedThreadPool();
+		throttleGate = new ThrottleGate(configuration.threadPoolSize);
+		displayBatcher = configuration.batchDisplayUpdates ? new DisplayBatcher() : null;
+		if (configuration.maxTasksPerHost > 0) {
+			boolean lifo = configuration.tasksProcessingType == QueueProcessingType.LIFO;
+			hostTaskLimiter = new HostTaskLimiter<LoadAndDisplayImageTask>(configuration.maxTasksPerHost, lifo);
+		} else {
+			hostTaskLimiter = null;
+		}
 	}
 
 	/** Submits task to execution pool */
 	void submit(final LoadAndDisplayImageTask task) {
-		taskDistributor.execute(new Runnable() {
+		execute(taskDistributor, new Runnable() {
 			@Override
 			public void run() {
 				boolean isImageCachedOnDisc = configuration.discCache.get(task.getLoadingUri()).exists();
 				initExecutorsIfNeed();
 				if (isImageCachedOnDisc) {
-					taskExecutorForCachedImages.execute(task);
+					execute(taskExecutorForCachedImages, task);
 				} else {
-					taskExecutor.execute(task);
+					switch (Scheme.ofUri(task.getLoadingUri())) {
+						case FILE:
+						case CONTENT:
+							execute(taskExecutorForLocalImages, task);
+							break;
+						case ASSETS:
+						case DRAWABLE:
+							execute(taskExecutorForAppResources, task);
+							break;
+						default:
+							executeNetworkTask(task);
+							break;
+					}
 				}
 			}
 		});
 	}
 
+	/**
+	 * Executes task in network executor considering {@linkplain ImageLoaderConfiguration#maxTasksPerHost per-host
+	 * limit}. If host of task's image URI already has max count of running tasks then task is deferred until one of
+	 * them finishes. So slow host can't occupy all threads of executor.
+	 */
+	private void executeNetworkTask(LoadAndDisplayImageTask task) {
+		String host = hostTaskLimiter != null ? getHost(task.getLoadingUri()) : null;
+		if (host == null) {
+			execute(taskExecutor, task);
+			return;
+		}
+
+		if (hostTaskLimiter.tryAcquire(host, task)) {
+			try {
+				execute(taskExecutor, new HostLimitedTask(task, host));
+			} catch (RejectedExecutionException e) {
+				onHostTaskFinished(host); // task didn't take the slot
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * Frees slot of finished task's host and executes next deferred task of this host (if any). Deferred tasks which
+	 * can't be executed (engine is stopped or executor rejects them) are dropped.
+	 */
+	private void onHostTaskFinished(String host) {
+		LoadAndDisplayImageTask nextTask;
+		while ((nextTask = hostTaskLimiter.release(host)) != null) {
+			Executor executor = taskExecutor;
+			if (executor != null) { // engine can be stopped at this moment
+				try {
+					execute(executor, new HostLimitedTask(nextTask, host));
+					return;
+				} catch (RejectedExecutionException e) {
+					// Slot goes to next deferred task
+				}
+			}
+			nextTask.onDropped();
+		}
+	}
+
+	/**
+	 * Returns host (with port if it's defined) of network image URI; <b>null</b> - for non-network URIs or if host
+	 * can't be defined
+	 */
+	static String getHost(String uri) {
+		Scheme scheme = Scheme.ofUri(uri);
+		if (scheme != Scheme.HTTP && scheme != Scheme.HTTPS) return null;
+
+		int hostStart = uri.indexOf("://") + 3;
+		int hostEnd = uri.length();
+		for (int i = hostStart; i < uri.length(); i++) {
+			char c = uri.charAt(i);
+			if (c == '/' || c == '?' || c == '#') {
+				hostEnd = i;
+				break;
+			}
+		}
+		int userInfoEnd = uri.lastIndexOf('@', hostEnd - 1);
+		if (userInfoEnd >= hostStart) {
+			hostStart = userInfoEnd + 1;
+		}
+		return hostStart < hostEnd ? uri.substring(hostStart, hostEnd).toLowerCase() : null;
+	}
+
 	/** Submits task to execution pool */
 	void submit(ProcessAndDisplayImageTask task) {
 		initExecutorsIfNeed();
-		taskExecutorForCachedImages.execute(task);
+		execute(taskExecutorForCachedImages, task);
+	}
+
+	/** Executes task in executor counting rejected tasks */
+	private void execute(Executor executor, Runnable task) {
+		try {
+			executor.execute(task);
+		} catch (RejectedExecutionException e) {
+			rejectedTasks.incrementAndGet();
+			throw e;
+		}
 	}
 
 	private void initExecutorsIfNeed() {
@@ -91,10 +214,73 @@ class ImageLoaderEngine {
 		if (taskExecutorForCachedImages == null) {
 			taskExecutorForCachedImages = createTaskExecutor();
 		}
+		if (taskExecutorForLocalImages == null) {
+			taskExecutorForLocalImages = createTaskExecutor(configuration.localThreadPoolSize);
+		}
+		if (taskExecutorForAppResources == null) {
+			taskExecutorForAppResources = createTaskExecutor(configuration.localThreadPoolSize);
+		}
+	}
+
+	/** Submits prefetch task to execution pool. Prefetch tasks are executed by separate pool of lowest priority. */
+	void submitPrefetch(LoadAndDisplayImageTask task) {
+		Executor executor;
+		synchronized (this) {
+			if (prefetchExecutor == null) {
+				prefetchExecutor = DefaultConfigurationFactory.createExecutor(PREFETCH_THREAD_POOL_SIZE, Thread.MIN_PRIORITY, QueueProcessingType.FIFO);
+			}
+			executor = prefetchExecutor;
+		}
+		execute(executor, task);
+	}
+
+	/**
+	 * Loads image synchronously if it's cached on disc and its file size doesn't exceed <b>maxFileSize</b>. Otherwise
+	 * submits task to execution pool as usual.<br />
+	 * If it's called on UI thread then task is executed by separate single-thread pool (it bypasses task distributor
+	 * and queues of common pools), otherwise task is executed on calling thread.
+	 */
+	void submitSync(final LoadAndDisplayImageTask task, final int maxFileSize) {
+		if (paused.get()) {
+			submit(task);
+			return;
+		}
+
+		if (Looper.myLooper() != Looper.getMainLooper()) {
+			runIfCachedOnDisc(task, maxFileSize);
+		} else {
+			Executor executor;
+			synchronized (this) {
+				if (syncLoadingExecutor == null) {
+					syncLoadingExecutor = DefaultConfigurationFactory.createExecutor(1, Thread.NORM_PRIORITY, QueueProcessingType.LIFO);
+				}
+				executor = syncLoadingExecutor;
+			}
+			execute(executor, new Runnable() {
+				@Override
+				public void run() {
+					runIfCachedOnDisc(task, maxFileSize);
+				}
+			});
+		}
+	}
+
+	private void runIfCachedOnDisc(LoadAndDisplayImageTask task, int maxFileSize) {
+		File imageFile = configuration.discCache.get(task.getLoadingUri());
+		long fileSize = imageFile.length(); // 0 - if file doesn't exist
+		if (fileSize > 0 && fileSize <= maxFileSize) {
+			task.run();
+		} else {
+			submit(task);
+		}
 	}
 
 	private Executor createTaskExecutor() {
-		return DefaultConfigurationFactory.createExecutor(configuration.threadPoolSize, configuration.threadPriority, configuration.tasksProcessingType);
+		return createTaskExecutor(configuration.threadPoolSize);
+	}
+
+	private Executor createTaskExecutor(int threadPoolSize) {
+		return DefaultConfigurationFactory.createExecutor(threadPoolSize, configuration.threadPriority, configuration.tasksProcessingType);
 	}
 
 	/** Returns URI of image which is loading at this moment into passed {@link ImageView} */
@@ -152,6 +338,19 @@ class ImageLoaderEngine {
 		paused.set(true);
 	}
 
+	/**
+	 * Throttles engine. Network loadings are limited by <b>maxNetworkTasks</b> (0 - all network loadings are
+	 * deferred). Images from memory and disc caches and local images are loaded as usual.
+	 */
+	void throttle(int maxNetworkTasks) {
+		throttleGate.throttle(maxNetworkTasks);
+	}
+
+	/** Cancels throttling. Limit of network loadings grows gradually. */
+	void unthrottle() {
+		throttleGate.unthrottle();
+	}
+
 	/** Resumes engine work. Paused "load&display" tasks will continue its work. */
 	void resume() {
 		synchronized (paused) {
@@ -168,9 +367,39 @@ class ImageLoaderEngine {
 		if (!configuration.customExecutorForCachedImages) {
 			taskExecutorForCachedImages = null;
 		}
+		if (!configuration.customExecutorForLocalImages) {
+			taskExecutorForLocalImages = null;
+		}
+		if (!configuration.customExecutorForAppResources) {
+			taskExecutorForAppResources = null;
+		}
+		synchronized (this) {
+			prefetchExecutor = null;
+			syncLoadingExecutor = null;
+		}
+		throttleGate.reset();
 
 		cacheKeysForImageViews.clear();
 		uriLocks.clear();
+		if (hostTaskLimiter != null) {
+			for (LoadAndDisplayImageTask task : hostTaskLimiter.clearWaitingTasks()) {
+				task.onDropped();
+			}
+		}
+	}
+
+	/** Returns snapshot of executors' gauges */
+	EngineStats getStats() {
+		int waitingHostLimitedTasks = hostTaskLimiter != null ? hostTaskLimiter.getWaitingTaskCount() : 0;
+		ExecutorStats prefetchExecutorStats;
+		ExecutorStats syncLoadingExecutorStats;
+		synchronized (this) {
+			prefetchExecutorStats = ExecutorStats.of(prefetchExecutor);
+			syncLoadingExecutorStats = ExecutorStats.of(syncLoadingExecutor);
+		}
+		return new EngineStats(ExecutorStats.of(taskExecutor), ExecutorStats.of(taskExecutorForCachedImages),
+				ExecutorStats.of(taskExecutorForLocalImages), ExecutorStats.of(taskExecutorForAppResources), prefetchExecutorStats,
+				syncLoadingExecutorStats, ExecutorStats.of(taskDistributor), waitingHostLimitedTasks, rejectedTasks.get());
 	}
 
 	ReentrantLock getLockForUri(String uri) {
@@ -182,6 +411,26 @@ class ImageLoaderEngine {
 		return lock;
 	}
 
+	/**
+	 * Posts task for displaying image (or firing loading event) to handler's thread. Tasks for main thread are collected
+	 * and run in one pass per frame if {@link ImageLoaderConfiguration.Builder#batchDisplayUpdates()} is set.
+	 */
+	void postDisplayTask(Handler handler, Runnable task) {
+		if (displayBatcher != null && handler.getLooper() == Looper.getMainLooper()) {
+			displayBatcher.post(task);
+		} else {
+			handler.post(task);
+		}
+	}
+
+	ThrottleGate getThrottleGate() {
+		return throttleGate;
+	}
+
+	ByteArrayPool getBufferPool() {
+		return bufferPool;
+	}
+
 	AtomicBoolean getPause() {
 		return paused;
 	}
@@ -193,4 +442,25 @@ class ImageLoaderEngine {
 	boolean isSlowNetwork() {
 		return slowNetwork.get();
 	}
+
+	/** Wrapper for network task which frees slot of task's host after task execution */
+	private class HostLimitedTask implements Runnable {
+
+		private final LoadAndDisplayImageTask task;
+		private final String host;
+
+		HostLimitedTask(LoadAndDisplayImageTask task, String host) {
+			this.task = task;
+			this.host = host;
+		}
+
+		@Override
+		public void run() {
+			try {
+				task.run();
+			} finally {
+				onHostTaskFinished(host);
+			}
+		}
+	}
 }
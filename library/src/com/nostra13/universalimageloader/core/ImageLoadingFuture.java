@@ -0,0 +1,169 @@
+/*******************************************************************************
+ * Copyright 2013 Sergey Tarasevich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.nostra13.universalimageloader.core;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import android.graphics.Bitmap;
+
+import com.nostra13.universalimageloader.core.assist.FailReason;
+import com.nostra13.universalimageloader.core.assist.LoadingBatch;
+
+/**
+ * Result of asynchronous image loading. Loaded {@link Bitmap} can be got on any thread by blocking
+ * {@link #get()} call.<br />
+ * If loading fails then {@link #get()} throws {@link ExecutionException} (its cause is the cause of
+ * {@linkplain #getFailReason() fail reason}, it can be null).<br />
+ * Class is thread-safe.
+ * 
+ * @author Sergey Tarasevich (nostra13[at]gmail[dot]com)
+ * @since 1.8.5
+ * @see ImageLoader#loadImageAsync(String, com.nostra13.universalimageloader.core.assist.ImageSize, DisplayImageOptions)
+ */
+public final class ImageLoadingFuture implements Future<Bitmap> {
+
+	private final CountDownLatch completion = new CountDownLatch(1);
+	/** Cancels loading task */
+	final LoadingBatch batch;
+	/** null - if nobody waits for completion besides {@link #get()} callers */
+	private final CompletionCallback callback;
+
+	private volatile boolean done;
+	private volatile boolean cancelled;
+	private volatile Bitmap bitmap;
+	private volatile FailReason failReason;
+
+	ImageLoadingFuture() {
+		this(new LoadingBatch());
+	}
+
+	/** @param batch Batch which cancels loading task. It's cancelled by {@link #cancel(boolean)} call. */
+	ImageLoadingFuture(LoadingBatch batch) {
+		this(batch, null);
+	}
+
+	/**
+	 * @param batch Batch which cancels loading task. It's cancelled by {@link #cancel(boolean)} call.
+	 * @param callback Callback which is called once when future becomes {@linkplain #isDone() done}; can be null
+	 */
+	ImageLoadingFuture(LoadingBatch batch, CompletionCallback callback) {
+		this.batch = batch;
+		this.callback = callback;
+	}
+
+	/**
+	 * Cancels loading. Loading task is skipped if it isn't started yet, running task is stopped at nearest check
+	 * (running download can be completed though).
+	 * 
+	 * @param mayInterruptIfRunning Is ignored. Loading thread belongs to ImageLoader's pool so it's never interrupted.
+	 */
+	@Override
+	public boolean cancel(boolean mayInterruptIfRunning) {
+		batch.cancel();
+		return finish(null, null, true);
+	}
+
+	@Override
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	@Override
+	public boolean isDone() {
+		return done;
+	}
+
+	/**
+	 * Waits for loading completion
+	 * 
+	 * @return Loaded bitmap
+	 * @throws CancellationException if loading was cancelled
+	 * @throws ExecutionException if loading failed
+	 * @throws InterruptedException if current thread was interrupted while waiting
+	 */
+	@Override
+	public Bitmap get() throws InterruptedException, ExecutionException {
+		completion.await();
+		return getResult();
+	}
+
+	@Override
+	public Bitmap get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+		if (!completion.await(timeout, unit)) {
+			throw new TimeoutException();
+		}
+		return getResult();
+	}
+
+	/** @return Reason of loading fail; <b>null</b> - if loading isn't failed (or isn't finished yet) */
+	public FailReason getFailReason() {
+		return failReason;
+	}
+
+	/** @return Loaded bitmap; <b>null</b> - if loading is failed, cancelled or isn't finished yet */
+	Bitmap getBitmap() {
+		return bitmap;
+	}
+
+	private Bitmap getResult() throws ExecutionException {
+		if (cancelled) {
+			throw new CancellationException();
+		}
+		if (failReason != null) {
+			throw new ExecutionException(failReason.getType().toString(), failReason.getCause());
+		}
+		return bitmap;
+	}
+
+	void complete(Bitmap bitmap) {
+		finish(bitmap, null, false);
+	}
+
+	void fail(FailReason failReason) {
+		finish(null, failReason, false);
+	}
+
+	/** Is called when loading task is finished. Future which wasn't completed by task becomes cancelled. */
+	void onTaskFinished() {
+		finish(null, null, true);
+	}
+
+	private boolean finish(Bitmap bitmap, FailReason failReason, boolean cancelled) {
+		synchronized (this) {
+			if (done) return false;
+			this.bitmap = bitmap;
+			this.failReason = failReason;
+			this.cancelled = cancelled;
+			done = true;
+		}
+		completion.countDown();
+		if (callback != null) {
+			callback.onFinished(this);
+		}
+		return true;
+	}
+
+	/** Callback which is notified about completion of loading future */
+	interface CompletionCallback {
+		/** Is called once (on thread which finished the future) when future becomes {@linkplain #isDone() done} */
+		void onFinished(ImageLoadingFuture future);
+	}
+}
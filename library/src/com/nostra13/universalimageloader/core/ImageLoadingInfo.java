@@ -21,7 +21,9 @@ import android.widget.ImageView;
 
 import com.nostra13.universalimageloader.core.assist.ImageLoadingListener;
 import com.nostra13.universalimageloader.core.assist.ImageSize;
+import com.nostra13.universalimageloader.core.assist.LoadingBatch;
 import com.nostra13.universalimageloader.core.assist.MemoryCacheUtil;
+import com.nostra13.universalimageloader.core.assist.PrefetchLevel;
 
 /**
  * Information for load'n'display image task
@@ -41,6 +43,12 @@ final class ImageLoadingInfo {
 	final DisplayImageOptions options;
 	final ImageLoadingListener listener;
 	final ReentrantLock loadFromUriLock;
+	/** Is null if image is loaded for displaying (not prefetched) */
+	final PrefetchLevel prefetchLevel;
+	/** Is null if image is loaded for displaying (not prefetched) */
+	final LoadingBatch batch;
+	/** Is null if image isn't loaded for {@link ImageLoadingFuture} */
+	final ImageLoadingFuture future;
 
 	public ImageLoadingInfo(String uri, ImageView imageView, ImageSize targetSize, String memoryCacheKey, DisplayImageOptions options, ImageLoadingListener listener, ReentrantLock loadFromUriLock) {
 		this.uri = uri;
@@ -50,5 +58,36 @@ final class ImageLoadingInfo {
 		this.listener = listener;
 		this.loadFromUriLock = loadFromUriLock;
 		this.memoryCacheKey = memoryCacheKey;
+		this.prefetchLevel = null;
+		this.batch = null;
+		this.future = null;
+	}
+
+	/** Creates info for image prefetching (there are no view and listener) */
+	public ImageLoadingInfo(String uri, ImageSize targetSize, String memoryCacheKey, DisplayImageOptions options, ReentrantLock loadFromUriLock, PrefetchLevel prefetchLevel, LoadingBatch batch) {
+		this.uri = uri;
+		this.imageView = null;
+		this.targetSize = targetSize;
+		this.options = options;
+		this.listener = null;
+		this.loadFromUriLock = loadFromUriLock;
+		this.memoryCacheKey = memoryCacheKey;
+		this.prefetchLevel = prefetchLevel;
+		this.batch = batch;
+		this.future = null;
+	}
+
+	/** Creates info for image loading into {@link ImageLoadingFuture} (there are no view and listener) */
+	public ImageLoadingInfo(String uri, ImageSize targetSize, String memoryCacheKey, DisplayImageOptions options, ReentrantLock loadFromUriLock, ImageLoadingFuture future) {
+		this.uri = uri;
+		this.imageView = null;
+		this.targetSize = targetSize;
+		this.options = options;
+		this.listener = null;
+		this.loadFromUriLock = loadFromUriLock;
+		this.memoryCacheKey = memoryCacheKey;
+		this.prefetchLevel = null;
+		this.batch = future.batch;
+		this.future = future;
 	}
 }
@@ -28,12 +28,22 @@ import android.graphics.Bitmap;
 import android.os.Handler;
 import android.widget.ImageView;
 
+import com.nostra13.universalimageloader.cache.CacheStats;
+import com.nostra13.universalimageloader.cache.disc.ContentAddressedDiscCache;
 import com.nostra13.universalimageloader.cache.disc.DiscCacheAware;
+import com.nostra13.universalimageloader.cache.memory.MemoryCacheAware;
+import com.nostra13.universalimageloader.cache.memory.ResizableMemoryCache;
 import com.nostra13.universalimageloader.core.assist.FailReason;
 import com.nostra13.universalimageloader.core.assist.FailReason.FailType;
 import com.nostra13.universalimageloader.core.assist.ImageLoadingListener;
 import com.nostra13.universalimageloader.core.assist.ImageScaleType;
 import com.nostra13.universalimageloader.core.assist.ImageSize;
+import com.nostra13.universalimageloader.core.assist.LoadingMetrics;
+import com.nostra13.universalimageloader.core.assist.LoadingMetrics.Stage;
+import com.nostra13.universalimageloader.core.assist.LoadingBatch;
+import com.nostra13.universalimageloader.core.assist.LoadingMetricsListener;
+import com.nostra13.universalimageloader.core.assist.MemoryCacheUtil;
+import com.nostra13.universalimageloader.core.assist.PrefetchLevel;
 import com.nostra13.universalimageloader.core.assist.ViewScaleType;
 import com.nostra13.universalimageloader.core.decode.ImageDecoder;
 import com.nostra13.universalimageloader.core.decode.ImageDecodingInfo;
@@ -54,6 +64,7 @@ import com.nostra13.universalimageloader.utils.L;
 final class LoadAndDisplayImageTask implements Runnable {
 
 	private static final String LOG_WAITING_FOR_RESUME = "ImageLoader is paused. Waiting...  [%s]";
+	private static final String LOG_WAITING_FOR_UNTHROTTLE = "ImageLoader is throttled. Waiting for network loading...  [%s]";
 	private static final String LOG_RESUME_AFTER_PAUSE = ".. Resume loading [%s]";
 	private static final String LOG_DELAY_BEFORE_LOADING = "Delay %d ms before loading...  [%s]";
 	private static final String LOG_START_DISPLAY_IMAGE_TASK = "Start display image task [%s]";
@@ -61,17 +72,26 @@ final class LoadAndDisplayImageTask implements Runnable {
 	private static final String LOG_GET_IMAGE_FROM_MEMORY_CACHE_AFTER_WAITING = "...Get cached bitmap from memory after waiting. [%s]";
 	private static final String LOG_LOAD_IMAGE_FROM_NETWORK = "Load image from network [%s]";
 	private static final String LOG_LOAD_IMAGE_FROM_DISC_CACHE = "Load image from disc cache [%s]";
+	private static final String LOG_LOAD_IMAGE_FROM_ENCODED_MEMORY_CACHE = "Load image from encoded image memory cache [%s]";
 	private static final String LOG_PREPROCESS_IMAGE = "PreProcess image before caching in memory [%s]";
 	private static final String LOG_POSTPROCESS_IMAGE = "PostProcess image before displaying [%s]";
 	private static final String LOG_CACHE_IMAGE_IN_MEMORY = "Cache image in memory [%s]";
 	private static final String LOG_CACHE_IMAGE_ON_DISC = "Cache image on disc [%s]";
+	private static final String LOG_RESOLVE_IMAGE_URI = "Resolve image URI for downloading (bandwidth = %d bytes/s): %s [%s]";
 	private static final String LOG_TASK_CANCELLED = "ImageView is reused for another image. Task is cancelled. [%s]";
+	private static final String LOG_BATCH_CANCELLED = "Batch is cancelled. Task is cancelled. [%s]";
+	private static final String LOG_IMAGE_IS_PREFETCHED = "Image is prefetched [%s]";
 	private static final String LOG_TASK_INTERRUPTED = "Task was interrupted [%s]";
 
 	private static final String WARNING_PRE_PROCESSOR_NULL = "Pre-processor returned null [%s]";
 	private static final String WARNING_POST_PROCESSOR_NULL = "Pre-processor returned null [%s]";
 
+	private static final String ERROR_CANT_MOVE_INTO_DISC_CACHE = "Can't move downloaded image into disc cache: %s";
+
 	private static final int BUFFER_SIZE = 8 * 1024; // 8 Kb
+	private static final String TEMP_FILE_POSTFIX = ".tmp";
+	/** Disc cache files which aren't larger are read into memory by one pass for decoding */
+	private static final int MAX_SINGLE_READ_FILE_SIZE = 256 * 1024; // 256 Kb
 
 	private final ImageLoaderEngine engine;
 	private final ImageLoadingInfo imageLoadingInfo;
@@ -83,13 +103,27 @@ final class LoadAndDisplayImageTask implements Runnable {
 	private final ImageDownloader networkDeniedDownloader;
 	private final ImageDownloader slowNetworkDownloader;
 	private final ImageDecoder decoder;
-	private final boolean loggingEnabled;
+	/** Is null if logging is disabled */
+	private final EventLog eventLog;
 	final String uri;
 	private final String memoryCacheKey;
 	final ImageView imageView;
 	private final ImageSize targetSize;
 	final DisplayImageOptions options;
 	final ImageLoadingListener listener;
+	/** Is null if image is loaded for displaying */
+	private final PrefetchLevel prefetchLevel;
+	/** Is null if image is loaded for displaying */
+	private final LoadingBatch batch;
+	/** Is null if image isn't loaded for {@link ImageLoadingFuture} */
+	private final ImageLoadingFuture future;
+	private final LoadingMetricsListener metricsListener;
+	/** Is null if metrics aren't collected */
+	private final LoadingMetrics metrics;
+	/** Separates reading of image from its decoding. Is null if metrics aren't collected. */
+	private final StreamReadMeter readMeter;
+	private final long creationTime;
+	private boolean displayTaskPosted;
 
 	public LoadAndDisplayImageTask(ImageLoaderEngine engine, ImageLoadingInfo imageLoadingInfo, Handler handler) {
 		this.engine = engine;
@@ -101,18 +135,52 @@ final class LoadAndDisplayImageTask implements Runnable {
 		networkDeniedDownloader = configuration.networkDeniedDownloader;
 		slowNetworkDownloader = configuration.slowNetworkDownloader;
 		decoder = configuration.decoder;
-		loggingEnabled = configuration.loggingEnabled;
+		eventLog = configuration.eventLog;
 		uri = imageLoadingInfo.uri;
 		memoryCacheKey = imageLoadingInfo.memoryCacheKey;
 		imageView = imageLoadingInfo.imageView;
 		targetSize = imageLoadingInfo.targetSize;
 		options = imageLoadingInfo.options;
 		listener = imageLoadingInfo.listener;
+		prefetchLevel = imageLoadingInfo.prefetchLevel;
+		batch = imageLoadingInfo.batch;
+		future = imageLoadingInfo.future;
+		metricsListener = configuration.loadingMetricsListener;
+		metrics = metricsListener == null ? null : new LoadingMetrics(uri, memoryCacheKey);
+		readMeter = metrics == null ? null : new StreamReadMeter();
+		creationTime = metrics == null ? 0 : System.nanoTime();
 	}
 
 	@Override
 	public void run() {
-		if (waitIfPaused()) return;
+		try {
+			loadAndPostDisplay();
+		} finally {
+			if (metrics != null && !displayTaskPosted) {
+				metricsListener.onLoadingMetrics(metrics);
+			}
+			if (future != null) {
+				future.onTaskFinished(); // cancels future if task was cancelled or interrupted
+			}
+		}
+	}
+
+	/**
+	 * Is called by engine if task is dropped without running. Cancels {@linkplain ImageLoadingFuture future} of task
+	 * (if any) so threads which wait for it aren't blocked forever.
+	 */
+	void onDropped() {
+		if (future != null) {
+			future.cancel(false);
+		}
+	}
+
+	private void loadAndPostDisplay() {
+		long stageStart = startStage();
+		if (metrics != null) metrics.addDuration(Stage.QUEUE_WAIT, stageStart - creationTime);
+		boolean interrupted = waitIfPaused();
+		endStage(Stage.PAUSE_WAIT, stageStart);
+		if (interrupted) return;
 		if (delayIfNeed()) return;
 
 		ReentrantLock loadFromUriLock = imageLoadingInfo.loadFromUriLock;
@@ -121,21 +189,36 @@ final class LoadAndDisplayImageTask implements Runnable {
 			log(LOG_WAITING_FOR_IMAGE_LOADED);
 		}
 
+		stageStart = startStage();
 		loadFromUriLock.lock();
+		endStage(Stage.LOCK_WAIT, stageStart);
 		Bitmap bmp;
 		try {
 			if (checkTaskIsNotActual()) return;
 
-			bmp = configuration.memoryCache.get(memoryCacheKey);
+			if (prefetchLevel == PrefetchLevel.DISC_ONLY) {
+				prefetchOnDisc();
+				return;
+			}
+
+			// Memory cache was checked before task submitting (and usage statistics was recorded then)
+			bmp = MemoryCacheUtil.peek(configuration.memoryCache, memoryCacheKey);
 			if (bmp == null) {
+				long loadStart = System.nanoTime();
 				bmp = tryLoadBitmap();
+				CacheStats memoryCacheStats = configuration.memoryCacheStats;
+				if (memoryCacheStats != null && bmp != null) {
+					memoryCacheStats.recordLoad(System.nanoTime() - loadStart);
+				}
 				if (bmp == null) return;
 
 				if (checkTaskIsNotActual() || checkTaskIsInterrupted()) return;
 
 				if (options.shouldPreProcess()) {
 					log(LOG_PREPROCESS_IMAGE);
+					stageStart = startStage();
 					bmp = options.getPreProcessor().process(bmp);
+					endStage(Stage.PRE_PROCESS, stageStart);
 					if (bmp == null) {
 						L.w(WARNING_PRE_PROCESSOR_NULL);
 					}
@@ -143,15 +226,24 @@ final class LoadAndDisplayImageTask implements Runnable {
 
 				if (bmp != null && options.isCacheInMemory()) {
 					log(LOG_CACHE_IMAGE_IN_MEMORY);
+					stageStart = startStage();
 					configuration.memoryCache.put(memoryCacheKey, bmp);
+					endStage(Stage.MEMORY_CACHE_PUT, stageStart);
 				}
 			} else {
 				log(LOG_GET_IMAGE_FROM_MEMORY_CACHE_AFTER_WAITING);
 			}
 
+			if (prefetchLevel != null) {
+				log(LOG_IMAGE_IS_PREFETCHED);
+				return;
+			}
+
 			if (bmp != null && options.shouldPostProcess()) {
 				log(LOG_POSTPROCESS_IMAGE);
+				stageStart = startStage();
 				bmp = options.getPostProcessor().process(bmp);
+				endStage(Stage.POST_PROCESS, stageStart);
 				if (bmp == null) {
 					L.w(WARNING_POST_PROCESSOR_NULL, memoryCacheKey);
 				}
@@ -162,9 +254,17 @@ final class LoadAndDisplayImageTask implements Runnable {
 
 		if (checkTaskIsNotActual() || checkTaskIsInterrupted()) return;
 
+		if (future != null) {
+			future.complete(bmp);
+			return;
+		}
+
 		DisplayBitmapTask displayBitmapTask = new DisplayBitmapTask(bmp, imageLoadingInfo, engine);
-		displayBitmapTask.setLoggingEnabled(loggingEnabled);
-		handler.post(displayBitmapTask);
+		if (metrics != null) {
+			displayBitmapTask.setLoadingMetrics(metrics, metricsListener);
+		}
+		displayTaskPosted = true;
+		engine.postDisplayTask(handler, displayBitmapTask);
 	}
 
 	/**
@@ -192,7 +292,7 @@ final class LoadAndDisplayImageTask implements Runnable {
 	 */
 	private boolean delayIfNeed() {
 		if (options.shouldDelayBeforeLoading()) {
-			log(LOG_DELAY_BEFORE_LOADING, options.getDelayBeforeLoading(), memoryCacheKey);
+			log(LOG_DELAY_BEFORE_LOADING, options.getDelayBeforeLoading());
 			try {
 				Thread.sleep(options.getDelayBeforeLoading());
 			} catch (InterruptedException e) {
@@ -209,12 +309,18 @@ final class LoadAndDisplayImageTask implements Runnable {
 	 * moment and fire {@link ImageLoadingListener#onLoadingCancelled()} event if it doesn't.
 	 */
 	private boolean checkTaskIsNotActual() {
+		if (batch != null) {
+			boolean batchCancelled = batch.isCancelled();
+			if (batchCancelled) log(LOG_BATCH_CANCELLED);
+			return batchCancelled;
+		}
+
 		String currentCacheKey = engine.getLoadingUriForView(imageView);
 		// Check whether memory cache key (image URI) for current ImageView is actual. 
 		// If ImageView is reused for another task then current task should be cancelled.
 		boolean imageViewWasReused = !memoryCacheKey.equals(currentCacheKey);
 		if (imageViewWasReused) {
-			handler.post(new Runnable() {
+			engine.postDisplayTask(handler, new Runnable() {
 				@Override
 				public void run() {
 					listener.onLoadingCancelled(uri, imageView);
@@ -235,22 +341,36 @@ final class LoadAndDisplayImageTask implements Runnable {
 	private Bitmap tryLoadBitmap() {
 		File imageFile = getImageFileInDiscCache();
 
+		CacheStats discCacheStats = configuration.discCacheStats;
 		Bitmap bitmap = null;
 		try {
-			if (imageFile.exists()) {
-				log(LOG_LOAD_IMAGE_FROM_DISC_CACHE);
+			bitmap = tryDecodeEncodedImageFromMemory(imageFile);
+			if (bitmap == null) {
+				boolean cachedOnDisc = imageFile.exists();
+				if (discCacheStats != null) {
+					if (cachedOnDisc) {
+						discCacheStats.recordHit();
+					} else {
+						discCacheStats.recordMiss();
+					}
+				}
+				if (cachedOnDisc) {
+					log(LOG_LOAD_IMAGE_FROM_DISC_CACHE);
 
-				bitmap = decodeImage(Scheme.FILE.wrap(imageFile.getAbsolutePath()));
+					long stageStart = startReadAndDecodeStages();
+					bitmap = decodeImageFile(imageFile);
+					endReadAndDecodeStages(Stage.DISC_READ, stageStart);
+				}
 			}
 			if (bitmap == null || bitmap.getWidth() <= 0 || bitmap.getHeight() <= 0) {
 				log(LOG_LOAD_IMAGE_FROM_NETWORK);
 
-				String imageUriForDecoding = options.isCacheOnDisc() ? tryCacheImageOnDisc(imageFile) : uri;
-				if (!checkTaskIsNotActual()) {
-					bitmap = decodeImage(imageUriForDecoding);
-					if (bitmap == null || bitmap.getWidth() <= 0 || bitmap.getHeight() <= 0) {
-						fireImageLoadingFailedEvent(FailType.DECODING_ERROR, null);
-					}
+				boolean throttled = isThrottledSource();
+				if (throttled && !enterThrottleGate()) return null;
+				try {
+					bitmap = loadBitmapFromSource(imageFile, discCacheStats);
+				} finally {
+					if (throttled) engine.getThrottleGate().exit();
 				}
 			}
 		} catch (IllegalStateException e) {
@@ -258,9 +378,7 @@ final class LoadAndDisplayImageTask implements Runnable {
 		} catch (IOException e) {
 			L.e(e);
 			fireImageLoadingFailedEvent(FailType.IO_ERROR, e);
-			if (imageFile.exists()) {
-				imageFile.delete();
-			}
+			removeFromDiscCache(imageFile);
 		} catch (OutOfMemoryError e) {
 			L.e(e);
 			fireImageLoadingFailedEvent(FailType.OUT_OF_MEMORY, e);
@@ -271,6 +389,107 @@ final class LoadAndDisplayImageTask implements Runnable {
 		return bitmap;
 	}
 
+	/** Downloads image into disc cache if it isn't cached on disc yet */
+	private void prefetchOnDisc() {
+		File imageFile = getImageFileInDiscCache();
+		CacheStats discCacheStats = configuration.discCacheStats;
+		if (imageFile.exists()) {
+			if (discCacheStats != null) discCacheStats.recordHit();
+		} else {
+			if (discCacheStats != null) discCacheStats.recordMiss();
+			boolean throttled = isThrottledSource();
+			if (throttled && !enterThrottleGate()) return;
+			try {
+				long stageStart = System.nanoTime();
+				File cachedFile = tryCacheImageOnDisc(imageFile, resolveUriForDownloading());
+				if (cachedFile == null) return; // caching failed
+				if (discCacheStats != null) discCacheStats.recordLoad(System.nanoTime() - stageStart);
+			} catch (IllegalStateException e) {
+				return; // network downloads are denied
+			} finally {
+				if (throttled) engine.getThrottleGate().exit();
+			}
+		}
+		log(LOG_IMAGE_IS_PREFETCHED);
+	}
+
+	/** Loads image from its source (network, file system, etc.), caches it on disc (if needed) and decodes it */
+	private Bitmap loadBitmapFromSource(File imageFile, CacheStats discCacheStats) throws IOException {
+		Bitmap bitmap = null;
+		String downloadUri = resolveUriForDownloading();
+		if (options.isCacheOnDisc() && isDecodingWhileCachingOnDiscAllowed()) {
+			long stageStart = startReadAndDecodeStages();
+			bitmap = decodeWhileCachingOnDisc(imageFile, downloadUri);
+			endReadAndDecodeStages(Stage.NETWORK_DOWNLOAD, stageStart);
+			if (discCacheStats != null) discCacheStats.recordLoad(System.nanoTime() - stageStart);
+			if (bitmap == null || bitmap.getWidth() <= 0 || bitmap.getHeight() <= 0) {
+				fireImageLoadingFailedEvent(FailType.DECODING_ERROR, null);
+			}
+		} else {
+			long stageStart = System.nanoTime();
+			File cachedFile = options.isCacheOnDisc() ? tryCacheImageOnDisc(imageFile, downloadUri) : null;
+			if (discCacheStats != null && cachedFile != null) discCacheStats.recordLoad(System.nanoTime() - stageStart);
+			if (!checkTaskIsNotActual()) {
+				stageStart = startReadAndDecodeStages();
+				if (cachedFile != null) {
+					bitmap = decodeImageFile(cachedFile);
+					endReadAndDecodeStages(Stage.DISC_READ, stageStart);
+				} else {
+					bitmap = decodeImage(downloadUri, measured(getDownloader()));
+					endReadAndDecodeStages(Stage.NETWORK_DOWNLOAD, stageStart);
+				}
+				if (bitmap == null || bitmap.getWidth() <= 0 || bitmap.getHeight() <= 0) {
+					fireImageLoadingFailedEvent(FailType.DECODING_ERROR, null);
+				}
+			}
+		}
+		return bitmap;
+	}
+
+	/**
+	 * Returns <b>true</b> - if image source is network (or custom), so its loading is limited while ImageLoader is
+	 * {@linkplain ImageLoader#throttle(int) throttled}; <b>false</b> - for local sources
+	 */
+	private boolean isThrottledSource() {
+		switch (Scheme.ofUri(uri)) {
+			case FILE:
+			case CONTENT:
+			case ASSETS:
+			case DRAWABLE:
+				return false;
+			default:
+				return true;
+		}
+	}
+
+	/**
+	 * Waits while network loadings are limited because ImageLoader is {@linkplain ImageLoader#throttle(int)
+	 * throttled}
+	 * 
+	 * @return <b>true</b> - if task entered {@link ThrottleGate}; <b>false</b> - if task was interrupted or isn't
+	 *         actual anymore (then it didn't enter the gate)
+	 */
+	private boolean enterThrottleGate() {
+		ThrottleGate throttleGate = engine.getThrottleGate();
+		if (throttleGate.isThrottled()) {
+			log(LOG_WAITING_FOR_UNTHROTTLE);
+		}
+		long stageStart = startStage();
+		try {
+			throttleGate.enter();
+		} catch (InterruptedException e) {
+			L.e(LOG_TASK_INTERRUPTED, memoryCacheKey);
+			return false;
+		} finally {
+			endStage(Stage.PAUSE_WAIT, stageStart);
+		}
+		if (checkTaskIsNotActual()) {
+			throttleGate.exit();
+			return false;
+		}
+		return true;
+	}
+
 	private File getImageFileInDiscCache() {
 		DiscCacheAware discCache = configuration.discCache;
 		File imageFile = discCache.get(uri);
@@ -285,42 +504,229 @@ final class LoadAndDisplayImageTask implements Runnable {
 		return imageFile;
 	}
 
-	private Bitmap decodeImage(String imageUri) throws IOException {
-		ViewScaleType viewScaleType = ViewScaleType.fromImageView(imageView);
-		ImageDecodingInfo decodingInfo = new ImageDecodingInfo(memoryCacheKey, imageUri, targetSize, viewScaleType, getDownloader(), options);
+	private Bitmap decodeImage(String imageUri, ImageDownloader downloader) throws IOException {
+		ImageDecodingInfo decodingInfo = new ImageDecodingInfo(memoryCacheKey, imageUri, targetSize, getViewScaleType(), downloader, options);
 		return decoder.decode(decodingInfo);
 	}
 
 	/**
-	 * @return Cached image URI; or original image URI if caching failed
+	 * Decodes image from {@linkplain ImageLoaderConfiguration#encodedImageMemoryCache encoded image memory cache}.
+	 * Image which can't be decoded is removed from this cache. URI of disc cache file is passed to decoder so it can
+	 * read EXIF of image.
+	 * 
+	 * @return Decoded image; null - if image isn't cached in memory or can't be decoded
+	 */
+	private Bitmap tryDecodeEncodedImageFromMemory(File imageFile) {
+		MemoryCacheAware<String, byte[]> encodedImageMemoryCache = configuration.encodedImageMemoryCache;
+		if (encodedImageMemoryCache == null) return null;
+
+		byte[] imageBytes = encodedImageMemoryCache.get(uri);
+		if (imageBytes == null) return null;
+
+		log(LOG_LOAD_IMAGE_FROM_ENCODED_MEMORY_CACHE);
+		long stageStart = startStage();
+		Bitmap bitmap = null;
+		try {
+			bitmap = decodeImage(Scheme.FILE.wrap(imageFile.getAbsolutePath()), new ByteArrayImageDownloader(imageBytes));
+		} catch (IOException e) {
+			L.e(e);
+		}
+		endStage(Stage.DECODE, stageStart);
+		if (bitmap == null || bitmap.getWidth() <= 0 || bitmap.getHeight() <= 0) {
+			encodedImageMemoryCache.remove(uri);
+			return null;
+		}
+		return bitmap;
+	}
+
+	/**
+	 * Decodes image file from disc cache. If {@linkplain ImageLoaderConfiguration#encodedImageMemoryCache encoded
+	 * image memory cache} is set then file is read into memory, put into this cache and decoded from memory. Otherwise
+	 * small file is read into pooled buffer by one pass and both decoding passes (bounds and full decode) use this
+	 * buffer instead of opening file twice.
+	 */
+	private Bitmap decodeImageFile(File imageFile) throws IOException {
+		String imageFileUri = Scheme.FILE.wrap(imageFile.getAbsolutePath());
+		MemoryCacheAware<String, byte[]> encodedImageMemoryCache = configuration.encodedImageMemoryCache;
+		if (encodedImageMemoryCache != null && fitsIntoEncodedImageMemoryCache(encodedImageMemoryCache, imageFile.length())) {
+			long readStart = startStage();
+			byte[] imageBytes = IoUtils.readFile(imageFile);
+			addRead(readStart, imageBytes.length);
+			Bitmap bitmap = decodeImage(imageFileUri, new ByteArrayImageDownloader(imageBytes));
+			if (bitmap != null) {
+				encodedImageMemoryCache.put(uri, imageBytes);
+			}
+			return bitmap;
+		}
+
+		long fileSize = imageFile.length();
+		if (fileSize > 0 && fileSize <= MAX_SINGLE_READ_FILE_SIZE) {
+			int length = (int) fileSize;
+			ByteArrayPool bufferPool = engine.getBufferPool();
+			byte[] buffer = bufferPool.get(length);
+			try {
+				long readStart = startStage();
+				IoUtils.readFile(imageFile, buffer, length);
+				addRead(readStart, length);
+				return decodeImage(imageFileUri, new ByteArrayImageDownloader(buffer, length));
+			} finally {
+				bufferPool.release(buffer);
+			}
+		} else {
+			return decodeImage(imageFileUri, measured(getDownloader()));
+		}
+	}
+
+	private static boolean fitsIntoEncodedImageMemoryCache(MemoryCacheAware<String, byte[]> cache, long imageSize) {
+		ResizableMemoryCache<String, byte[]> resizableCache = MemoryCacheUtil.getResizableCache(cache);
+		long maxSize = resizableCache != null ? resizableCache.getMaxSize() : Integer.MAX_VALUE;
+		return imageSize > 0 && imageSize <= maxSize;
+	}
+
+	/**
+	 * @return URI which should be used for image downloading. It can differ from original URI if
+	 *         {@link com.nostra13.universalimageloader.core.download.ImageUriResolver ImageUriResolver} is set.
+	 */
+	private String resolveUriForDownloading() {
+		if (configuration.imageUriResolver == null) return uri;
+		Scheme scheme = Scheme.ofUri(uri);
+		if (scheme != Scheme.HTTP && scheme != Scheme.HTTPS) return uri;
+
+		long bandwidth = configuration.bandwidthEstimator.getBandwidth();
+		String downloadUri = configuration.imageUriResolver.resolve(uri, targetSize, bandwidth);
+		if (downloadUri == null) return uri;
+		if (!downloadUri.equals(uri)) {
+			if (eventLog != null) eventLog.add(LOG_RESOLVE_IMAGE_URI, bandwidth, downloadUri, memoryCacheKey);
+		}
+		return downloadUri;
+	}
+
+	private boolean isDecodingWhileCachingOnDiscAllowed() {
+		return configuration.decodeWhileCachingOnDisc && configuration.maxImageWidthForDiscCache <= 0 && configuration.maxImageHeightForDiscCache <= 0;
+	}
+
+	/**
+	 * Decodes image while it's downloading and saving on disc. Image is decoded by file URI so EXIF info is considered
+	 * as well.
+	 * 
+	 * @return Decoded bitmap
+	 * @throws IOException if downloading or caching failed. Incomplete file is deleted then.
 	 */
-	private String tryCacheImageOnDisc(File targetFile) {
+	private Bitmap decodeWhileCachingOnDisc(File imageFile, String downloadUri) throws IOException {
 		log(LOG_CACHE_IMAGE_ON_DISC);
 
+		File targetFile = getFileForWriting(imageFile);
+
+		InputStream is = measured(getDownloader().getStream(downloadUri, options.getExtraForDownloader()));
+		CachingStreamDownloader cachingDownloader;
+		try {
+			cachingDownloader = new CachingStreamDownloader(is, targetFile);
+		} catch (IOException e) {
+			IoUtils.closeSilently(is);
+			throw e;
+		}
+
+		Bitmap bitmap;
+		boolean cached = false;
+		try {
+			String imageUri = Scheme.FILE.wrap(targetFile.getAbsolutePath());
+			ImageDecodingInfo decodingInfo = new ImageDecodingInfo(memoryCacheKey, imageUri, targetSize, getViewScaleType(), cachingDownloader, options);
+			bitmap = decoder.decode(decodingInfo);
+			cachingDownloader.finish();
+			cached = true;
+		} finally {
+			if (!cached) {
+				cachingDownloader.abort();
+			}
+		}
+
+		putIntoDiscCache(imageFile, targetFile);
+		return bitmap;
+	}
+
+	/**
+	 * @return Cached image file; <b>null</b> - if caching failed
+	 */
+	private File tryCacheImageOnDisc(File imageFile, String downloadUri) {
+		log(LOG_CACHE_IMAGE_ON_DISC);
+
+		File targetFile = getFileForWriting(imageFile);
 		try {
 			int width = configuration.maxImageWidthForDiscCache;
 			int height = configuration.maxImageHeightForDiscCache;
 			boolean saved = false;
 			if (width > 0 || height > 0) {
-				saved = downloadSizedImage(targetFile, width, height);
+				long stageStart = startReadAndDecodeStages();
+				saved = downloadSizedImage(targetFile, downloadUri, width, height);
+				endReadAndDecodeStages(Stage.NETWORK_DOWNLOAD, stageStart);
 			}
 			if (!saved) {
-				downloadImage(targetFile);
+				long stageStart = startStage();
+				downloadImage(targetFile, downloadUri);
+				endStage(Stage.NETWORK_DOWNLOAD, stageStart);
+				if (metrics != null) metrics.addDownloadedBytes(targetFile.length());
 			}
 
-			configuration.discCache.put(uri, targetFile);
-			return Scheme.FILE.wrap(targetFile.getAbsolutePath());
+			return putIntoDiscCache(imageFile, targetFile);
 		} catch (IOException e) {
 			L.e(e);
-			return uri;
+			targetFile.delete();
+			return null;
+		}
+	}
+
+	/**
+	 * Removes image which failed to load from disc cache. Shared file of {@linkplain ContentAddressedDiscCache disc
+	 * cache which shares files between keys} is removed by cache itself, so other keys aren't affected.
+	 */
+	private void removeFromDiscCache(File imageFile) {
+		DiscCacheAware discCache = configuration.discCache;
+		if (discCache instanceof ContentAddressedDiscCache) {
+			((ContentAddressedDiscCache) discCache).remove(uri);
+		} else if (imageFile.exists()) {
+			imageFile.delete();
+		}
+	}
+
+	/**
+	 * Returns temporary file where downloaded image should be written. So disc cache never contains partially written
+	 * image (i.e. {@link com.nostra13.universalimageloader.cache.disc.DiscCacheInspector DiscCacheInspector} can
+	 * verify cache during image loading).
+	 */
+	private File getFileForWriting(File imageFile) {
+		DiscCacheAware discCache = configuration.discCache;
+		if (discCache instanceof ContentAddressedDiscCache) {
+			return ((ContentAddressedDiscCache) discCache).getTempFile(uri);
 		}
+		return new File(imageFile.getPath() + TEMP_FILE_POSTFIX);
 	}
 
-	private boolean downloadSizedImage(File targetFile, int maxWidth, int maxHeight) throws IOException {
+	/**
+	 * Moves completely written image into disc cache
+	 * 
+	 * @return Cached image file
+	 * @throws IOException if image can't be moved into disc cache
+	 */
+	private File putIntoDiscCache(File imageFile, File writtenFile) throws IOException {
+		DiscCacheAware discCache = configuration.discCache;
+		if (discCache instanceof ContentAddressedDiscCache) {
+			discCache.put(uri, writtenFile);
+			return discCache.get(uri); // file is moved by disc cache
+		}
+		if (!writtenFile.renameTo(imageFile)) {
+			writtenFile.delete();
+			throw new IOException(String.format(ERROR_CANT_MOVE_INTO_DISC_CACHE, imageFile));
+		}
+		discCache.put(uri, imageFile);
+		return imageFile;
+	}
+
+	private boolean downloadSizedImage(File targetFile, String downloadUri, int maxWidth, int maxHeight) throws IOException {
 		// Download, decode, compress and save image
 		ImageSize targetImageSize = new ImageSize(maxWidth, maxHeight);
 		DisplayImageOptions specialOptions = new DisplayImageOptions.Builder().cloneFrom(options).imageScaleType(ImageScaleType.IN_SAMPLE_INT).build();
-		ImageDecodingInfo decodingInfo = new ImageDecodingInfo(memoryCacheKey, uri, targetImageSize, ViewScaleType.FIT_INSIDE, getDownloader(), specialOptions);
+		ImageDecodingInfo decodingInfo = new ImageDecodingInfo(memoryCacheKey, downloadUri, targetImageSize, ViewScaleType.FIT_INSIDE,
+				measured(getDownloader()), specialOptions);
 		Bitmap bmp = decoder.decode(decodingInfo);
 		boolean savedSuccessfully = false;
 		if (bmp != null) {
@@ -337,8 +743,8 @@ final class LoadAndDisplayImageTask implements Runnable {
 		return savedSuccessfully;
 	}
 
-	private void downloadImage(File targetFile) throws IOException {
-		InputStream is = getDownloader().getStream(uri, options.getExtraForDownloader());
+	private void downloadImage(File targetFile, String downloadUri) throws IOException {
+		InputStream is = getDownloader().getStream(downloadUri, options.getExtraForDownloader());
 		try {
 			OutputStream os = new BufferedOutputStream(new FileOutputStream(targetFile), BUFFER_SIZE);
 			try {
@@ -352,8 +758,13 @@ final class LoadAndDisplayImageTask implements Runnable {
 	}
 
 	private void fireImageLoadingFailedEvent(final FailType failType, final Throwable failCause) {
+		if (future != null) {
+			future.fail(new FailReason(failType, failCause));
+			return;
+		}
+		if (prefetchLevel != null) return; // nobody listens to prefetching
 		if (!Thread.interrupted()) {
-			handler.post(new Runnable() {
+			engine.postDisplayTask(handler, new Runnable() {
 				@Override
 				public void run() {
 					if (options.shouldShowImageOnFail()) {
@@ -377,15 +788,65 @@ final class LoadAndDisplayImageTask implements Runnable {
 		return d;
 	}
 
+	/** Returns scale type of target view; {@link ViewScaleType#CROP} - if image is prefetched */
+	private ViewScaleType getViewScaleType() {
+		return imageView == null ? ViewScaleType.CROP : ViewScaleType.fromImageView(imageView);
+	}
+
 	String getLoadingUri() {
 		return uri;
 	}
 
+	/** Returns start time of loading stage; or 0 if metrics aren't collected */
+	private long startStage() {
+		return metrics == null ? 0 : System.nanoTime();
+	}
+
+	private void endStage(Stage stage, long stageStart) {
+		if (metrics != null) metrics.addDuration(stage, System.nanoTime() - stageStart);
+	}
+
+	/** Returns start time of stages where image is read and decoded at the same time (it's needed for disc cache stats) */
+	private long startReadAndDecodeStages() {
+		if (readMeter != null) readMeter.reset();
+		return System.nanoTime();
+	}
+
+	/**
+	 * Splits duration of read-and-decode block: time spent inside reading of image goes to <b>readStage</b> (read
+	 * bytes are counted as disc cache read bytes or downloaded bytes), the rest goes to {@link Stage#DECODE}
+	 */
+	private void endReadAndDecodeStages(Stage readStage, long stageStart) {
+		if (metrics == null) return;
+		long duration = System.nanoTime() - stageStart;
+		long readTime = Math.min(readMeter.getReadTime(), duration);
+		metrics.addDuration(readStage, readTime);
+		metrics.addDuration(Stage.DECODE, duration - readTime);
+		if (readStage == Stage.DISC_READ) {
+			metrics.addDiscCacheReadBytes(readMeter.getReadBytes());
+		} else {
+			metrics.addDownloadedBytes(readMeter.getReadBytes());
+		}
+		readMeter.reset();
+	}
+
+	private void addRead(long readStart, long bytes) {
+		if (readMeter != null) readMeter.addRead(System.nanoTime() - readStart, bytes);
+	}
+
+	private ImageDownloader measured(ImageDownloader downloader) {
+		return readMeter == null ? downloader : readMeter.wrap(downloader);
+	}
+
+	private InputStream measured(InputStream stream) {
+		return readMeter == null ? stream : readMeter.wrap(stream);
+	}
+
 	private void log(String message) {
-		if (loggingEnabled) L.i(message, memoryCacheKey);
+		if (eventLog != null) eventLog.add(message, memoryCacheKey);
 	}
 
-	private void log(String message, Object... args) {
-		if (loggingEnabled) L.i(message, args);
+	private void log(String message, long value) {
+		if (eventLog != null) eventLog.add(message, value, memoryCacheKey);
 	}
 }
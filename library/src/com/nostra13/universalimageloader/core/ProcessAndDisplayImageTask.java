@@ -20,7 +20,6 @@ import android.os.Handler;
 import android.widget.ImageView;
 
 import com.nostra13.universalimageloader.core.process.BitmapProcessor;
-import com.nostra13.universalimageloader.utils.L;
 
 /**
  * Presents process'n'display image task. Processes image {@linkplain Bitmap} and display it in {@link ImageView} using
@@ -47,9 +46,10 @@ class ProcessAndDisplayImageTask implements Runnable {
 
 	@Override
 	public void run() {
-		if (engine.configuration.loggingEnabled) L.i(LOG_POSTPROCESS_IMAGE, imageLoadingInfo.memoryCacheKey);
+		EventLog eventLog = engine.configuration.eventLog;
+		if (eventLog != null) eventLog.add(LOG_POSTPROCESS_IMAGE, imageLoadingInfo.memoryCacheKey);
 		BitmapProcessor processor = imageLoadingInfo.options.getPostProcessor();
 		final Bitmap processedBitmap = processor.process(bitmap);
-		handler.post(new DisplayBitmapTask(processedBitmap, imageLoadingInfo, engine));
+		engine.postDisplayTask(handler, new DisplayBitmapTask(processedBitmap, imageLoadingInfo, engine));
 	}
 }
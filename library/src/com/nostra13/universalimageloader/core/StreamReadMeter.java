@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * Copyright 2013 Sergey Tarasevich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.nostra13.universalimageloader.core;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.nostra13.universalimageloader.core.download.ImageDownloader;
+
+/**
+ * Measures time spent inside reading of image streams and count of read bytes. So reading of image can be told apart
+ * from its decoding when decoder reads stream and decodes image at the same time.<br />
+ * Class isn't thread-safe. It's used by one loading task.
+ * 
+ * @author Sergey Tarasevich (nostra13[at]gmail[dot]com)
+ * @since 1.8.5
+ * @see com.nostra13.universalimageloader.core.assist.LoadingMetrics
+ */
+final class StreamReadMeter {
+
+	private long readTime;
+	private long readBytes;
+
+	/** Returns downloader which streams are measured by this meter */
+	ImageDownloader wrap(final ImageDownloader downloader) {
+		return new ImageDownloader() {
+			@Override
+			public InputStream getStream(String imageUri, Object extra) throws IOException {
+				return wrap(downloader.getStream(imageUri, extra));
+			}
+		};
+	}
+
+	/** Returns stream which reading is measured by this meter */
+	InputStream wrap(InputStream stream) {
+		return new MeasuredInputStream(stream);
+	}
+
+	/** Adds reading which was done without measured stream */
+	void addRead(long durationNanos, long bytes) {
+		readTime += durationNanos;
+		readBytes += bytes;
+	}
+
+	/** Returns time (in nanoseconds) spent inside reading since last {@link #reset()} */
+	long getReadTime() {
+		return readTime;
+	}
+
+	/** Returns count of bytes read since last {@link #reset()} */
+	long getReadBytes() {
+		return readBytes;
+	}
+
+	void reset() {
+		readTime = 0;
+		readBytes = 0;
+	}
+
+	private class MeasuredInputStream extends FilterInputStream {
+
+		MeasuredInputStream(InputStream in) {
+			super(in);
+		}
+
+		@Override
+		public int read() throws IOException {
+			long start = System.nanoTime();
+			int b = super.read();
+			addRead(System.nanoTime() - start, b == -1 ? 0 : 1);
+			return b;
+		}
+
+		@Override
+		public int read(byte[] buffer, int offset, int count) throws IOException {
+			long start = System.nanoTime();
+			int read = super.read(buffer, offset, count);
+			addRead(System.nanoTime() - start, read == -1 ? 0 : read);
+			return read;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			long start = System.nanoTime();
+			long skipped = super.skip(n);
+			addRead(System.nanoTime() - start, skipped);
+			return skipped;
+		}
+	}
+}
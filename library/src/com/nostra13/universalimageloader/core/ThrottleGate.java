@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright 2013 Sergey Tarasevich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.nostra13.universalimageloader.core;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gate which limits count of concurrently running network loadings while ImageLoader is
+ * {@linkplain ImageLoader#throttle(int) throttled}. After {@linkplain #unthrottle() unthrottling} the limit grows
+ * gradually (by one every {@value #RAMP_UP_INTERVAL} ms) until it reaches max concurrency, so waiting tasks don't
+ * start all at once. Waiting threads are woken one by one.<br />
+ * Class is thread-safe.
+ * 
+ * @author Sergey Tarasevich (nostra13[at]gmail[dot]com)
+ * @since 1.8.5
+ */
+final class ThrottleGate {
+
+	/** Interval (in ms) between increments of allowed concurrency during ramp-up */
+	static final long RAMP_UP_INTERVAL = 100;
+
+	private final int maxConcurrency;
+
+	private boolean throttled;
+	private int throttledConcurrency;
+	/** Start of ramp-up (in nanoseconds); 0 - if gate isn't ramping up */
+	private long rampUpStart;
+	private int running;
+
+	/** @param maxConcurrency Concurrency at which ramp-up finishes (usually thread pool size) */
+	ThrottleGate(int maxConcurrency) {
+		this.maxConcurrency = maxConcurrency;
+	}
+
+	/** Limits concurrency of network loadings by <b>maxConcurrency</b> (0 - defer all network loadings) */
+	synchronized void throttle(int maxConcurrency) {
+		throttled = true;
+		throttledConcurrency = maxConcurrency;
+		rampUpStart = 0;
+		notify(); // limit can be increased
+	}
+
+	/** Starts gradual ramp-up of allowed concurrency */
+	synchronized void unthrottle() {
+		if (!throttled) return;
+		throttled = false;
+		rampUpStart = System.nanoTime();
+		notify();
+	}
+
+	/** Cancels throttling immediately (without ramp-up) and lets all waiting threads enter the gate */
+	synchronized void reset() {
+		throttled = false;
+		rampUpStart = 0;
+		notifyAll();
+	}
+
+	synchronized boolean isThrottled() {
+		return throttled;
+	}
+
+	/**
+	 * Waits until running of one more network loading is allowed
+	 * 
+	 * @throws InterruptedException if thread is interrupted while waiting. Then thread doesn't enter the gate.
+	 */
+	synchronized void enter() throws InterruptedException {
+		while (true) {
+			long now = System.nanoTime();
+			if (running < getAllowedConcurrency(now)) break;
+			// wait until next ramp-up step or until some loading exits
+			wait(rampUpStart == 0 ? 0 : RAMP_UP_INTERVAL - TimeUnit.NANOSECONDS.toMillis(now - rampUpStart) % RAMP_UP_INTERVAL);
+		}
+		running++;
+		if (running < getAllowedConcurrency(System.nanoTime()) || rampUpStart != 0) {
+			notify(); // let next waiting thread enter too (or wait for next ramp-up step)
+		}
+	}
+
+	/** Must be called after network loading is finished by thread which {@linkplain #enter() entered} the gate */
+	synchronized void exit() {
+		running--;
+		notify();
+	}
+
+	private int getAllowedConcurrency(long now) {
+		if (throttled) return throttledConcurrency;
+		if (rampUpStart == 0) return Integer.MAX_VALUE;
+
+		long steps = TimeUnit.NANOSECONDS.toMillis(now - rampUpStart) / RAMP_UP_INTERVAL;
+		long allowed = throttledConcurrency + 1 + steps;
+		if (allowed >= maxConcurrency) {
+			rampUpStart = 0; // ramp-up is finished
+			return Integer.MAX_VALUE;
+		}
+		return (int) allowed;
+	}
+}
@@ -0,0 +1,61 @@
+/*******************************************************************************
+ * Copyright 2013 Sergey Tarasevich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.nostra13.universalimageloader.core.assist;
+
+import android.graphics.Bitmap;
+
+/**
+ * Listener for loading of images batch.<br />
+ * Events are fired on thread of {@linkplain com.nostra13.universalimageloader.core.DisplayImageOptions#getHandler()
+ * handler} (UI thread by default).
+ * 
+ * @author Sergey Tarasevich (nostra13[at]gmail[dot]com)
+ * @since 1.8.5
+ * @see com.nostra13.universalimageloader.core.ImageLoader#loadImages(java.util.Collection, ImageSize,
+ *      com.nostra13.universalimageloader.core.DisplayImageOptions, int, BatchLoadingListener)
+ */
+public interface BatchLoadingListener {
+
+	/**
+	 * Is called when image of batch is loaded successfully
+	 * 
+	 * @param imageUri Loaded image URI
+	 * @param loadedImage Bitmap of loaded and decoded image
+	 * @param finishedCount Count of finished (loaded or failed) images of batch
+	 * @param totalCount Count of images in batch (without duplicates)
+	 */
+	void onImageLoaded(String imageUri, Bitmap loadedImage, int finishedCount, int totalCount);
+
+	/**
+	 * Is called when an error was occurred during loading of batch image
+	 * 
+	 * @param imageUri Loading image URI
+	 * @param failReason {@linkplain FailReason The reason} why image loading was failed
+	 * @param finishedCount Count of finished (loaded or failed) images of batch
+	 * @param totalCount Count of images in batch (without duplicates)
+	 */
+	void onImageFailed(String imageUri, FailReason failReason, int finishedCount, int totalCount);
+
+	/**
+	 * Is called once when all images of batch are finished or when batch was {@linkplain LoadingBatch#cancel()
+	 * cancelled} and its running tasks are finished
+	 * 
+	 * @param loadedCount Count of successfully loaded images
+	 * @param failedCount Count of failed images
+	 * @param cancelled Whether batch was cancelled (so some images weren't loaded)
+	 */
+	void onBatchComplete(int loadedCount, int failedCount, boolean cancelled);
+}
@@ -0,0 +1,192 @@
+/*******************************************************************************
+ * Copyright 2013 Sergey Tarasevich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.nostra13.universalimageloader.core.assist;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Snapshot of {@link com.nostra13.universalimageloader.core.ImageLoader ImageLoader} engine state: queue depth and
+ * thread utilization of task executors, count of rejected tasks and so on. Helps to tune pool sizes and to detect if
+ * image loading is the bottleneck.
+ * 
+ * @author Sergey Tarasevich (nostra13[at]gmail[dot]com)
+ * @since 1.8.5
+ * @see com.nostra13.universalimageloader.core.ImageLoader#getEngineStats()
+ */
+public final class EngineStats {
+
+	/** Value of gauge which can't be got (e.g. for custom executor which isn't {@link ThreadPoolExecutor}) */
+	public static final int UNKNOWN = -1;
+
+	private final ExecutorStats networkExecutorStats;
+	private final ExecutorStats cachedImagesExecutorStats;
+	private final ExecutorStats localImagesExecutorStats;
+	private final ExecutorStats appResourcesExecutorStats;
+	private final ExecutorStats prefetchExecutorStats;
+	private final ExecutorStats syncLoadingExecutorStats;
+	private final ExecutorStats taskDistributorStats;
+	private final int waitingHostLimitedTasks;
+	private final long rejectedTasks;
+
+	public EngineStats(ExecutorStats networkExecutorStats, ExecutorStats cachedImagesExecutorStats, ExecutorStats localImagesExecutorStats,
+			ExecutorStats appResourcesExecutorStats, ExecutorStats prefetchExecutorStats, ExecutorStats syncLoadingExecutorStats,
+			ExecutorStats taskDistributorStats, int waitingHostLimitedTasks, long rejectedTasks) {
+		this.networkExecutorStats = networkExecutorStats;
+		this.cachedImagesExecutorStats = cachedImagesExecutorStats;
+		this.localImagesExecutorStats = localImagesExecutorStats;
+		this.appResourcesExecutorStats = appResourcesExecutorStats;
+		this.prefetchExecutorStats = prefetchExecutorStats;
+		this.syncLoadingExecutorStats = syncLoadingExecutorStats;
+		this.taskDistributorStats = taskDistributorStats;
+		this.waitingHostLimitedTasks = waitingHostLimitedTasks;
+		this.rejectedTasks = rejectedTasks;
+	}
+
+	/** Returns stats of executor for network images (which aren't cached on disc) */
+	public ExecutorStats getNetworkExecutorStats() {
+		return networkExecutorStats;
+	}
+
+	/** Returns stats of executor for images cached on disc */
+	public ExecutorStats getCachedImagesExecutorStats() {
+		return cachedImagesExecutorStats;
+	}
+
+	/** Returns stats of executor for local images (file://, content://) */
+	public ExecutorStats getLocalImagesExecutorStats() {
+		return localImagesExecutorStats;
+	}
+
+	/** Returns stats of executor for app resources (assets://, drawable://) */
+	public ExecutorStats getAppResourcesExecutorStats() {
+		return appResourcesExecutorStats;
+	}
+
+	/** Returns stats of executor for prefetching of images */
+	public ExecutorStats getPrefetchExecutorStats() {
+		return prefetchExecutorStats;
+	}
+
+	/**
+	 * Returns stats of executor for synchronous loading of cached images (see
+	 * {@link com.nostra13.universalimageloader.core.DisplayImageOptions.Builder#loadCachedImagesSynchronously(int)
+	 * loadCachedImagesSynchronously})
+	 */
+	public ExecutorStats getSyncLoadingExecutorStats() {
+		return syncLoadingExecutorStats;
+	}
+
+	/** Returns stats of task distributor which dispatches tasks between executors */
+	public ExecutorStats getTaskDistributorStats() {
+		return taskDistributorStats;
+	}
+
+	/**
+	 * Returns count of network tasks which wait for free slot of their host (see
+	 * {@link com.nostra13.universalimageloader.core.ImageLoaderConfiguration.Builder#maxTasksPerHost(int)
+	 * maxTasksPerHost}). These tasks aren't counted in queue of network executor.
+	 */
+	public int getWaitingHostLimitedTasks() {
+		return waitingHostLimitedTasks;
+	}
+
+	/** Returns count of tasks rejected by executors since ImageLoader initialization */
+	public long getRejectedTasks() {
+		return rejectedTasks;
+	}
+
+	@Override
+	public String toString() {
+		return "EngineStats[network=" + networkExecutorStats + ", cached=" + cachedImagesExecutorStats + ", local=" + localImagesExecutorStats
+				+ ", appResources=" + appResourcesExecutorStats + ", prefetch=" + prefetchExecutorStats + ", syncLoading=" + syncLoadingExecutorStats + ", distributor=" + taskDistributorStats + ", waitingHostLimited="
+				+ waitingHostLimitedTasks + ", rejected=" + rejectedTasks + "]";
+	}
+
+	/**
+	 * Gauges of one executor. Every gauge is {@link EngineStats#UNKNOWN} if executor isn't {@link ThreadPoolExecutor}.
+	 * All gauges are zero if executor isn't created yet.
+	 */
+	public static final class ExecutorStats {
+
+		private static final ExecutorStats NOT_CREATED = new ExecutorStats(0, 0, 0, 0, 0);
+		private static final ExecutorStats UNKNOWN_STATS = new ExecutorStats(UNKNOWN, UNKNOWN, UNKNOWN, UNKNOWN, UNKNOWN);
+
+		private final int queuedTasks;
+		private final int activeThreads;
+		private final int poolSize;
+		private final int maxPoolSize;
+		private final long completedTasks;
+
+		public ExecutorStats(int queuedTasks, int activeThreads, int poolSize, int maxPoolSize, long completedTasks) {
+			this.queuedTasks = queuedTasks;
+			this.activeThreads = activeThreads;
+			this.poolSize = poolSize;
+			this.maxPoolSize = maxPoolSize;
+			this.completedTasks = completedTasks;
+		}
+
+		/** Takes snapshot of executor gauges. Executor can be null (if it isn't created yet). */
+		public static ExecutorStats of(Executor executor) {
+			if (executor == null) return NOT_CREATED;
+			if (!(executor instanceof ThreadPoolExecutor)) return UNKNOWN_STATS;
+
+			ThreadPoolExecutor pool = (ThreadPoolExecutor) executor;
+			return new ExecutorStats(pool.getQueue().size(), pool.getActiveCount(), pool.getPoolSize(), pool.getMaximumPoolSize(),
+					pool.getCompletedTaskCount());
+		}
+
+		/** Returns count of tasks waiting in executor queue */
+		public int getQueuedTasks() {
+			return queuedTasks;
+		}
+
+		/** Returns approximate count of threads which execute tasks at the moment */
+		public int getActiveThreads() {
+			return activeThreads;
+		}
+
+		/** Returns current count of threads in pool */
+		public int getPoolSize() {
+			return poolSize;
+		}
+
+		/** Returns max allowed count of threads in pool */
+		public int getMaxPoolSize() {
+			return maxPoolSize;
+		}
+
+		/** Returns approximate count of completed tasks */
+		public long getCompletedTasks() {
+			return completedTasks;
+		}
+
+		/**
+		 * Returns part of busy threads (active threads / max pool size), from 0 to 1; {@link EngineStats#UNKNOWN} - if
+		 * it can't be computed
+		 */
+		public float getUtilization() {
+			if (maxPoolSize <= 0 || activeThreads < 0) return UNKNOWN;
+			return Math.min(1f, (float) activeThreads / maxPoolSize);
+		}
+
+		@Override
+		public String toString() {
+			return "[queued=" + queuedTasks + ", active=" + activeThreads + ", pool=" + poolSize + "/" + maxPoolSize + ", completed="
+					+ completedTasks + "]";
+		}
+	}
+}
@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright 2013 Sergey Tarasevich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.nostra13.universalimageloader.core.assist;
+
+/**
+ * Timings of image loading stages and byte counts collected for one image loading task.<br />
+ * Metrics are collected only if {@link LoadingMetricsListener} is set in configuration.
+ * 
+ * @author Sergey Tarasevich (nostra13[at]gmail[dot]com)
+ * @since 1.8.5
+ * @see LoadingMetricsListener
+ */
+public final class LoadingMetrics {
+
+	/** Stage of image loading */
+	public enum Stage {
+		/** Waiting in executor queue (including waiting for host limit) */
+		QUEUE_WAIT,
+		/** Waiting while ImageLoader is paused (or throttled) */
+		PAUSE_WAIT,
+		/** Waiting while the same image is loaded by another task */
+		LOCK_WAIT,
+		/** Reading of image file from disc cache (time of decoder's own work goes to {@link #DECODE}) */
+		DISC_READ,
+		/**
+		 * Downloading of image from its source and writing it into disc cache (time of decoder's own work goes to
+		 * {@link #DECODE} even if image is decoded while downloading)
+		 */
+		NETWORK_DOWNLOAD,
+		/** Decoding of image without reading of its bytes (includes compressing of image resized for disc cache) */
+		DECODE,
+		/** Pre-processing of image */
+		PRE_PROCESS,
+		/** Putting of image into memory cache */
+		MEMORY_CACHE_PUT,
+		/** Post-processing of image */
+		POST_PROCESS,
+		/** Waiting in UI thread queue before displaying */
+		UI_POST
+	}
+
+	private final String imageUri;
+	private final String memoryCacheKey;
+	private final long[] durations = new long[Stage.values().length];
+	private long downloadedBytes;
+	private long discCacheReadBytes;
+
+	public LoadingMetrics(String imageUri, String memoryCacheKey) {
+		this.imageUri = imageUri;
+		this.memoryCacheKey = memoryCacheKey;
+	}
+
+	public String getImageUri() {
+		return imageUri;
+	}
+
+	public String getMemoryCacheKey() {
+		return memoryCacheKey;
+	}
+
+	/** Returns duration (in nanoseconds) of loading stage; 0 - if stage didn't happen */
+	public long getDuration(Stage stage) {
+		return durations[stage.ordinal()];
+	}
+
+	/** Returns sum of all stage durations (in nanoseconds) */
+	public long getTotalDuration() {
+		long total = 0;
+		for (long duration : durations) {
+			total += duration;
+		}
+		return total;
+	}
+
+	/**
+	 * Returns count of bytes which were downloaded from image source; 0 - if image wasn't downloaded. Bytes are counted
+	 * every time they are read, so image which is decoded right from its source (without disc caching) is counted
+	 * twice if decoder opens image stream twice.
+	 */
+	public long getDownloadedBytes() {
+		return downloadedBytes;
+	}
+
+	/**
+	 * Returns count of bytes read from disc cache (including reading of just downloaded image); 0 - if image wasn't
+	 * read from disc cache
+	 */
+	public long getDiscCacheReadBytes() {
+		return discCacheReadBytes;
+	}
+
+	public void addDuration(Stage stage, long durationNanos) {
+		durations[stage.ordinal()] += durationNanos;
+	}
+
+	public void addDownloadedBytes(long bytes) {
+		downloadedBytes += bytes;
+	}
+
+	public void addDiscCacheReadBytes(long bytes) {
+		discCacheReadBytes += bytes;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder(memoryCacheKey).append(':');
+		for (Stage stage : Stage.values()) {
+			long duration = durations[stage.ordinal()];
+			if (duration > 0) {
+				sb.append(' ').append(stage).append('=').append(duration / 1000).append("us");
+			}
+		}
+		if (downloadedBytes > 0) sb.append(" downloaded=").append(downloadedBytes);
+		if (discCacheReadBytes > 0) sb.append(" discRead=").append(discCacheReadBytes);
+		return sb.toString();
+	}
+}
@@ -0,0 +1,31 @@
+/*******************************************************************************
+ * Copyright 2013 Sergey Tarasevich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.nostra13.universalimageloader.core.assist;
+
+/**
+ * Listener which receives {@linkplain LoadingMetrics timings of image loading stages} for every image loading task
+ * (except displaying of images which were already cached in memory).
+ * 
+ * @author Sergey Tarasevich (nostra13[at]gmail[dot]com)
+ * @since 1.8.5
+ */
+public interface LoadingMetricsListener {
+	/**
+	 * Is called when image loading task is finished (image was displayed, loading failed or was cancelled). Can be
+	 * called on UI thread or on task thread so implementation should be fast and thread-safe.
+	 */
+	void onLoadingMetrics(LoadingMetrics metrics);
+}
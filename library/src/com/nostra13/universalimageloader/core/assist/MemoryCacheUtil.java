@@ -19,9 +19,14 @@ import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 
+import android.content.ComponentCallbacks2;
 import android.graphics.Bitmap;
 
 import com.nostra13.universalimageloader.cache.memory.MemoryCacheAware;
+import com.nostra13.universalimageloader.cache.memory.PeekableMemoryCache;
+import com.nostra13.universalimageloader.cache.memory.ResizableMemoryCache;
+import com.nostra13.universalimageloader.cache.memory.impl.FuzzyKeyMemoryCache;
+import com.nostra13.universalimageloader.cache.memory.impl.LimitedAgeMemoryCache;
 import com.nostra13.universalimageloader.core.ImageLoaderConfiguration;
 
 /**
@@ -48,6 +53,39 @@ public final class MemoryCacheUtil {
 				.append(targetSize.getHeight()).toString();
 	}
 
+	/**
+	 * Returns part of memory cache size (from 0 to 1) which should be kept on memory trim of incoming level:
+	 * <ul>
+	 * <li>1 - for unknown levels</li>
+	 * <li>3/4 - for {@link ComponentCallbacks2#TRIM_MEMORY_RUNNING_MODERATE} and
+	 * {@link ComponentCallbacks2#TRIM_MEMORY_UI_HIDDEN}</li>
+	 * <li>1/2 - for {@link ComponentCallbacks2#TRIM_MEMORY_RUNNING_LOW} and
+	 * {@link ComponentCallbacks2#TRIM_MEMORY_BACKGROUND}</li>
+	 * <li>1/4 - for {@link ComponentCallbacks2#TRIM_MEMORY_RUNNING_CRITICAL} and
+	 * {@link ComponentCallbacks2#TRIM_MEMORY_MODERATE}</li>
+	 * <li>0 - for {@link ComponentCallbacks2#TRIM_MEMORY_COMPLETE} (and higher)</li>
+	 * </ul>
+	 */
+	public static float getTrimRatio(int level) {
+		if (level >= ComponentCallbacks2.TRIM_MEMORY_COMPLETE) {
+			return 0f;
+		} else if (level >= ComponentCallbacks2.TRIM_MEMORY_MODERATE) {
+			return 0.25f;
+		} else if (level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND) {
+			return 0.5f;
+		} else if (level >= ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN) {
+			return 0.75f;
+		} else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL) {
+			return 0.25f;
+		} else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+			return 0.5f;
+		} else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE) {
+			return 0.75f;
+		} else {
+			return 1f;
+		}
+	}
+
 	public static Comparator<String> createFuzzyKeyComparator() {
 		return new Comparator<String>() {
 			@Override
@@ -59,6 +97,38 @@ public final class MemoryCacheUtil {
 		};
 	}
 
+	/**
+	 * Returns cached value without recording of {@linkplain com.nostra13.universalimageloader.cache.CacheStats
+	 * statistics} if memory cache is {@link PeekableMemoryCache}; otherwise returns {@link MemoryCacheAware#get(Object)
+	 * get(key)} result.
+	 */
+	public static <K, V> V peek(MemoryCacheAware<K, V> memoryCache, K key) {
+		if (memoryCache instanceof PeekableMemoryCache) {
+			return ((PeekableMemoryCache<K, V>) memoryCache).peek(key);
+		}
+		return memoryCache.get(key);
+	}
+
+	/**
+	 * Returns memory cache as {@link ResizableMemoryCache}. Cache decorators ({@link FuzzyKeyMemoryCache},
+	 * {@link LimitedAgeMemoryCache}) are unwrapped.
+	 * 
+	 * @return Resizable cache; <b>null</b> - if memory cache (or cache wrapped by decorators) can't be resized
+	 */
+	public static <K, V> ResizableMemoryCache<K, V> getResizableCache(MemoryCacheAware<K, V> memoryCache) {
+		MemoryCacheAware<K, V> cache = memoryCache;
+		while (true) {
+			if (cache instanceof FuzzyKeyMemoryCache) {
+				cache = ((FuzzyKeyMemoryCache<K, V>) cache).getWrappedCache();
+			} else if (cache instanceof LimitedAgeMemoryCache) {
+				cache = ((LimitedAgeMemoryCache<K, V>) cache).getWrappedCache();
+			} else {
+				break;
+			}
+		}
+		return cache instanceof ResizableMemoryCache ? (ResizableMemoryCache<K, V>) cache : null;
+	}
+
 	/**
 	 * Searches all bitmaps in memory cache which are corresponded to incoming URI.<br />
 	 * <b>Note:</b> Memory cache can contain multiple sizes of the same image if only you didn't set
@@ -0,0 +1,222 @@
+/*******************************************************************************
+ * Copyright 2013 Sergey Tarasevich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.nostra13.universalimageloader.core.assist;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+
+import android.os.SystemClock;
+import android.widget.AbsListView;
+import android.widget.AbsListView.OnScrollListener;
+import android.widget.GridView;
+import android.widget.ListView;
+
+import com.nostra13.universalimageloader.core.ImageLoader;
+
+/**
+ * Listener-helper for {@linkplain AbsListView list views} ({@link ListView}, {@link GridView}) which
+ * {@linkplain ImageLoader#prefetch(java.util.Collection, ImageSize, PrefetchLevel) prefetches} images of items which
+ * will become visible soon. Count of prefetched items depends on scroll direction and velocity: one screen of items
+ * ahead for slow scrolling and more items (up to defined max count) for fast scrolling. Prefetching of items which fall
+ * behind prefetch window (or are left after scroll direction change) is cancelled, so they don't occupy threads.<br />
+ * Set it to your list view's {@link AbsListView#setOnScrollListener(OnScrollListener) setOnScrollListener(...)}.<br />
+ * This listener can wrap your custom {@linkplain OnScrollListener listener} (e.g. {@link PauseOnScrollListener}).
+ * 
+ * @author Sergey Tarasevich (nostra13[at]gmail[dot]com)
+ * @since 1.8.5
+ */
+public class PrefetchOnScrollListener implements OnScrollListener {
+
+	/** Provides image URIs of list items (usually it's implemented by adapter) */
+	public interface ImageUriProvider {
+		/** Returns image URI of item at position; or null if item has no image */
+		String getImageUri(int position);
+	}
+
+	/** Items which will become visible during this time (at current velocity) are prefetched */
+	private static final long LOOKAHEAD_TIME = 500; // ms
+
+	private final ImageLoader imageLoader;
+	private final ImageUriProvider uriProvider;
+	private final ImageSize targetSize;
+	private final PrefetchLevel prefetchLevel;
+	private final int maxPrefetchCount;
+	private final OnScrollListener externalListener;
+
+	private int lastFirstVisibleItem = -1;
+	private long lastScrollTime;
+	private boolean scrollingDown = true;
+
+	/** Prefetched ranges of items, ordered by scroll direction */
+	private final LinkedList<PrefetchRange> ranges = new LinkedList<PrefetchRange>();
+	/** Union of prefetched ranges [windowStart, windowEnd) */
+	private int windowStart;
+	private int windowEnd;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param imageLoader {@linkplain ImageLoader} instance for prefetching
+	 * @param uriProvider Provider of image URIs of list items
+	 * @param targetSize Size of views which display images of list items (see
+	 *            {@link ImageLoader#prefetch(String, ImageSize, PrefetchLevel, LoadingBatch)})
+	 * @param prefetchLevel Defines which caches are warmed
+	 * @param maxPrefetchCount Max count of items which can be prefetched ahead
+	 */
+	public PrefetchOnScrollListener(ImageLoader imageLoader, ImageUriProvider uriProvider, ImageSize targetSize, PrefetchLevel prefetchLevel,
+			int maxPrefetchCount) {
+		this(imageLoader, uriProvider, targetSize, prefetchLevel, maxPrefetchCount, null);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param imageLoader {@linkplain ImageLoader} instance for prefetching
+	 * @param uriProvider Provider of image URIs of list items
+	 * @param targetSize Size of views which display images of list items (see
+	 *            {@link ImageLoader#prefetch(String, ImageSize, PrefetchLevel, LoadingBatch)})
+	 * @param prefetchLevel Defines which caches are warmed
+	 * @param maxPrefetchCount Max count of items which can be prefetched ahead
+	 * @param customListener Your custom {@link OnScrollListener} for {@linkplain AbsListView list view} which also will
+	 *            be get scroll events
+	 */
+	public PrefetchOnScrollListener(ImageLoader imageLoader, ImageUriProvider uriProvider, ImageSize targetSize, PrefetchLevel prefetchLevel,
+			int maxPrefetchCount, OnScrollListener customListener) {
+		this.imageLoader = imageLoader;
+		this.uriProvider = uriProvider;
+		this.targetSize = targetSize;
+		this.prefetchLevel = prefetchLevel;
+		this.maxPrefetchCount = maxPrefetchCount;
+		externalListener = customListener;
+	}
+
+	@Override
+	public void onScrollStateChanged(AbsListView view, int scrollState) {
+		if (externalListener != null) {
+			externalListener.onScrollStateChanged(view, scrollState);
+		}
+	}
+
+	@Override
+	public void onScroll(AbsListView view, int firstVisibleItem, int visibleItemCount, int totalItemCount) {
+		if (firstVisibleItem != lastFirstVisibleItem && visibleItemCount > 0) {
+			long now = SystemClock.uptimeMillis();
+			int prefetchCount = visibleItemCount;
+			if (lastFirstVisibleItem >= 0) {
+				int scrolledItems = Math.abs(firstVisibleItem - lastFirstVisibleItem);
+				long duration = Math.max(1, now - lastScrollTime);
+				prefetchCount += scrolledItems * LOOKAHEAD_TIME / duration;
+			}
+			prefetchCount = Math.min(prefetchCount, maxPrefetchCount);
+
+			boolean directionChanged = lastFirstVisibleItem >= 0 && (firstVisibleItem > lastFirstVisibleItem) != scrollingDown;
+			if (directionChanged) {
+				scrollingDown = !scrollingDown;
+				cancel();
+			}
+			lastFirstVisibleItem = firstVisibleItem;
+			lastScrollTime = now;
+
+			if (scrollingDown) {
+				int start = firstVisibleItem + visibleItemCount;
+				prefetch(start, Math.min(start + prefetchCount, totalItemCount));
+			} else {
+				prefetch(Math.max(0, firstVisibleItem - prefetchCount), firstVisibleItem);
+			}
+		}
+		if (externalListener != null) {
+			externalListener.onScroll(view, firstVisibleItem, visibleItemCount, totalItemCount);
+		}
+	}
+
+	/** Cancels prefetching of list items */
+	public void cancel() {
+		for (PrefetchRange range : ranges) {
+			range.batch.cancel();
+		}
+		ranges.clear();
+		windowStart = windowEnd = 0;
+	}
+
+	/** Prefetches images of items [start, end) which aren't prefetched yet, cancels ranges out of [start, end) */
+	private void prefetch(int start, int end) {
+		if (start >= end) return;
+		if (start >= windowEnd || end <= windowStart) {
+			cancel();
+			windowStart = windowEnd = scrollingDown ? start : end;
+		} else {
+			cancelRangesOutOf(start, end);
+		}
+
+		if (scrollingDown) {
+			if (end > windowEnd) {
+				ranges.add(submit(Math.max(start, windowEnd), end));
+				windowEnd = end;
+			}
+		} else {
+			if (start < windowStart) {
+				ranges.add(submit(start, Math.min(end, windowStart)));
+				windowStart = start;
+			}
+		}
+	}
+
+	private void cancelRangesOutOf(int start, int end) {
+		Iterator<PrefetchRange> it = ranges.iterator();
+		while (it.hasNext()) {
+			PrefetchRange range = it.next();
+			if (range.end <= start || range.start >= end) {
+				range.batch.cancel();
+				it.remove();
+			}
+		}
+		if (ranges.isEmpty()) {
+			windowStart = windowEnd = scrollingDown ? start : end;
+		} else if (scrollingDown) {
+			windowStart = ranges.getFirst().start;
+			windowEnd = ranges.getLast().end;
+		} else {
+			windowStart = ranges.getLast().start;
+			windowEnd = ranges.getFirst().end;
+		}
+	}
+
+	private PrefetchRange submit(int start, int end) {
+		List<String> uris = new ArrayList<String>(end - start);
+		for (int position = start; position < end; position++) {
+			String uri = uriProvider.getImageUri(position);
+			if (uri != null) {
+				uris.add(uri);
+			}
+		}
+		return new PrefetchRange(start, end, imageLoader.prefetch(uris, targetSize, prefetchLevel));
+	}
+
+	/** Range of items [start, end) which are prefetched by one batch */
+	private static class PrefetchRange {
+		final int start;
+		final int end;
+		final LoadingBatch batch;
+
+		PrefetchRange(int start, int end, LoadingBatch batch) {
+			this.start = start;
+			this.end = end;
+			this.batch = batch;
+		}
+	}
+}
@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Copyright 2013 Sergey Tarasevich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.nostra13.universalimageloader.core.assist;
+
+import android.widget.AbsListView;
+import android.widget.AbsListView.OnScrollListener;
+import android.widget.GridView;
+import android.widget.ListView;
+
+import com.nostra13.universalimageloader.core.ImageLoader;
+
+/**
+ * Listener-helper for {@linkplain AbsListView list views} ({@link ListView}, {@link GridView}) which
+ * {@linkplain ImageLoader#throttle(int) throttles ImageLoader} while list view is scrolling. Unlike
+ * {@link PauseOnScrollListener} it only limits network loadings, so images cached in memory and on disc are still
+ * displayed during scrolling. Network loadings are ramped up gradually when scrolling stops.<br />
+ * Set it to your list view's {@link AbsListView#setOnScrollListener(OnScrollListener) setOnScrollListener(...)}.<br />
+ * This listener can wrap your custom {@linkplain OnScrollListener listener}.
+ * 
+ * @author Sergey Tarasevich (nostra13[at]gmail[dot]com)
+ * @since 1.8.5
+ */
+public class ThrottleOnScrollListener implements OnScrollListener {
+
+	private final ImageLoader imageLoader;
+
+	private final int maxNetworkTasksOnScroll;
+	private final int maxNetworkTasksOnFling;
+	private final OnScrollListener externalListener;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param imageLoader {@linkplain ImageLoader} instance for controlling
+	 * @param maxNetworkTasksOnScroll Max count of concurrent network loadings during touch scrolling (0 - defer all)
+	 * @param maxNetworkTasksOnFling Max count of concurrent network loadings during fling (0 - defer all)
+	 */
+	public ThrottleOnScrollListener(ImageLoader imageLoader, int maxNetworkTasksOnScroll, int maxNetworkTasksOnFling) {
+		this(imageLoader, maxNetworkTasksOnScroll, maxNetworkTasksOnFling, null);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param imageLoader {@linkplain ImageLoader} instance for controlling
+	 * @param maxNetworkTasksOnScroll Max count of concurrent network loadings during touch scrolling (0 - defer all)
+	 * @param maxNetworkTasksOnFling Max count of concurrent network loadings during fling (0 - defer all)
+	 * @param customListener Your custom {@link OnScrollListener} for {@linkplain AbsListView list view} which also will
+	 *            be get scroll events
+	 */
+	public ThrottleOnScrollListener(ImageLoader imageLoader, int maxNetworkTasksOnScroll, int maxNetworkTasksOnFling,
+			OnScrollListener customListener) {
+		this.imageLoader = imageLoader;
+		this.maxNetworkTasksOnScroll = maxNetworkTasksOnScroll;
+		this.maxNetworkTasksOnFling = maxNetworkTasksOnFling;
+		externalListener = customListener;
+	}
+
+	@Override
+	public void onScrollStateChanged(AbsListView view, int scrollState) {
+		switch (scrollState) {
+			case OnScrollListener.SCROLL_STATE_IDLE:
+				imageLoader.unthrottle();
+				break;
+			case OnScrollListener.SCROLL_STATE_TOUCH_SCROLL:
+				imageLoader.throttle(maxNetworkTasksOnScroll);
+				break;
+			case OnScrollListener.SCROLL_STATE_FLING:
+				imageLoader.throttle(maxNetworkTasksOnFling);
+				break;
+		}
+		if (externalListener != null) {
+			externalListener.onScrollStateChanged(view, scrollState);
+		}
+	}
+
+	@Override
+	public void onScroll(AbsListView view, int firstVisibleItem, int visibleItemCount, int totalItemCount) {
+		if (externalListener != null) {
+			externalListener.onScroll(view, firstVisibleItem, visibleItemCount, totalItemCount);
+		}
+	}
+}
@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright 2013 Sergey Tarasevich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.nostra13.universalimageloader.core.download;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Estimates network bandwidth using timings of real image downloads. Estimation is an exponential moving average of
+ * measured download speeds.<br />
+ * Class is thread-safe.
+ * 
+ * @author Sergey Tarasevich (nostra13[at]gmail[dot]com)
+ * @since 1.8.5
+ * @see BaseImageDownloader
+ * @see ImageUriResolver
+ */
+public class BandwidthEstimator {
+
+	/** Bandwidth value which means that there is no measured downloads yet */
+	public static final long UNKNOWN = -1;
+
+	/** {@value} */
+	protected static final int MIN_SAMPLE_SIZE = 8 * 1024; // 8 Kb
+	/** {@value} */
+	protected static final float SMOOTHING_FACTOR = 0.3f;
+
+	private long bandwidth = UNKNOWN;
+	private int sampleCount;
+
+	/**
+	 * Adds download sample to estimation. Samples less than {@value #MIN_SAMPLE_SIZE} bytes are ignored because they
+	 * are mostly affected by latency than by bandwidth.
+	 * 
+	 * @param bytes Count of downloaded bytes
+	 * @param durationNanos Download duration (in nanoseconds)
+	 */
+	public void addSample(long bytes, long durationNanos) {
+		if (bytes < MIN_SAMPLE_SIZE || durationNanos <= 0) return;
+
+		long sample = bytes * 1000000000L / durationNanos;
+		synchronized (this) {
+			if (bandwidth == UNKNOWN) {
+				bandwidth = sample;
+			} else {
+				bandwidth = (long) (SMOOTHING_FACTOR * sample + (1 - SMOOTHING_FACTOR) * bandwidth);
+			}
+			sampleCount++;
+		}
+	}
+
+	/** Returns estimated bandwidth (in bytes per second) or {@link #UNKNOWN} if there were no measured downloads yet */
+	public synchronized long getBandwidth() {
+		return bandwidth;
+	}
+
+	/** Returns count of samples considered in estimation */
+	public synchronized int getSampleCount() {
+		return sampleCount;
+	}
+
+	/** Resets estimation. Should be called if network connection was changed. */
+	public synchronized void reset() {
+		bandwidth = UNKNOWN;
+		sampleCount = 0;
+	}
+
+	/**
+	 * Wraps network stream. Returned stream measures download speed and adds it to estimation when stream is read
+	 * to the end or closed. Only time spent inside reading from network stream is measured, so processing of read
+	 * data (e.g. decoding) doesn't affect estimation.
+	 */
+	public InputStream wrap(InputStream networkStream) {
+		return new MeasuredInputStream(networkStream);
+	}
+
+	private class MeasuredInputStream extends FilterInputStream {
+
+		private long readBytes;
+		private long readTime;
+		private boolean measured;
+
+		MeasuredInputStream(InputStream in) {
+			super(in);
+		}
+
+		@Override
+		public int read() throws IOException {
+			long start = System.nanoTime();
+			int b = super.read();
+			readTime += System.nanoTime() - start;
+			if (b == -1) {
+				measure();
+			} else {
+				readBytes++;
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] buffer, int offset, int count) throws IOException {
+			long start = System.nanoTime();
+			int read = super.read(buffer, offset, count);
+			readTime += System.nanoTime() - start;
+			if (read == -1) {
+				measure();
+			} else {
+				readBytes += read;
+			}
+			return read;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			long start = System.nanoTime();
+			long skipped = super.skip(n);
+			readTime += System.nanoTime() - start;
+			readBytes += skipped;
+			return skipped;
+		}
+
+		@Override
+		public boolean markSupported() {
+			return false;
+		}
+
+		@Override
+		public void close() throws IOException {
+			measure();
+			super.close();
+		}
+
+		private void measure() {
+			if (!measured) {
+				measured = true;
+				addSample(readBytes, readTime);
+			}
+		}
+	}
+}
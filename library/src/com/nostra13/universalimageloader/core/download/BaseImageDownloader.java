@@ -63,17 +63,26 @@ public class BaseImageDownloader implements ImageDownloader {
 	protected final Context context;
 	protected final int connectTimeout;
 	protected final int readTimeout;
+	protected final BandwidthEstimator bandwidthEstimator;
 
 	public BaseImageDownloader(Context context) {
-		this.context = context.getApplicationContext();
-		this.connectTimeout = DEFAULT_HTTP_CONNECT_TIMEOUT;
-		this.readTimeout = DEFAULT_HTTP_READ_TIMEOUT;
+		this(context, DEFAULT_HTTP_CONNECT_TIMEOUT, DEFAULT_HTTP_READ_TIMEOUT);
 	}
 
 	public BaseImageDownloader(Context context, int connectTimeout, int readTimeout) {
+		this(context, connectTimeout, readTimeout, null);
+	}
+
+	/**
+	 * @param bandwidthEstimator Estimator which will be fed by timings of network downloads. Pass the same estimator
+	 *            to {@link com.nostra13.universalimageloader.core.ImageLoaderConfiguration.Builder#bandwidthEstimator(BandwidthEstimator)
+	 *            configuration} to make measurements available for {@link ImageUriResolver}. Can be null.
+	 */
+	public BaseImageDownloader(Context context, int connectTimeout, int readTimeout, BandwidthEstimator bandwidthEstimator) {
 		this.context = context.getApplicationContext();
 		this.connectTimeout = connectTimeout;
 		this.readTimeout = readTimeout;
+		this.bandwidthEstimator = bandwidthEstimator;
 	}
 
 	@Override
@@ -81,7 +90,8 @@ public class BaseImageDownloader implements ImageDownloader {
 		switch (Scheme.ofUri(imageUri)) {
 			case HTTP:
 			case HTTPS:
-				return getStreamFromNetwork(imageUri, extra);
+				InputStream networkStream = getStreamFromNetwork(imageUri, extra);
+				return bandwidthEstimator == null ? networkStream : bandwidthEstimator.wrap(networkStream);
 			case FILE:
 				return getStreamFromFile(imageUri, extra);
 			case CONTENT:
@@ -15,6 +15,7 @@
  *******************************************************************************/
 package com.nostra13.universalimageloader.core.download;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 
@@ -35,10 +36,22 @@ import android.content.Context;
 public class HttpClientImageDownloader extends BaseImageDownloader {
 
 	private HttpClient httpClient;
+	private final boolean streaming;
 
 	public HttpClientImageDownloader(Context context, HttpClient httpClient) {
+		this(context, httpClient, false);
+	}
+
+	/**
+	 * @param streaming If <b>true</b> then response content is returned as is without buffering whole response in
+	 *            memory. Connection is released when returned stream is closed (response is aborted if stream wasn't
+	 *            read to the end).<br />
+	 *            If <b>false</b> then response is buffered in memory (by {@link BufferedHttpEntity}) before returning.
+	 */
+	public HttpClientImageDownloader(Context context, HttpClient httpClient, boolean streaming) {
 		super(context);
 		this.httpClient = httpClient;
+		this.streaming = streaming;
 	}
 
 	@Override
@@ -46,7 +59,59 @@ public class HttpClientImageDownloader extends BaseImageDownloader {
 		HttpGet httpRequest = new HttpGet(imageUri);
 		HttpResponse response = httpClient.execute(httpRequest);
 		HttpEntity entity = response.getEntity();
-		BufferedHttpEntity bufHttpEntity = new BufferedHttpEntity(entity);
-		return bufHttpEntity.getContent();
+		if (streaming) {
+			return new EntityInputStream(httpRequest, entity);
+		} else {
+			BufferedHttpEntity bufHttpEntity = new BufferedHttpEntity(entity);
+			return bufHttpEntity.getContent();
+		}
+	}
+
+	/**
+	 * Stream of response content. Releases connection on closing: consumes rest of entity if stream was read to the
+	 * end, aborts request otherwise (so connection isn't blocked by reading of unneeded content).
+	 */
+	private static class EntityInputStream extends FilterInputStream {
+
+		private final HttpGet request;
+		private final HttpEntity entity;
+		private boolean eofReached;
+		private boolean released;
+
+		EntityInputStream(HttpGet request, HttpEntity entity) throws IOException {
+			super(entity.getContent());
+			this.request = request;
+			this.entity = entity;
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = super.read();
+			if (b == -1) eofReached = true;
+			return b;
+		}
+
+		@Override
+		public int read(byte[] buffer, int offset, int count) throws IOException {
+			int read = super.read(buffer, offset, count);
+			if (read == -1) eofReached = true;
+			return read;
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (released) return;
+			released = true;
+
+			if (eofReached) {
+				try {
+					entity.consumeContent();
+				} finally {
+					super.close();
+				}
+			} else {
+				request.abort();
+			}
+		}
 	}
 }
@@ -0,0 +1,41 @@
+/*******************************************************************************
+ * Copyright 2013 Sergey Tarasevich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.nostra13.universalimageloader.core.download;
+
+import com.nostra13.universalimageloader.core.assist.ImageSize;
+
+/**
+ * Defines which URI should be used for downloading of network image. It allows to download image variant of lower
+ * resolution on slow networks.<br />
+ * Implementations have to be thread-safe.
+ * 
+ * @author Sergey Tarasevich (nostra13[at]gmail[dot]com)
+ * @since 1.8.5
+ * @see BandwidthEstimator
+ */
+public interface ImageUriResolver {
+	/**
+	 * Returns URI which will be used for image downloading.<br />
+	 * <b>NOTE:</b> Image is cached on disc by original URI. So if lower resolution variant was downloaded then it will
+	 * be used until it's removed from disc cache.
+	 * 
+	 * @param imageUri Original image URI (i.e. "http://site.com/image.png")
+	 * @param targetSize Target size of image
+	 * @param bandwidth Estimated network bandwidth (in bytes per second) or {@link BandwidthEstimator#UNKNOWN}
+	 * @return Image URI for downloading; incoming <b>imageUri</b> if original image should be downloaded
+	 */
+	String resolve(String imageUri, ImageSize targetSize, long bandwidth);
+}
@@ -16,6 +16,9 @@
 package com.nostra13.universalimageloader.utils;
 
 import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -44,6 +47,30 @@ public final class IoUtils {
 		}
 	}
 
+	/** Reads whole file into byte array (file length must fit into array) */
+	public static byte[] readFile(File file) throws IOException {
+		byte[] bytes = new byte[(int) file.length()];
+		readFile(file, bytes, bytes.length);
+		return bytes;
+	}
+
+	/** Reads first <b>length</b> bytes of file into beginning of incoming buffer */
+	public static void readFile(File file, byte[] buffer, int length) throws IOException {
+		InputStream is = new FileInputStream(file);
+		try {
+			int offset = 0;
+			while (offset < length) {
+				int count = is.read(buffer, offset, length - offset);
+				if (count == -1) {
+					throw new EOFException();
+				}
+				offset += count;
+			}
+		} finally {
+			closeSilently(is);
+		}
+	}
+
 	public static void closeSilently(Closeable closeable) {
 		try {
 			closeable.close();
@@ -0,0 +1,39 @@
+package com.nostra13.universalimageloader.cache;
+
+import org.fest.assertions.api.Assertions;
+import org.junit.Test;
+
+public class CacheStatsTest {
+
+	@Test
+	public void testEmptyStats() throws Exception {
+		CacheStats stats = new CacheStats();
+		Assertions.assertThat(stats.getHitRate()).isEqualTo(1.0);
+		Assertions.assertThat(stats.getAverageLoadTime()).isEqualTo(0);
+		Assertions.assertThat(stats.getCurrentSize()).isEqualTo(CacheStats.UNKNOWN_SIZE);
+	}
+
+	@Test
+	public void testCounters() throws Exception {
+		CacheStats stats = new CacheStats();
+		stats.recordHit();
+		stats.recordHit();
+		stats.recordHit();
+		stats.recordMiss();
+		stats.recordEviction(100);
+		stats.recordEviction(50);
+		stats.recordLoad(1000);
+		stats.recordLoad(3000);
+		stats.setCurrentSize(500);
+
+		Assertions.assertThat(stats.getHitRate()).isEqualTo(0.75);
+		Assertions.assertThat(stats.getEvictionCount()).isEqualTo(2);
+		Assertions.assertThat(stats.getEvictedSize()).isEqualTo(150);
+		Assertions.assertThat(stats.getAverageLoadTime()).isEqualTo(2000);
+
+		stats.reset();
+		Assertions.assertThat(stats.getHitCount()).isEqualTo(0);
+		Assertions.assertThat(stats.getEvictedSize()).isEqualTo(0);
+		Assertions.assertThat(stats.getCurrentSize()).isEqualTo(500);
+	}
+}
@@ -0,0 +1,148 @@
+package com.nostra13.universalimageloader.cache.disc;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.fest.assertions.api.Assertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.nostra13.universalimageloader.cache.disc.DiscCacheImporter.BaseUriResolver;
+import com.nostra13.universalimageloader.cache.disc.DiscCacheImporter.UriResolver;
+import com.nostra13.universalimageloader.cache.disc.impl.UnlimitedDiscCache;
+import com.nostra13.universalimageloader.utils.IoUtils;
+
+public class DiscCacheImporterTest {
+
+	private static final String BASE_URI = "http://site.com/";
+
+	private File cacheDir;
+	private DiscCacheAware discCache;
+
+	@Before
+	public void setUp() throws IOException {
+		cacheDir = File.createTempFile("uil-import", "");
+		cacheDir.delete();
+		cacheDir.mkdirs();
+		discCache = new UnlimitedDiscCache(cacheDir);
+	}
+
+	@After
+	public void tearDown() {
+		discCache.clear();
+		cacheDir.delete();
+	}
+
+	@Test
+	public void testImportZip() throws IOException {
+		byte[] image1 = createContent(1000);
+		byte[] image2 = createContent(10);
+		ByteArrayOutputStream archive = new ByteArrayOutputStream();
+		ZipOutputStream zos = new ZipOutputStream(archive);
+		zos.putNextEntry(new ZipEntry("images/"));
+		zos.putNextEntry(new ZipEntry("images/1.jpg"));
+		zos.write(image1);
+		zos.putNextEntry(new ZipEntry("images/2.jpg"));
+		zos.write(image2);
+		zos.close();
+
+		int count = new DiscCacheImporter(discCache, new BaseUriResolver(BASE_URI)).importZip(new ByteArrayInputStream(archive.toByteArray()));
+
+		Assertions.assertThat(count).isEqualTo(2);
+		assertCached(BASE_URI + "images/1.jpg", image1);
+		assertCached(BASE_URI + "images/2.jpg", image2);
+		Assertions.assertThat(cacheDir.list()).hasSize(2);
+	}
+
+	@Test
+	public void testImportTar() throws IOException {
+		byte[] image1 = createContent(512);
+		byte[] image2 = createContent(700);
+		String longName = createLongName(150) + ".png";
+		ByteArrayOutputStream archive = new ByteArrayOutputStream();
+		writeTarEntry(archive, "dir/", '5', new byte[0]);
+		writeTarEntry(archive, "1.png", '0', image1);
+		writeTarEntry(archive, "././@LongLink", 'L', (longName + "\0").getBytes("UTF-8"));
+		writeTarEntry(archive, longName.substring(0, 100), '0', image2);
+		archive.write(new byte[1024]);
+
+		int count = new DiscCacheImporter(discCache, new BaseUriResolver(BASE_URI)).importTar(new ByteArrayInputStream(archive.toByteArray()));
+
+		Assertions.assertThat(count).isEqualTo(2);
+		assertCached(BASE_URI + "1.png", image1);
+		assertCached(BASE_URI + longName, image2);
+	}
+
+	@Test
+	public void testExistingImagesAreSkippedOrOverwritten() throws IOException {
+		byte[] oldImage = createContent(20);
+		byte[] newImage = createContent(30);
+		ByteArrayOutputStream archive = new ByteArrayOutputStream();
+		writeTarEntry(archive, "1.png", '0', newImage);
+		writeTarEntry(archive, "2.png", '0', newImage);
+
+		final String skippedName = "2.png";
+		UriResolver resolver = new BaseUriResolver(BASE_URI) {
+			@Override
+			public String getImageUri(String entryName) {
+				return skippedName.equals(entryName) ? null : super.getImageUri(entryName);
+			}
+		};
+
+		importTar(BASE_URI + "1.png", oldImage);
+		int count = new DiscCacheImporter(discCache, resolver).importTar(new ByteArrayInputStream(archive.toByteArray()));
+		Assertions.assertThat(count).isEqualTo(0);
+		assertCached(BASE_URI + "1.png", oldImage);
+
+		count = new DiscCacheImporter(discCache, resolver).overwrite().importTar(new ByteArrayInputStream(archive.toByteArray()));
+		Assertions.assertThat(count).isEqualTo(1);
+		assertCached(BASE_URI + "1.png", newImage);
+		Assertions.assertThat(discCache.get(BASE_URI + skippedName).exists()).isFalse();
+	}
+
+	private void importTar(String uri, byte[] content) throws IOException {
+		ByteArrayOutputStream archive = new ByteArrayOutputStream();
+		writeTarEntry(archive, uri.substring(BASE_URI.length()), '0', content);
+		new DiscCacheImporter(discCache, new BaseUriResolver(BASE_URI)).importTar(new ByteArrayInputStream(archive.toByteArray()));
+	}
+
+	private void assertCached(String uri, byte[] content) throws IOException {
+		File file = discCache.get(uri);
+		Assertions.assertThat(file.exists()).isTrue();
+		Assertions.assertThat(IoUtils.readFile(file)).isEqualTo(content);
+	}
+
+	private static void writeTarEntry(ByteArrayOutputStream archive, String name, char type, byte[] content) throws IOException {
+		byte[] header = new byte[512];
+		byte[] nameBytes = name.getBytes("UTF-8");
+		System.arraycopy(nameBytes, 0, header, 0, Math.min(nameBytes.length, 100));
+		byte[] size = String.format("%011o", content.length).getBytes("US-ASCII");
+		System.arraycopy(size, 0, header, 124, size.length);
+		header[156] = (byte) type;
+		byte[] magic = "ustar\u000000".getBytes("US-ASCII");
+		System.arraycopy(magic, 0, header, 257, magic.length);
+		archive.write(header);
+		archive.write(content);
+		archive.write(new byte[(512 - content.length % 512) % 512]);
+	}
+
+	private static byte[] createContent(int size) {
+		byte[] content = new byte[size];
+		for (int i = 0; i < size; i++) {
+			content[i] = (byte) (i * 31 + size);
+		}
+		return content;
+	}
+
+	private static String createLongName(int length) {
+		char[] name = new char[length];
+		Arrays.fill(name, 'a');
+		return new String(name);
+	}
+}
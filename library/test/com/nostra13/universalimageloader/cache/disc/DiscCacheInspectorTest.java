@@ -0,0 +1,131 @@
+package com.nostra13.universalimageloader.cache.disc;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.fest.assertions.api.Assertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.nostra13.universalimageloader.cache.disc.DiscCacheInspector.Entry;
+import com.nostra13.universalimageloader.cache.disc.DiscCacheInspector.VerificationListener;
+import com.nostra13.universalimageloader.cache.disc.impl.UnlimitedDiscCache;
+
+public class DiscCacheInspectorTest {
+
+	private static final byte[] JPEG_HEADER = bytes(0xFF, 0xD8, 0xFF, 0xE0, 0, 0x10, 'J', 'F', 'I', 'F', 0, 1);
+	private static final byte[] JPEG_END = bytes(0xFF, 0xD9);
+	private static final byte[] PNG_HEADER = bytes(0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A, 0, 0, 0, 0x0D);
+	private static final byte[] PNG_END = bytes(0, 0, 0, 0, 'I', 'E', 'N', 'D', 0xAE, 0x42, 0x60, 0x82);
+	private static final byte[] GIF_HEADER = bytes('G', 'I', 'F', '8', '9', 'a', 1, 0, 1, 0, 0, 0);
+
+	private File cacheDir;
+	private BaseDiscCache discCache;
+
+	@Before
+	public void setUp() throws IOException {
+		cacheDir = File.createTempFile("uil-inspect", "");
+		cacheDir.delete();
+		cacheDir.mkdirs();
+		discCache = new UnlimitedDiscCache(cacheDir);
+	}
+
+	@After
+	public void tearDown() {
+		discCache.clear();
+		cacheDir.delete();
+	}
+
+	@Test
+	public void testGetEntries() throws IOException {
+		write("1", JPEG_HEADER, new byte[100], JPEG_END);
+		write("2", PNG_HEADER, PNG_END);
+
+		List<Entry> entries = new DiscCacheInspector(discCache).getEntries();
+
+		Assertions.assertThat(entries).hasSize(2);
+		long totalSize = 0;
+		for (Entry entry : entries) {
+			totalSize += entry.getSize();
+			Assertions.assertThat(entry.getAge()).isGreaterThanOrEqualTo(0);
+		}
+		Assertions.assertThat(totalSize).isEqualTo(114 + 24);
+	}
+
+	@Test
+	public void testVerifyRemovesCorruptedFiles() throws IOException {
+		write("validJpeg", JPEG_HEADER, new byte[100], JPEG_END);
+		write("truncatedJpeg", JPEG_HEADER, new byte[100]);
+		write("validPng", PNG_HEADER, new byte[50], PNG_END);
+		write("truncatedPng", PNG_HEADER, new byte[50]);
+		write("validGif", GIF_HEADER, bytes(0x3B));
+		write("truncatedGif", GIF_HEADER, new byte[3]);
+		write("empty");
+
+		final List<String> invalidNames = new ArrayList<String>();
+		final int[] completionCounts = new int[2];
+		int removedCount = createInspector().verify(new VerificationListener() {
+			@Override
+			public void onEntryVerified(Entry entry, boolean valid) {
+				if (!valid) invalidNames.add(entry.getName());
+			}
+
+			@Override
+			public void onVerificationComplete(int verifiedCount, int removedCount) {
+				completionCounts[0] = verifiedCount;
+				completionCounts[1] = removedCount;
+			}
+		});
+
+		Assertions.assertThat(removedCount).isEqualTo(4);
+		Assertions.assertThat(invalidNames).containsOnly("truncatedJpeg", "truncatedPng", "truncatedGif", "empty");
+		Assertions.assertThat(completionCounts).isEqualTo(new int[] { 7, 4 });
+		Assertions.assertThat(cacheDir.list()).containsOnly("validJpeg", "validPng", "validGif");
+	}
+
+	@Test
+	public void testVerifyKeepsDecodableAndSkipsTemporaryAndNewFiles() throws IOException {
+		write("decodableJpegWithTrailer", JPEG_HEADER, new byte[100], JPEG_END, new byte[40]);
+		write("truncatedPng.tmp", PNG_HEADER, new byte[50]);
+		write("truncatedGif", GIF_HEADER, new byte[3]);
+		new File(cacheDir, "truncatedGif").setLastModified(System.currentTimeMillis() + 60 * 1000);
+
+		int removedCount = createInspector().verify(null);
+
+		Assertions.assertThat(removedCount).isEqualTo(0);
+		Assertions.assertThat(cacheDir.list()).containsOnly("decodableJpegWithTrailer", "truncatedPng.tmp", "truncatedGif");
+	}
+
+	/** Creates inspector which doesn't use BitmapFactory: only files with "decodable" name prefix can be decoded */
+	private DiscCacheInspector createInspector() {
+		return new DiscCacheInspector(discCache) {
+			@Override
+			protected boolean isDecodable(File file) {
+				return file.getName().startsWith("decodable");
+			}
+		};
+	}
+
+	private void write(String name, byte[]... parts) throws IOException {
+		FileOutputStream os = new FileOutputStream(new File(cacheDir, name));
+		try {
+			for (byte[] part : parts) {
+				os.write(part);
+			}
+		} finally {
+			os.close();
+		}
+	}
+
+	private static byte[] bytes(int... values) {
+		byte[] bytes = new byte[values.length];
+		for (int i = 0; i < values.length; i++) {
+			bytes[i] = (byte) values[i];
+		}
+		return bytes;
+	}
+}
@@ -0,0 +1,143 @@
+package com.nostra13.universalimageloader.cache.disc.impl;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.fest.assertions.api.Assertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.nostra13.universalimageloader.cache.disc.naming.Md5FileNameGenerator;
+import com.nostra13.universalimageloader.utils.IoUtils;
+
+public class ContentDedupDiscCacheTest {
+
+	private File cacheDir;
+	private ContentDedupDiscCache discCache;
+
+	@Before
+	public void setUp() throws IOException {
+		cacheDir = File.createTempFile("uil-dedup", "");
+		cacheDir.delete();
+		cacheDir.mkdirs();
+	}
+
+	@After
+	public void tearDown() {
+		discCache.clear();
+		new File(cacheDir, "keys").delete();
+		cacheDir.delete();
+	}
+
+	@Test
+	public void testIdenticalContentIsStoredOnce() throws IOException {
+		discCache = new ContentDedupDiscCache(cacheDir);
+		byte[] image = createContent(100, 1);
+		cache("http://site.com/a.png", image);
+		cache("http://site.com/a.png?size=big", image);
+		cache("http://cdn.site.com/a.png", image);
+
+		File file = discCache.get("http://site.com/a.png");
+		Assertions.assertThat(IoUtils.readFile(file)).isEqualTo(image);
+		Assertions.assertThat(discCache.get("http://site.com/a.png?size=big")).isEqualTo(file);
+		Assertions.assertThat(discCache.get("http://cdn.site.com/a.png")).isEqualTo(file);
+		Assertions.assertThat(contentFiles()).containsOnly(file.getName());
+		Assertions.assertThat(discCache.getStats().getCurrentSize()).isEqualTo(100);
+	}
+
+	@Test
+	public void testSharedContentIsDeletedWithLastReference() throws IOException {
+		discCache = new ContentDedupDiscCache(cacheDir, new Md5FileNameGenerator(), 150);
+		byte[] image1 = createContent(100, 1);
+		byte[] image2 = createContent(100, 2);
+		cache("a", image1);
+		cache("b", image1);
+		File sharedFile = discCache.get("b");
+		cache("c", image2); // exceeds limit: "a" is removed, then "b" with shared content
+
+		Assertions.assertThat(discCache.get("a").exists()).isFalse();
+		Assertions.assertThat(discCache.get("b").exists()).isFalse();
+		Assertions.assertThat(sharedFile.exists()).isFalse();
+		Assertions.assertThat(IoUtils.readFile(discCache.get("c"))).isEqualTo(image2);
+		Assertions.assertThat(discCache.getStats().getCurrentSize()).isEqualTo(100);
+		Assertions.assertThat(discCache.getStats().getEvictedSize()).isEqualTo(100);
+	}
+
+	@Test
+	public void testKeysAreRestoredByNewInstance() throws IOException {
+		discCache = new ContentDedupDiscCache(cacheDir);
+		byte[] image = createContent(50, 3);
+		cache("a", image);
+		cache("b", image);
+
+		discCache = new ContentDedupDiscCache(cacheDir);
+		File file = discCache.get("a");
+		Assertions.assertThat(IoUtils.readFile(file)).isEqualTo(image);
+		Assertions.assertThat(discCache.get("b")).isEqualTo(file);
+	}
+
+	@Test
+	public void testRewriteOfKeyDoesNotAffectAliases() throws IOException {
+		discCache = new ContentDedupDiscCache(cacheDir);
+		byte[] image1 = createContent(100, 1);
+		byte[] image2 = createContent(100, 2);
+		cache("a", image1);
+		cache("b", image1);
+		cache("a", image2);
+
+		Assertions.assertThat(IoUtils.readFile(discCache.get("a"))).isEqualTo(image2);
+		Assertions.assertThat(IoUtils.readFile(discCache.get("b"))).isEqualTo(image1);
+		Assertions.assertThat(discCache.getTempFile("a").exists()).isFalse();
+		Assertions.assertThat(discCache.getStats().getCurrentSize()).isEqualTo(200);
+	}
+
+	@Test
+	public void testRemovedKeyDoesNotAffectAliases() throws IOException {
+		discCache = new ContentDedupDiscCache(cacheDir);
+		byte[] image = createContent(100, 1);
+		cache("a", image);
+		cache("b", image);
+		File sharedFile = discCache.get("b");
+
+		discCache.remove("a");
+		Assertions.assertThat(discCache.get("a").exists()).isFalse();
+		Assertions.assertThat(discCache.get("b")).isEqualTo(sharedFile);
+		Assertions.assertThat(IoUtils.readFile(sharedFile)).isEqualTo(image);
+
+		discCache.remove("b");
+		Assertions.assertThat(sharedFile.exists()).isFalse();
+		Assertions.assertThat(discCache.getStats().getCurrentSize()).isEqualTo(0);
+	}
+
+	private void cache(String uri, byte[] content) throws IOException {
+		File file = discCache.getTempFile(uri);
+		FileOutputStream os = new FileOutputStream(file);
+		try {
+			os.write(content);
+		} finally {
+			os.close();
+		}
+		discCache.put(uri, file);
+	}
+
+	private String[] contentFiles() {
+		String[] names = cacheDir.list();
+		String[] contentNames = new String[names.length - 1];
+		int i = 0;
+		for (String name : names) {
+			if (!name.equals("keys")) contentNames[i++] = name;
+		}
+		return Arrays.copyOf(contentNames, i);
+	}
+
+	private static byte[] createContent(int size, int seed) {
+		byte[] content = new byte[size];
+		for (int i = 0; i < size; i++) {
+			content[i] = (byte) (i * 31 + seed);
+		}
+		return content;
+	}
+}
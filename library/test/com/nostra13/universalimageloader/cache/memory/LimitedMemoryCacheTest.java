@@ -0,0 +1,126 @@
+package com.nostra13.universalimageloader.cache.memory;
+
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+import java.util.LinkedList;
+
+import org.fest.assertions.api.Assertions;
+import org.junit.Test;
+
+import android.content.ComponentCallbacks2;
+
+public class LimitedMemoryCacheTest {
+
+	@Test
+	public void testPutEvictsOldValues() throws Exception {
+		FifoCache cache = new FifoCache(100);
+		for (int i = 0; i < 5; i++) {
+			cache.put("key" + i, new byte[30]);
+		}
+
+		Assertions.assertThat(cache.getStats().getCurrentSize()).isEqualTo(90);
+		Assertions.assertThat(cache.getStats().getEvictionCount()).isEqualTo(2);
+	}
+
+	@Test
+	public void testTrim() throws Exception {
+		FifoCache cache = new FifoCache(100);
+		for (int i = 0; i < 10; i++) {
+			cache.put("key" + i, new byte[10]);
+		}
+
+		cache.trim(ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN);
+		Assertions.assertThat(cache.getStats().getCurrentSize()).isEqualTo(70);
+
+		cache.trim(ComponentCallbacks2.TRIM_MEMORY_MODERATE);
+		Assertions.assertThat(cache.getStats().getCurrentSize()).isEqualTo(20);
+
+		cache.trim(ComponentCallbacks2.TRIM_MEMORY_COMPLETE);
+		Assertions.assertThat(cache.getStats().getCurrentSize()).isEqualTo(0);
+		Assertions.assertThat(cache.getStats().getEvictionCount()).isEqualTo(10);
+	}
+
+	@Test
+	public void testResize() throws Exception {
+		FifoCache cache = new FifoCache(100);
+		for (int i = 0; i < 10; i++) {
+			cache.put("key" + i, new byte[10]);
+		}
+
+		cache.resize(200);
+		cache.put("key10", new byte[50]);
+		Assertions.assertThat(cache.getMaxSize()).isEqualTo(200);
+		Assertions.assertThat(cache.getStats().getCurrentSize()).isEqualTo(150);
+
+		cache.resize(60);
+		Assertions.assertThat(cache.getStats().getCurrentSize()).isEqualTo(60);
+		Assertions.assertThat(cache.getStats().getEvictionCount()).isEqualTo(9);
+	}
+
+	@Test
+	public void testConcurrentPutAndTrim() throws Exception {
+		final FifoCache cache = new FifoCache(100);
+		final Throwable[] error = new Throwable[1];
+		Thread[] threads = new Thread[4];
+		for (int t = 0; t < threads.length; t++) {
+			final int threadIndex = t;
+			threads[t] = new Thread() {
+				@Override
+				public void run() {
+					try {
+						for (int i = 0; i < 10000; i++) {
+							if (threadIndex == 0) {
+								cache.trim(ComponentCallbacks2.TRIM_MEMORY_COMPLETE);
+							} else {
+								cache.put("key" + threadIndex + "_" + i, new byte[10]);
+							}
+						}
+					} catch (Throwable e) {
+						error[0] = e;
+					}
+				}
+			};
+			threads[t].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		Assertions.assertThat(error[0]).isNull();
+		Assertions.assertThat(cache.getStats().getCurrentSize()).isEqualTo(cache.queue.size() * 10);
+		Assertions.assertThat(cache.getStats().getCurrentSize()).isLessThanOrEqualTo(100);
+	}
+
+	private static class FifoCache extends LimitedMemoryCache<String, byte[]> {
+
+		private final LinkedList<byte[]> queue = new LinkedList<byte[]>();
+
+		FifoCache(int sizeLimit) {
+			super(sizeLimit);
+		}
+
+		@Override
+		public synchronized boolean put(String key, byte[] value) {
+			if (super.put(key, value)) {
+				queue.add(value);
+				return true;
+			}
+			return false;
+		}
+
+		@Override
+		protected int getSize(byte[] value) {
+			return value.length;
+		}
+
+		@Override
+		protected byte[] removeNext() {
+			return queue.isEmpty() ? null : queue.removeFirst();
+		}
+
+		@Override
+		protected Reference<byte[]> createReference(byte[] value) {
+			return new WeakReference<byte[]>(value);
+		}
+	}
+}
@@ -0,0 +1,81 @@
+package com.nostra13.universalimageloader.cache.memory.impl;
+
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
+
+import org.fest.assertions.api.Assertions;
+import org.junit.Test;
+
+import android.content.ComponentCallbacks2;
+
+import com.nostra13.universalimageloader.cache.memory.BaseMemoryCache;
+import com.nostra13.universalimageloader.core.assist.MemoryCacheUtil;
+
+public class LruByteArrayMemoryCacheTest {
+
+	@Test
+	public void testLeastRecentlyUsedIsEvicted() throws Exception {
+		LruByteArrayMemoryCache cache = new LruByteArrayMemoryCache(100);
+		cache.put("a", new byte[40]);
+		cache.put("b", new byte[40]);
+		cache.get("a");
+		cache.put("c", new byte[40]);
+
+		Assertions.assertThat(cache.keys()).containsOnly("a", "c");
+		Assertions.assertThat(cache.getStats().getCurrentSize()).isEqualTo(80);
+		Assertions.assertThat(cache.getStats().getEvictionCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void testTooLargeArrayIsNotCached() throws Exception {
+		LruByteArrayMemoryCache cache = new LruByteArrayMemoryCache(100);
+		cache.put("a", new byte[40]);
+
+		Assertions.assertThat(cache.put("b", new byte[101])).isFalse();
+		Assertions.assertThat(cache.keys()).containsOnly("a");
+	}
+
+	@Test
+	public void testPeekDoesNotRecordStats() throws Exception {
+		LruByteArrayMemoryCache cache = new LruByteArrayMemoryCache(100);
+		cache.put("a", new byte[40]);
+		cache.get("a");
+		cache.get("b");
+
+		Assertions.assertThat(cache.peek("a")).hasSize(40);
+		Assertions.assertThat(cache.peek("b")).isNull();
+		Assertions.assertThat(MemoryCacheUtil.peek(new FuzzyKeyMemoryCache<String, byte[]>(cache, null), "a")).hasSize(40);
+		Assertions.assertThat(cache.getStats().getHitCount()).isEqualTo(1);
+		Assertions.assertThat(cache.getStats().getMissCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void testResizableCacheIsUnwrappedFromDecorators() throws Exception {
+		LruByteArrayMemoryCache cache = new LruByteArrayMemoryCache(100);
+		LimitedAgeMemoryCache<String, byte[]> limitedAgeCache = new LimitedAgeMemoryCache<String, byte[]>(cache, 60);
+		FuzzyKeyMemoryCache<String, byte[]> fuzzyKeyCache = new FuzzyKeyMemoryCache<String, byte[]>(limitedAgeCache, null);
+
+		Assertions.assertThat(MemoryCacheUtil.getResizableCache(fuzzyKeyCache)).isSameAs(cache);
+		Assertions.assertThat(MemoryCacheUtil.getResizableCache(new FuzzyKeyMemoryCache<String, byte[]>(new BaseMemoryCache<String, byte[]>() {
+			@Override
+			protected Reference<byte[]> createReference(byte[] value) {
+				return new SoftReference<byte[]>(value);
+			}
+		}, null))).isNull();
+	}
+
+	@Test
+	public void testTrimAndClear() throws Exception {
+		LruByteArrayMemoryCache cache = new LruByteArrayMemoryCache(100);
+		for (int i = 0; i < 10; i++) {
+			cache.put("key" + i, new byte[10]);
+		}
+
+		cache.trim(ComponentCallbacks2.TRIM_MEMORY_BACKGROUND);
+		Assertions.assertThat(cache.getStats().getCurrentSize()).isEqualTo(50);
+
+		cache.clear();
+		Assertions.assertThat(cache.keys()).isEmpty();
+		Assertions.assertThat(cache.getStats().getEvictionCount()).isEqualTo(5);
+	}
+}
@@ -0,0 +1,178 @@
+package com.nostra13.universalimageloader.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.fest.assertions.api.Assertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import android.graphics.Bitmap;
+
+import com.nostra13.universalimageloader.core.assist.BatchLoadingListener;
+import com.nostra13.universalimageloader.core.assist.FailReason;
+import com.nostra13.universalimageloader.core.assist.ImageSize;
+import com.nostra13.universalimageloader.core.assist.LoadingBatch;
+import com.nostra13.universalimageloader.core.assist.MemoryCacheUtil;
+import com.nostra13.universalimageloader.core.download.BaseImageDownloader;
+
+@RunWith(RobolectricTestRunner.class)
+public class BatchLoaderTest {
+
+	private static final byte[] IMAGE = new byte[] { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 1, 2, 3, 4 };
+	private static final ImageSize TARGET_SIZE = new ImageSize(100, 100);
+	private static final String URI_A = "http://site.com/a.png";
+	private static final String URI_B = "http://site.com/b.png";
+	private static final String URI_C = "http://site.com/c.png";
+	private static final String URI_D = "http://site.com/d.png";
+
+	private final HoldingExecutor executor = new HoldingExecutor();
+	private final RecordingListener listener = new RecordingListener();
+	private ImageLoader imageLoader;
+
+	@Before
+	public void setUp() {
+		ImageLoaderConfiguration configuration = new ImageLoaderConfiguration.Builder(Robolectric.application)
+				.taskExecutor(executor)
+				.taskExecutorForCachedImages(executor)
+				.taskExecutorForLocalImages(executor)
+				.taskExecutorForAppResources(executor)
+				.imageDownloader(new BaseImageDownloader(Robolectric.application) {
+					@Override
+					protected InputStream getStreamFromNetwork(String imageUri, Object extra) throws IOException {
+						return new ByteArrayInputStream(IMAGE);
+					}
+				})
+				.build();
+		imageLoader = ImageLoader.getInstance();
+		imageLoader.init(configuration);
+	}
+
+	@After
+	public void tearDown() {
+		imageLoader.destroy();
+	}
+
+	@Test
+	public void testDuplicatedAndEmptyUrisAreLoadedOnce() throws Exception {
+		loadImages(10, URI_A, URI_A, "", URI_B);
+		executor.runTasks(2);
+
+		Assertions.assertThat(executor.submitted.tryAcquire(100, TimeUnit.MILLISECONDS)).isFalse();
+		Assertions.assertThat(listener.loadedUris).containsOnly(URI_A, URI_B);
+		Assertions.assertThat(listener.totalCounts).containsOnly(2);
+		Assertions.assertThat(listener.completeEvents).isEqualTo(1);
+	}
+
+	@Test
+	public void testConcurrentTasksAreLimited() throws Exception {
+		loadImages(2, URI_A, URI_B, URI_C, URI_D);
+
+		Assertions.assertThat(executor.submitted.tryAcquire(2, 5, TimeUnit.SECONDS)).isTrue();
+		Assertions.assertThat(executor.submitted.tryAcquire(100, TimeUnit.MILLISECONDS)).isFalse();
+		executor.submitted.release(2);
+		executor.runTasks(1);
+		Assertions.assertThat(executor.submitted.tryAcquire(2, 5, TimeUnit.SECONDS)).isTrue();
+		Assertions.assertThat(executor.submitted.tryAcquire(100, TimeUnit.MILLISECONDS)).isFalse();
+		executor.submitted.release(2);
+		executor.runTasks(3);
+
+		Assertions.assertThat(listener.loadedUris).containsOnly(URI_A, URI_B, URI_C, URI_D);
+		Assertions.assertThat(listener.completeEvents).isEqualTo(1);
+		Assertions.assertThat(listener.loadedCount).isEqualTo(4);
+		Assertions.assertThat(listener.cancelled).isFalse();
+	}
+
+	@Test
+	public void testCancelledBatchCompletesAfterRunningTasks() throws Exception {
+		LoadingBatch batch = loadImages(1, URI_A, URI_B, URI_C);
+		Assertions.assertThat(executor.submitted.tryAcquire(5, TimeUnit.SECONDS)).isTrue();
+		executor.submitted.release();
+
+		batch.cancel();
+		Robolectric.runUiThreadTasks();
+		Assertions.assertThat(listener.completeEvents).isEqualTo(0);
+
+		executor.runTasks(1);
+		Assertions.assertThat(executor.submitted.tryAcquire(100, TimeUnit.MILLISECONDS)).isFalse();
+		Assertions.assertThat(listener.loadedUris).isEmpty();
+		Assertions.assertThat(listener.completeEvents).isEqualTo(1);
+		Assertions.assertThat(listener.cancelled).isTrue();
+	}
+
+	@Test
+	public void testMemoryCachedImagesCompleteSynchronously() throws Exception {
+		Bitmap bitmap = Bitmap.createBitmap(1, 1, Bitmap.Config.ARGB_8888);
+		imageLoader.getMemoryCache().put(MemoryCacheUtil.generateKey(URI_A, TARGET_SIZE), bitmap);
+		imageLoader.getMemoryCache().put(MemoryCacheUtil.generateKey(URI_B, TARGET_SIZE), bitmap);
+
+		loadImages(1, URI_A, URI_B);
+		Robolectric.runUiThreadTasks();
+
+		Assertions.assertThat(listener.loadedUris).containsOnly(URI_A, URI_B);
+		Assertions.assertThat(listener.completeEvents).isEqualTo(1);
+		Assertions.assertThat(executor.submitted.tryAcquire(100, TimeUnit.MILLISECONDS)).isFalse();
+	}
+
+	private LoadingBatch loadImages(int maxConcurrentTasks, String... uris) {
+		return imageLoader.loadImages(Arrays.asList(uris), TARGET_SIZE, DisplayImageOptions.createSimple(), maxConcurrentTasks, listener);
+	}
+
+	/** Holds submitted tasks until test runs them */
+	private static class HoldingExecutor implements Executor {
+		final Semaphore submitted = new Semaphore(0);
+		final List<Runnable> tasks = new CopyOnWriteArrayList<Runnable>();
+
+		@Override
+		public void execute(Runnable command) {
+			tasks.add(command);
+			submitted.release();
+		}
+
+		/** Waits for submission of <b>count</b> tasks and runs them on current thread one by one */
+		void runTasks(int count) throws InterruptedException {
+			for (int i = 0; i < count; i++) {
+				Assertions.assertThat(submitted.tryAcquire(5, TimeUnit.SECONDS)).isTrue();
+				tasks.remove(0).run();
+				Robolectric.runUiThreadTasks();
+			}
+		}
+	}
+
+	private static class RecordingListener implements BatchLoadingListener {
+		final List<String> loadedUris = new CopyOnWriteArrayList<String>();
+		final List<Integer> totalCounts = new CopyOnWriteArrayList<Integer>();
+		int completeEvents;
+		int loadedCount;
+		boolean cancelled;
+
+		@Override
+		public void onImageLoaded(String imageUri, Bitmap loadedImage, int finishedCount, int totalCount) {
+			loadedUris.add(imageUri);
+			totalCounts.add(totalCount);
+		}
+
+		@Override
+		public void onImageFailed(String imageUri, FailReason failReason, int finishedCount, int totalCount) {
+			totalCounts.add(totalCount);
+		}
+
+		@Override
+		public void onBatchComplete(int loadedCount, int failedCount, boolean cancelled) {
+			completeEvents++;
+			this.loadedCount = loadedCount;
+			this.cancelled = cancelled;
+		}
+	}
+}
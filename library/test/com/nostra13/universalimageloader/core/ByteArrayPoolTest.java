@@ -0,0 +1,30 @@
+package com.nostra13.universalimageloader.core;
+
+import org.fest.assertions.api.Assertions;
+import org.junit.Test;
+
+public class ByteArrayPoolTest {
+
+	@Test
+	public void testReleasedArrayIsReused() throws Exception {
+		ByteArrayPool pool = new ByteArrayPool(100 * 1024);
+		byte[] buffer = pool.get(10000);
+		Assertions.assertThat(buffer.length).isEqualTo(16 * 1024);
+
+		pool.release(buffer);
+		Assertions.assertThat(pool.get(12000)).isSameAs(buffer);
+		Assertions.assertThat(pool.get(12000)).isNotSameAs(buffer);
+	}
+
+	@Test
+	public void testPoolSizeIsLimited() throws Exception {
+		ByteArrayPool pool = new ByteArrayPool(20 * 1024);
+		byte[] buffer1 = pool.get(16 * 1024);
+		byte[] buffer2 = pool.get(16 * 1024);
+		pool.release(buffer1);
+		pool.release(buffer2);
+
+		Assertions.assertThat(pool.get(1)).isSameAs(buffer1);
+		Assertions.assertThat(pool.get(1)).isNotSameAs(buffer2);
+	}
+}
@@ -0,0 +1,81 @@
+package com.nostra13.universalimageloader.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+
+import org.fest.assertions.api.Assertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.nostra13.universalimageloader.utils.IoUtils;
+
+public class CachingStreamDownloaderTest {
+
+	private File file;
+	private byte[] data;
+
+	@Before
+	public void setUp() throws Exception {
+		file = File.createTempFile("uil", ".tmp");
+		data = new byte[50 * 1024];
+		for (int i = 0; i < data.length; i++) {
+			data[i] = (byte) i;
+		}
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		file.delete();
+	}
+
+	@Test
+	public void testReplayAndFinish() throws Exception {
+		CachingStreamDownloader downloader = new CachingStreamDownloader(new ByteArrayInputStream(data), file);
+
+		InputStream boundsStream = downloader.getStream(null, null);
+		byte[] header = new byte[1000];
+		Assertions.assertThat(boundsStream.read(header)).isEqualTo(header.length);
+		boundsStream.close();
+
+		InputStream fullStream = downloader.getStream(null, null);
+		ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+		byte[] part = new byte[20 * 1024];
+		int read = fullStream.read(part);
+		decoded.write(part, 0, read);
+		fullStream.close();
+		downloader.finish();
+
+		Assertions.assertThat(decoded.toByteArray()).isEqualTo(copyOf(data, read));
+		Assertions.assertThat(readFile()).isEqualTo(data);
+	}
+
+	@Test
+	public void testAbort() throws Exception {
+		CachingStreamDownloader downloader = new CachingStreamDownloader(new ByteArrayInputStream(data), file);
+		downloader.getStream(null, null).read(new byte[1000]);
+		downloader.abort();
+
+		Assertions.assertThat(file.exists()).isFalse();
+	}
+
+	private byte[] readFile() throws Exception {
+		InputStream is = new FileInputStream(file);
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		try {
+			IoUtils.copyStream(is, os);
+		} finally {
+			IoUtils.closeSilently(is);
+		}
+		return os.toByteArray();
+	}
+
+	private static byte[] copyOf(byte[] array, int length) {
+		byte[] copy = new byte[length];
+		System.arraycopy(array, 0, copy, 0, length);
+		return copy;
+	}
+}
@@ -0,0 +1,68 @@
+package com.nostra13.universalimageloader.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.fest.assertions.api.Assertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import com.nostra13.universalimageloader.cache.disc.impl.ContentDedupDiscCache;
+import com.nostra13.universalimageloader.core.download.BaseImageDownloader;
+import com.nostra13.universalimageloader.utils.IoUtils;
+
+@RunWith(RobolectricTestRunner.class)
+public class ContentDedupDiscCacheLoadingTest {
+
+	private static final byte[] IMAGE = new byte[] { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 1, 2, 3, 4 };
+
+	private File cacheDir;
+	private ContentDedupDiscCache discCache;
+	private ImageLoader imageLoader;
+
+	@Before
+	public void setUp() throws IOException {
+		cacheDir = File.createTempFile("uil-dedup-loading", "");
+		cacheDir.delete();
+		cacheDir.mkdirs();
+		discCache = new ContentDedupDiscCache(cacheDir);
+
+		ImageLoaderConfiguration configuration = new ImageLoaderConfiguration.Builder(Robolectric.application)
+				.discCache(discCache)
+				.imageDownloader(new BaseImageDownloader(Robolectric.application) {
+					@Override
+					protected InputStream getStreamFromNetwork(String imageUri, Object extra) throws IOException {
+						return new ByteArrayInputStream(IMAGE);
+					}
+				})
+				.build();
+		imageLoader = ImageLoader.getInstance();
+		imageLoader.init(configuration);
+	}
+
+	@After
+	public void tearDown() {
+		imageLoader.clearDiscCache();
+		imageLoader.destroy();
+		new File(cacheDir, "keys").delete();
+		cacheDir.delete();
+	}
+
+	@Test
+	public void testFirstLoadingOfNetworkImageIsDecodedFromCachedContent() throws IOException {
+		DisplayImageOptions options = new DisplayImageOptions.Builder().cacheOnDisc().build();
+
+		Assertions.assertThat(imageLoader.loadImageSync("http://site.com/a.png", null, options)).isNotNull();
+		Assertions.assertThat(imageLoader.loadImageSync("http://cdn.site.com/a.png", null, options)).isNotNull();
+
+		File file = discCache.get("http://site.com/a.png");
+		Assertions.assertThat(IoUtils.readFile(file)).isEqualTo(IMAGE);
+		Assertions.assertThat(discCache.get("http://cdn.site.com/a.png")).isEqualTo(file);
+	}
+}
@@ -0,0 +1,85 @@
+package com.nostra13.universalimageloader.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.fest.assertions.api.Assertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import com.nostra13.universalimageloader.cache.disc.impl.UnlimitedDiscCache;
+import com.nostra13.universalimageloader.core.download.BaseImageDownloader;
+import com.nostra13.universalimageloader.utils.IoUtils;
+
+@RunWith(RobolectricTestRunner.class)
+public class DiscCacheWritingTest {
+
+	private static final byte[] IMAGE = new byte[] { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 1, 2, 3, 4 };
+	private static final String BROKEN_URI = "http://site.com/broken.png";
+
+	private File cacheDir;
+	private UnlimitedDiscCache discCache;
+	private ImageLoader imageLoader;
+
+	@Before
+	public void setUp() throws IOException {
+		cacheDir = File.createTempFile("uil-writing", "");
+		cacheDir.delete();
+		cacheDir.mkdirs();
+		discCache = new UnlimitedDiscCache(cacheDir);
+
+		ImageLoaderConfiguration configuration = new ImageLoaderConfiguration.Builder(Robolectric.application)
+				.discCache(discCache)
+				.imageDownloader(new BaseImageDownloader(Robolectric.application) {
+					@Override
+					protected InputStream getStreamFromNetwork(String imageUri, Object extra) throws IOException {
+						if (imageUri.equals(BROKEN_URI)) {
+							return new InputStream() {
+								private int pos;
+
+								@Override
+								public int read() throws IOException {
+									if (pos == 4) throw new IOException("Connection is lost");
+									return IMAGE[pos++] & 0xFF;
+								}
+							};
+						}
+						return new ByteArrayInputStream(IMAGE);
+					}
+				})
+				.build();
+		imageLoader = ImageLoader.getInstance();
+		imageLoader.init(configuration);
+	}
+
+	@After
+	public void tearDown() {
+		imageLoader.clearDiscCache();
+		imageLoader.destroy();
+		cacheDir.delete();
+	}
+
+	@Test
+	public void testDownloadedImageIsMovedIntoCacheWhenComplete() throws IOException {
+		DisplayImageOptions options = new DisplayImageOptions.Builder().cacheOnDisc().build();
+		imageLoader.loadImageSync("http://site.com/a.png", null, options);
+
+		File file = discCache.get("http://site.com/a.png");
+		Assertions.assertThat(IoUtils.readFile(file)).isEqualTo(IMAGE);
+		Assertions.assertThat(cacheDir.list()).containsOnly(file.getName());
+	}
+
+	@Test
+	public void testPartiallyDownloadedImageIsNotCached() {
+		DisplayImageOptions options = new DisplayImageOptions.Builder().cacheOnDisc().build();
+		imageLoader.loadImageSync(BROKEN_URI, null, options);
+
+		Assertions.assertThat(cacheDir.list()).isEmpty();
+	}
+}
@@ -0,0 +1,45 @@
+package com.nostra13.universalimageloader.core;
+
+import java.util.List;
+
+import org.fest.assertions.api.Assertions;
+import org.junit.Test;
+
+public class EventLogTest {
+
+	@Test
+	public void testDumpFormatsEvents() {
+		EventLog log = new EventLog(4);
+		log.add("Load image [%s]", "key");
+		log.add("Delay %d ms [%s]", 100, "key");
+		log.add("Resolve (%d) %s [%s]", 5, "uri", "key");
+
+		List<String> events = log.dump();
+		Assertions.assertThat(events).hasSize(3);
+		Assertions.assertThat(events.get(0)).endsWith(Thread.currentThread().getName() + ": Load image [key]");
+		Assertions.assertThat(events.get(1)).endsWith(": Delay 100 ms [key]");
+		Assertions.assertThat(events.get(2)).endsWith(": Resolve (5) uri [key]");
+	}
+
+	@Test
+	public void testOldEventsAreOverwritten() {
+		EventLog log = new EventLog(3);
+		for (int i = 0; i < 5; i++) {
+			log.add("Event %d [%s]", i, "key");
+		}
+
+		List<String> events = log.dump();
+		Assertions.assertThat(events).hasSize(3);
+		Assertions.assertThat(events.get(0)).endsWith("Event 2 [key]");
+		Assertions.assertThat(events.get(2)).endsWith("Event 4 [key]");
+	}
+
+	@Test
+	public void testClear() {
+		EventLog log = new EventLog(3);
+		log.add("Event [%s]", "key");
+		log.clear();
+
+		Assertions.assertThat(log.dump()).isEmpty();
+	}
+}
@@ -0,0 +1,75 @@
+package com.nostra13.universalimageloader.core;
+
+import org.fest.assertions.api.Assertions;
+import org.junit.Test;
+
+public class HostTaskLimiterTest {
+
+	private static final String HOST = "site.com";
+	private static final String OTHER_HOST = "cdn.site.com";
+
+	@Test
+	public void testTaskIsDeferredAtLimit() {
+		HostTaskLimiter<String> limiter = new HostTaskLimiter<String>(2, false);
+
+		Assertions.assertThat(limiter.tryAcquire(HOST, "a")).isTrue();
+		Assertions.assertThat(limiter.tryAcquire(HOST, "b")).isTrue();
+		Assertions.assertThat(limiter.tryAcquire(HOST, "c")).isFalse();
+		Assertions.assertThat(limiter.tryAcquire(OTHER_HOST, "d")).isTrue();
+
+		Assertions.assertThat(limiter.getRunningTaskCount(HOST)).isEqualTo(2);
+		Assertions.assertThat(limiter.getRunningTaskCount(OTHER_HOST)).isEqualTo(1);
+		Assertions.assertThat(limiter.getWaitingTaskCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void testDeferredTasksAreReleasedInFifoOrder() {
+		HostTaskLimiter<String> limiter = new HostTaskLimiter<String>(1, false);
+		limiter.tryAcquire(HOST, "a");
+		limiter.tryAcquire(HOST, "b");
+		limiter.tryAcquire(HOST, "c");
+
+		Assertions.assertThat(limiter.release(HOST)).isEqualTo("b");
+		Assertions.assertThat(limiter.release(HOST)).isEqualTo("c");
+		Assertions.assertThat(limiter.getRunningTaskCount(HOST)).isEqualTo(1);
+	}
+
+	@Test
+	public void testDeferredTasksAreReleasedInLifoOrder() {
+		HostTaskLimiter<String> limiter = new HostTaskLimiter<String>(1, true);
+		limiter.tryAcquire(HOST, "a");
+		limiter.tryAcquire(HOST, "b");
+		limiter.tryAcquire(HOST, "c");
+
+		Assertions.assertThat(limiter.release(HOST)).isEqualTo("c");
+		Assertions.assertThat(limiter.release(HOST)).isEqualTo("b");
+		Assertions.assertThat(limiter.getRunningTaskCount(HOST)).isEqualTo(1);
+	}
+
+	@Test
+	public void testRunningCountIsDecrementedIfNoDeferredTasks() {
+		HostTaskLimiter<String> limiter = new HostTaskLimiter<String>(2, false);
+		limiter.tryAcquire(HOST, "a");
+		limiter.tryAcquire(HOST, "b");
+
+		Assertions.assertThat(limiter.release(HOST)).isNull();
+		Assertions.assertThat(limiter.getRunningTaskCount(HOST)).isEqualTo(1);
+		Assertions.assertThat(limiter.release(HOST)).isNull();
+		Assertions.assertThat(limiter.getRunningTaskCount(HOST)).isEqualTo(0);
+		Assertions.assertThat(limiter.tryAcquire(HOST, "c")).isTrue();
+	}
+
+	@Test
+	public void testDeferredTasksAreDroppedOnClear() {
+		HostTaskLimiter<String> limiter = new HostTaskLimiter<String>(1, false);
+		limiter.tryAcquire(HOST, "a");
+		limiter.tryAcquire(HOST, "b");
+		limiter.tryAcquire(OTHER_HOST, "c");
+		limiter.tryAcquire(OTHER_HOST, "d");
+
+		Assertions.assertThat(limiter.clearWaitingTasks()).containsOnly("b", "d");
+		Assertions.assertThat(limiter.getWaitingTaskCount()).isEqualTo(0);
+		Assertions.assertThat(limiter.release(HOST)).isNull();
+		Assertions.assertThat(limiter.getRunningTaskCount(HOST)).isEqualTo(0);
+	}
+}
@@ -0,0 +1,133 @@
+package com.nostra13.universalimageloader.core;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.fest.assertions.api.Assertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import com.nostra13.universalimageloader.cache.disc.impl.UnlimitedDiscCache;
+import com.nostra13.universalimageloader.core.assist.ImageSize;
+
+@RunWith(RobolectricTestRunner.class)
+public class ImageLoaderEngineRoutingTest {
+
+	private File cacheDir;
+	private UnlimitedDiscCache discCache;
+	private final Semaphore submitted = new Semaphore(0);
+	private final RecordingExecutor networkExecutor = new RecordingExecutor();
+	private final RecordingExecutor cachedImagesExecutor = new RecordingExecutor();
+	private final RecordingExecutor localImagesExecutor = new RecordingExecutor();
+	private final RecordingExecutor appResourcesExecutor = new RecordingExecutor();
+	private ImageLoaderEngine engine;
+
+	@Before
+	public void setUp() throws IOException {
+		cacheDir = File.createTempFile("uil-routing", "");
+		cacheDir.delete();
+		cacheDir.mkdirs();
+		discCache = new UnlimitedDiscCache(cacheDir);
+
+		ImageLoaderConfiguration configuration = new ImageLoaderConfiguration.Builder(Robolectric.application)
+				.discCache(discCache)
+				.taskExecutor(networkExecutor)
+				.taskExecutorForCachedImages(cachedImagesExecutor)
+				.taskExecutorForLocalImages(localImagesExecutor)
+				.taskExecutorForAppResources(appResourcesExecutor)
+				.build();
+		engine = new ImageLoaderEngine(configuration);
+	}
+
+	@After
+	public void tearDown() {
+		discCache.clear();
+		cacheDir.delete();
+	}
+
+	@Test
+	public void testTasksAreRoutedByImageSource() throws Exception {
+		File cachedFile = discCache.get("http://site.com/cached.png");
+		new FileOutputStream(cachedFile).close();
+
+		submit("http://site.com/image.png");
+		submit("http://site.com/cached.png");
+		submit("file:///mnt/sdcard/image.png");
+		submit("content://media/external/images/media/1");
+		submit("assets://image.png");
+		submit("drawable://12345");
+		Assertions.assertThat(submitted.tryAcquire(6, 5, TimeUnit.SECONDS)).isTrue();
+
+		Assertions.assertThat(networkExecutor.uris).containsOnly("http://site.com/image.png");
+		Assertions.assertThat(cachedImagesExecutor.uris).containsOnly("http://site.com/cached.png");
+		Assertions.assertThat(localImagesExecutor.uris).containsOnly("file:///mnt/sdcard/image.png", "content://media/external/images/media/1");
+		Assertions.assertThat(appResourcesExecutor.uris).containsOnly("assets://image.png", "drawable://12345");
+	}
+
+	@Test
+	public void testLocalThreadPoolSizeIsLimited() throws Exception {
+		ImageLoaderConfiguration configuration = new ImageLoaderConfiguration.Builder(Robolectric.application).threadPoolSize(5).build();
+		Assertions.assertThat(configuration.threadPoolSize).isEqualTo(5);
+		Assertions.assertThat(configuration.localThreadPoolSize).isEqualTo(ImageLoaderConfiguration.Builder.MAX_LOCAL_THREAD_POOL_SIZE);
+
+		configuration = new ImageLoaderConfiguration.Builder(Robolectric.application).threadPoolSize(1).build();
+		Assertions.assertThat(configuration.localThreadPoolSize).isEqualTo(1);
+	}
+
+	@Test
+	public void testDeferredHostTasksAreDroppedOnStop() throws Exception {
+		final Semaphore executed = new Semaphore(0);
+		ImageLoaderConfiguration configuration = new ImageLoaderConfiguration.Builder(Robolectric.application)
+				.discCache(discCache)
+				.maxTasksPerHost(1)
+				.taskExecutor(new Executor() {
+					@Override
+					public void execute(Runnable command) {
+						executed.release(); // task holds slot of its host
+					}
+				})
+				.build();
+		engine = new ImageLoaderEngine(configuration);
+
+		ImageLoadingFuture runningFuture = submit("http://site.com/a.png");
+		Assertions.assertThat(executed.tryAcquire(5, TimeUnit.SECONDS)).isTrue();
+		ImageLoadingFuture deferredFuture = submit("http://site.com/b.png");
+		while (engine.getStats().getWaitingHostLimitedTasks() == 0) {
+			Thread.sleep(10);
+		}
+
+		engine.stop();
+		Assertions.assertThat(deferredFuture.isCancelled()).isTrue();
+		Assertions.assertThat(runningFuture.isCancelled()).isFalse();
+		Assertions.assertThat(engine.getStats().getWaitingHostLimitedTasks()).isEqualTo(0);
+	}
+
+	private ImageLoadingFuture submit(String uri) {
+		ImageLoadingFuture future = new ImageLoadingFuture();
+		ImageLoadingInfo imageLoadingInfo = new ImageLoadingInfo(uri, new ImageSize(100, 100), uri, DisplayImageOptions.createSimple(),
+				engine.getLockForUri(uri), future);
+		engine.submit(new LoadAndDisplayImageTask(engine, imageLoadingInfo, null));
+		return future;
+	}
+
+	/** Records URIs of submitted tasks instead of executing them */
+	private class RecordingExecutor implements Executor {
+		final List<String> uris = new CopyOnWriteArrayList<String>();
+
+		@Override
+		public void execute(Runnable command) {
+			uris.add(((LoadAndDisplayImageTask) command).getLoadingUri());
+			submitted.release();
+		}
+	}
+}
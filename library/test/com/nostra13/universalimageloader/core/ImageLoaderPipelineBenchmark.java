@@ -0,0 +1,223 @@
+package com.nostra13.universalimageloader.core;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.imageio.ImageIO;
+
+import org.fest.assertions.api.Assertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import android.graphics.Bitmap;
+import android.view.View;
+
+import com.nostra13.universalimageloader.cache.disc.impl.UnlimitedDiscCache;
+import com.nostra13.universalimageloader.core.assist.FailReason;
+import com.nostra13.universalimageloader.core.assist.QueueProcessingType;
+import com.nostra13.universalimageloader.core.assist.SimpleImageLoadingListener;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * End-to-end throughput benchmark of loading pipeline (engine, downloader, disc cache, decoder, memory cache). Images
+ * are served by local HTTP server with emulated latency and bandwidth.<br />
+ * It isn't run with other tests (class name doesn't match test patterns). Run it explicitly:
+ *
+ * <pre>
+ * mvn test -Dtest=ImageLoaderPipelineBenchmark -Duil.benchmark.threadPoolSize=5 -Duil.benchmark.latency=100
+ * </pre>
+ *
+ * Parameters (system properties with "uil.benchmark." prefix):
+ * <ul>
+ * <li>imageCount - count of concurrent loadImage() calls (default 100)</li>
+ * <li>imageDimension - width and height of served image (default 256)</li>
+ * <li>latency - server response latency in ms (default 50)</li>
+ * <li>bandwidth - bandwidth per connection in Kb/s, 0 - unlimited (default 512)</li>
+ * <li>threadPoolSize - {@link ImageLoaderConfiguration.Builder#threadPoolSize(int)} (default 3)</li>
+ * <li>processingType - {@link QueueProcessingType} (default FIFO)</li>
+ * <li>maxTasksPerHost - {@link ImageLoaderConfiguration.Builder#maxTasksPerHost(int)}, 0 - unlimited (default 0)</li>
+ * <li>cacheOnDisc - {@link DisplayImageOptions.Builder#cacheOnDisc()} (default true)</li>
+ * <li>decodeWhileCachingOnDisc - {@link ImageLoaderConfiguration.Builder#decodeWhileCachingOnDisc()} (default false)
+ * </li>
+ * </ul>
+ * Reports images/sec, p50/p99 latency of single image loading and bytes transferred.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ImageLoaderPipelineBenchmark {
+
+	private static final String PROPERTY_PREFIX = "uil.benchmark.";
+	private static final long TIMEOUT = TimeUnit.MINUTES.toNanos(5);
+	private static final int CHUNK_SIZE = 4 * 1024;
+
+	private final int imageCount = Integer.getInteger(PROPERTY_PREFIX + "imageCount", 100);
+	private final int imageDimension = Integer.getInteger(PROPERTY_PREFIX + "imageDimension", 256);
+	private final int latency = Integer.getInteger(PROPERTY_PREFIX + "latency", 50);
+	private final int bandwidth = Integer.getInteger(PROPERTY_PREFIX + "bandwidth", 512);
+	private final int threadPoolSize = Integer.getInteger(PROPERTY_PREFIX + "threadPoolSize", 3);
+	private final QueueProcessingType processingType = QueueProcessingType.valueOf(System.getProperty(PROPERTY_PREFIX + "processingType", "FIFO"));
+	private final int maxTasksPerHost = Integer.getInteger(PROPERTY_PREFIX + "maxTasksPerHost", 0);
+	private final boolean cacheOnDisc = Boolean.parseBoolean(System.getProperty(PROPERTY_PREFIX + "cacheOnDisc", "true"));
+	private final boolean decodeWhileCachingOnDisc = Boolean.getBoolean(PROPERTY_PREFIX + "decodeWhileCachingOnDisc");
+
+	private final AtomicLong transferredBytes = new AtomicLong();
+	private HttpServer server;
+	private File cacheDir;
+	private ImageLoader imageLoader;
+
+	@Before
+	public void setUp() throws Exception {
+		final byte[] image = createImage(imageDimension);
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/", new HttpHandler() {
+			@Override
+			public void handle(HttpExchange exchange) throws IOException {
+				serveImage(exchange, image);
+			}
+		});
+		server.setExecutor(Executors.newCachedThreadPool());
+		server.start();
+
+		cacheDir = File.createTempFile("uil-benchmark", "");
+		cacheDir.delete();
+		cacheDir.mkdirs();
+
+		ImageLoaderConfiguration.Builder builder = new ImageLoaderConfiguration.Builder(Robolectric.application)
+				.threadPoolSize(threadPoolSize)
+				.tasksProcessingOrder(processingType)
+				.discCache(new UnlimitedDiscCache(cacheDir));
+		if (maxTasksPerHost > 0) {
+			builder.maxTasksPerHost(maxTasksPerHost);
+		}
+		if (decodeWhileCachingOnDisc) {
+			builder.decodeWhileCachingOnDisc();
+		}
+		imageLoader = ImageLoader.getInstance();
+		imageLoader.init(builder.build());
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		imageLoader.clearDiscCache();
+		imageLoader.destroy();
+		server.stop(0);
+		cacheDir.delete();
+	}
+
+	@Test
+	public void benchmarkPipeline() throws Exception {
+		DisplayImageOptions.Builder optionsBuilder = new DisplayImageOptions.Builder().cacheInMemory();
+		if (cacheOnDisc) {
+			optionsBuilder.cacheOnDisc();
+		}
+		DisplayImageOptions options = optionsBuilder.build();
+		String baseUri = "http://127.0.0.1:" + server.getAddress().getPort() + "/image/";
+
+		final long[] startTimes = new long[imageCount];
+		final long[] latencies = new long[imageCount];
+		final AtomicInteger failedCount = new AtomicInteger();
+		final CountDownLatch latch = new CountDownLatch(imageCount);
+
+		long start = System.nanoTime();
+		for (int i = 0; i < imageCount; i++) {
+			final int index = i;
+			startTimes[i] = System.nanoTime();
+			imageLoader.loadImage(baseUri + i + ".png", options, new SimpleImageLoadingListener() {
+				@Override
+				public void onLoadingComplete(String imageUri, View view, Bitmap loadedImage) {
+					latencies[index] = System.nanoTime() - startTimes[index];
+					latch.countDown();
+				}
+
+				@Override
+				public void onLoadingFailed(String imageUri, View view, FailReason failReason) {
+					latencies[index] = System.nanoTime() - startTimes[index];
+					failedCount.incrementAndGet();
+					latch.countDown();
+				}
+			});
+		}
+		// Listener events are posted to UI thread, so execute them here
+		while (!latch.await(1, TimeUnit.MILLISECONDS)) {
+			Robolectric.runUiThreadTasksIncludingDelayedTasks();
+			if (System.nanoTime() - start > TIMEOUT) break;
+		}
+		long duration = System.nanoTime() - start;
+
+		Arrays.sort(latencies);
+		System.out.println(String.format("Pipeline benchmark: %d images (%dx%d), latency = %d ms, bandwidth = %d Kb/s, threadPoolSize = %d, %s, maxTasksPerHost = %d, cacheOnDisc = %b, decodeWhileCachingOnDisc = %b",
+				imageCount, imageDimension, imageDimension, latency, bandwidth, threadPoolSize, processingType, maxTasksPerHost, cacheOnDisc, decodeWhileCachingOnDisc));
+		System.out.println(String.format("  throughput: %.2f images/sec", imageCount * (double) TimeUnit.SECONDS.toNanos(1) / duration));
+		System.out.println(String.format("  latency: p50 = %d ms, p99 = %d ms", toMillis(percentile(latencies, 50)), toMillis(percentile(latencies, 99))));
+		System.out.println(String.format("  transferred: %d bytes", transferredBytes.get()));
+		System.out.println(String.format("  failed: %d", failedCount.get()));
+
+		Assertions.assertThat(latch.getCount()).isEqualTo(0);
+		Assertions.assertThat(failedCount.get()).isEqualTo(0);
+	}
+
+	private void serveImage(HttpExchange exchange, byte[] image) throws IOException {
+		try {
+			if (latency > 0) {
+				Thread.sleep(latency);
+			}
+			exchange.sendResponseHeaders(200, image.length);
+			OutputStream os = exchange.getResponseBody();
+			long chunkDuration = bandwidth > 0 ? TimeUnit.SECONDS.toNanos(1) * CHUNK_SIZE / (bandwidth * 1024L) : 0;
+			for (int offset = 0; offset < image.length; offset += CHUNK_SIZE) {
+				long chunkStart = System.nanoTime();
+				int count = Math.min(CHUNK_SIZE, image.length - offset);
+				os.write(image, offset, count);
+				os.flush();
+				transferredBytes.addAndGet(count);
+				long sleep = chunkDuration - (System.nanoTime() - chunkStart);
+				if (sleep > 0) {
+					TimeUnit.NANOSECONDS.sleep(sleep);
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			exchange.close();
+		}
+	}
+
+	/** Creates PNG image of random pixels, so it isn't compressed well (like photos) */
+	private static byte[] createImage(int dimension) throws IOException {
+		BufferedImage image = new BufferedImage(dimension, dimension, BufferedImage.TYPE_INT_RGB);
+		Random random = new Random(dimension);
+		for (int x = 0; x < dimension; x++) {
+			for (int y = 0; y < dimension; y++) {
+				image.setRGB(x, y, random.nextInt());
+			}
+		}
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		ImageIO.write(image, "png", os);
+		return os.toByteArray();
+	}
+
+	private static long percentile(long[] sortedValues, int percentile) {
+		int index = (int) Math.ceil(percentile / 100.0 * sortedValues.length) - 1;
+		return sortedValues[Math.max(0, Math.min(index, sortedValues.length - 1))];
+	}
+
+	private static long toMillis(long nanos) {
+		return TimeUnit.NANOSECONDS.toMillis(nanos);
+	}
+}
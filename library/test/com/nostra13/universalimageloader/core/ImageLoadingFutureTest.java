@@ -0,0 +1,86 @@
+package com.nostra13.universalimageloader.core;
+
+import java.io.IOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.fest.assertions.api.Assertions;
+import org.junit.Test;
+
+import com.nostra13.universalimageloader.core.assist.FailReason;
+import com.nostra13.universalimageloader.core.assist.FailReason.FailType;
+import com.nostra13.universalimageloader.core.assist.LoadingBatch;
+
+public class ImageLoadingFutureTest {
+
+	@Test(expected = TimeoutException.class)
+	public void testGetWaitsForCompletion() throws Exception {
+		ImageLoadingFuture future = new ImageLoadingFuture();
+		future.get(10, TimeUnit.MILLISECONDS);
+	}
+
+	@Test
+	public void testComplete() throws Exception {
+		ImageLoadingFuture future = new ImageLoadingFuture();
+		future.complete(null);
+		future.onTaskFinished();
+
+		Assertions.assertThat(future.isDone()).isTrue();
+		Assertions.assertThat(future.isCancelled()).isFalse();
+		Assertions.assertThat(future.get()).isNull();
+	}
+
+	@Test
+	public void testFail() throws Exception {
+		ImageLoadingFuture future = new ImageLoadingFuture();
+		IOException cause = new IOException();
+		future.fail(new FailReason(FailType.IO_ERROR, cause));
+
+		Assertions.assertThat(future.getFailReason().getType()).isEqualTo(FailType.IO_ERROR);
+		try {
+			future.get();
+			Assertions.fail("ExecutionException expected");
+		} catch (ExecutionException e) {
+			Assertions.assertThat(e.getCause()).isSameAs(cause);
+		}
+	}
+
+	@Test(expected = CancellationException.class)
+	public void testCancel() throws Exception {
+		ImageLoadingFuture future = new ImageLoadingFuture();
+		Assertions.assertThat(future.cancel(false)).isTrue();
+		Assertions.assertThat(future.batch.isCancelled()).isTrue();
+		Assertions.assertThat(future.cancel(false)).isFalse();
+
+		future.complete(null); // is ignored
+		future.get();
+	}
+
+	@Test(expected = CancellationException.class)
+	public void testUnfinishedTaskCancelsFuture() throws Exception {
+		ImageLoadingFuture future = new ImageLoadingFuture();
+		future.onTaskFinished();
+		Assertions.assertThat(future.isCancelled()).isTrue();
+		future.get();
+	}
+
+	@Test
+	public void testCompletionCallbackIsCalledOnce() throws Exception {
+		final AtomicInteger calls = new AtomicInteger();
+		ImageLoadingFuture future = new ImageLoadingFuture(new LoadingBatch(), new ImageLoadingFuture.CompletionCallback() {
+			@Override
+			public void onFinished(ImageLoadingFuture future) {
+				calls.incrementAndGet();
+				Assertions.assertThat(future.isDone()).isTrue();
+			}
+		});
+		future.complete(null);
+		future.cancel(false);
+		future.onTaskFinished();
+
+		Assertions.assertThat(calls.get()).isEqualTo(1);
+	}
+}
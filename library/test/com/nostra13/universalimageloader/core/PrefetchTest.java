@@ -0,0 +1,113 @@
+package com.nostra13.universalimageloader.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.fest.assertions.api.Assertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import com.nostra13.universalimageloader.cache.CacheStats;
+import com.nostra13.universalimageloader.cache.disc.impl.UnlimitedDiscCache;
+import com.nostra13.universalimageloader.core.assist.EngineStats.ExecutorStats;
+import com.nostra13.universalimageloader.core.assist.LoadingBatch;
+import com.nostra13.universalimageloader.core.assist.PrefetchLevel;
+import com.nostra13.universalimageloader.core.download.BaseImageDownloader;
+
+@RunWith(RobolectricTestRunner.class)
+public class PrefetchTest {
+
+	private static final byte[] IMAGE = new byte[] { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 1, 2, 3, 4 };
+	private static final String URI_A = "http://site.com/a.png";
+	private static final String URI_B = "http://site.com/b.png";
+	private static final String BROKEN_URI = "http://site.com/broken.png";
+
+	private final List<String> requestedUris = new CopyOnWriteArrayList<String>();
+	private File cacheDir;
+	private ImageLoader imageLoader;
+
+	@Before
+	public void setUp() throws IOException {
+		cacheDir = File.createTempFile("uil-prefetch", "");
+		cacheDir.delete();
+		cacheDir.mkdirs();
+
+		ImageLoaderConfiguration configuration = new ImageLoaderConfiguration.Builder(Robolectric.application)
+				.discCache(new UnlimitedDiscCache(cacheDir))
+				.imageDownloader(new BaseImageDownloader(Robolectric.application) {
+					@Override
+					protected InputStream getStreamFromNetwork(String imageUri, Object extra) throws IOException {
+						requestedUris.add(imageUri);
+						if (imageUri.equals(BROKEN_URI)) {
+							throw new IOException("Connection is lost");
+						}
+						return new ByteArrayInputStream(IMAGE);
+					}
+				})
+				.build();
+		imageLoader = ImageLoader.getInstance();
+		imageLoader.init(configuration);
+	}
+
+	@After
+	public void tearDown() {
+		imageLoader.clearDiscCache();
+		imageLoader.destroy();
+		cacheDir.delete();
+	}
+
+	@Test
+	public void testPrefetchOnDisc() throws Exception {
+		imageLoader.prefetch(URI_A, null, PrefetchLevel.DISC_ONLY, null);
+		waitForPrefetching();
+
+		CacheStats discCacheStats = imageLoader.getDiscCacheStats();
+		Assertions.assertThat(discCacheStats.getMissCount()).isEqualTo(1);
+		Assertions.assertThat(discCacheStats.getLoadCount()).isEqualTo(1);
+		Assertions.assertThat(imageLoader.getDiscCache().get(URI_A).exists()).isTrue();
+	}
+
+	@Test
+	public void testFailedPrefetchIsNotReportedAsLoaded() throws Exception {
+		imageLoader.prefetch(BROKEN_URI, null, PrefetchLevel.DISC_ONLY, null);
+		waitForPrefetching();
+
+		CacheStats discCacheStats = imageLoader.getDiscCacheStats();
+		Assertions.assertThat(requestedUris).containsOnly(BROKEN_URI);
+		Assertions.assertThat(discCacheStats.getMissCount()).isEqualTo(1);
+		Assertions.assertThat(discCacheStats.getLoadCount()).isEqualTo(0);
+		Assertions.assertThat(cacheDir.list()).isEmpty();
+	}
+
+	@Test
+	public void testCancelledBatchIsNotPrefetched() throws Exception {
+		imageLoader.pause();
+		LoadingBatch batch = imageLoader.prefetch(Arrays.asList(URI_A, URI_B), null, PrefetchLevel.DISC_ONLY);
+		batch.cancel();
+		imageLoader.resume();
+		waitForPrefetching();
+
+		Assertions.assertThat(batch.isCancelled()).isTrue();
+		Assertions.assertThat(requestedUris).isEmpty();
+		Assertions.assertThat(cacheDir.list()).isEmpty();
+	}
+
+	private void waitForPrefetching() throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (System.currentTimeMillis() < deadline) {
+			ExecutorStats stats = imageLoader.getEngineStats().getPrefetchExecutorStats();
+			if (stats.getActiveThreads() == 0 && stats.getQueuedTasks() == 0) return;
+			Thread.sleep(10);
+		}
+		Assertions.fail("Prefetching isn't finished");
+	}
+}
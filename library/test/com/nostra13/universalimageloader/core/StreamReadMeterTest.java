@@ -0,0 +1,65 @@
+package com.nostra13.universalimageloader.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.fest.assertions.api.Assertions;
+import org.junit.Test;
+
+import com.nostra13.universalimageloader.core.download.ImageDownloader;
+
+public class StreamReadMeterTest {
+
+	@Test
+	public void testReadBytesAreCounted() throws Exception {
+		StreamReadMeter meter = new StreamReadMeter();
+		InputStream is = meter.wrap(new ByteArrayInputStream(new byte[100]));
+		is.read();
+		is.skip(9);
+		is.read(new byte[50]);
+		while (is.read(new byte[50]) != -1);
+
+		Assertions.assertThat(meter.getReadBytes()).isEqualTo(100);
+
+		meter.reset();
+		Assertions.assertThat(meter.getReadBytes()).isEqualTo(0);
+		Assertions.assertThat(meter.getReadTime()).isEqualTo(0);
+	}
+
+	@Test
+	public void testOnlyTimeInsideReadingIsMeasured() throws Exception {
+		StreamReadMeter meter = new StreamReadMeter();
+		ImageDownloader downloader = meter.wrap(new ImageDownloader() {
+			@Override
+			public InputStream getStream(String imageUri, Object extra) throws IOException {
+				return new SlowInputStream(new byte[4]);
+			}
+		});
+		InputStream is = downloader.getStream("http://site.com/image.png", null);
+		while (is.read() != -1) {
+			Thread.sleep(50); // decoding
+		}
+
+		// 5 reads take 10 ms each, decoding isn't measured
+		Assertions.assertThat(meter.getReadTime()).isGreaterThanOrEqualTo(50 * 1000000L).isLessThan(200 * 1000000L);
+		Assertions.assertThat(meter.getReadBytes()).isEqualTo(4);
+	}
+
+	private static class SlowInputStream extends ByteArrayInputStream {
+
+		SlowInputStream(byte[] bytes) {
+			super(bytes);
+		}
+
+		@Override
+		public synchronized int read() {
+			try {
+				Thread.sleep(10);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return super.read();
+		}
+	}
+}
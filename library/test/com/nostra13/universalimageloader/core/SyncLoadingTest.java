@@ -0,0 +1,135 @@
+package com.nostra13.universalimageloader.core;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.fest.assertions.api.Assertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.nostra13.universalimageloader.cache.disc.impl.UnlimitedDiscCache;
+import com.nostra13.universalimageloader.core.assist.ImageSize;
+
+@RunWith(RobolectricTestRunner.class)
+public class SyncLoadingTest {
+
+	private static final int MAX_FILE_SIZE = 100;
+
+	private File cacheDir;
+	private UnlimitedDiscCache discCache;
+	private final Semaphore submitted = new Semaphore(0);
+	private final RecordingExecutor executor = new RecordingExecutor();
+	private ImageLoaderEngine engine;
+
+	@Before
+	public void setUp() throws IOException {
+		cacheDir = File.createTempFile("uil-sync", "");
+		cacheDir.delete();
+		cacheDir.mkdirs();
+		discCache = new UnlimitedDiscCache(cacheDir);
+
+		ImageLoaderConfiguration configuration = new ImageLoaderConfiguration.Builder(Robolectric.application)
+				.discCache(discCache)
+				.taskExecutor(executor)
+				.taskExecutorForCachedImages(executor)
+				.taskExecutorForLocalImages(executor)
+				.taskExecutorForAppResources(executor)
+				.build();
+		engine = new ImageLoaderEngine(configuration);
+	}
+
+	@After
+	public void tearDown() {
+		discCache.clear();
+		cacheDir.delete();
+	}
+
+	@Test
+	public void testSmallCachedFileIsLoadedOnCallingThread() throws Exception {
+		cache("http://site.com/small.png", MAX_FILE_SIZE);
+		ImageLoadingFuture future = submitSyncInBackground("http://site.com/small.png");
+
+		Assertions.assertThat(future.isDone()).isTrue();
+		Assertions.assertThat(executor.uris).isEmpty();
+	}
+
+	@Test
+	public void testLargeOrNotCachedFileIsSubmitted() throws Exception {
+		cache("http://site.com/large.png", MAX_FILE_SIZE + 1);
+		submitSyncInBackground("http://site.com/large.png");
+		submitSyncInBackground("http://site.com/notCached.png");
+
+		Assertions.assertThat(submitted.tryAcquire(2, 5, TimeUnit.SECONDS)).isTrue();
+		Assertions.assertThat(executor.uris).containsOnly("http://site.com/large.png", "http://site.com/notCached.png");
+	}
+
+	@Test
+	public void testTaskIsSubmittedWhilePaused() throws Exception {
+		cache("http://site.com/small.png", MAX_FILE_SIZE);
+		engine.pause();
+		submitSyncInBackground("http://site.com/small.png");
+
+		Assertions.assertThat(submitted.tryAcquire(5, TimeUnit.SECONDS)).isTrue();
+		Assertions.assertThat(executor.uris).containsOnly("http://site.com/small.png");
+	}
+
+	@Test
+	public void testHandlerChoice() throws Exception {
+		DisplayImageOptions options = new DisplayImageOptions.Builder().loadCachedImagesSynchronously(MAX_FILE_SIZE).build();
+		Assertions.assertThat(options.getHandlerOrMainThreadHandler().getLooper()).isSameAs(Looper.getMainLooper());
+
+		Handler customHandler = new Handler();
+		options = new DisplayImageOptions.Builder().loadCachedImagesSynchronously(MAX_FILE_SIZE).handler(customHandler).build();
+		Assertions.assertThat(options.getHandlerOrMainThreadHandler()).isSameAs(customHandler);
+	}
+
+	private void cache(String uri, int size) throws IOException {
+		FileOutputStream os = new FileOutputStream(discCache.get(uri));
+		try {
+			os.write(new byte[size]);
+		} finally {
+			os.close();
+		}
+	}
+
+	/** Calls {@link ImageLoaderEngine#submitSync(LoadAndDisplayImageTask, int)} on thread without Looper */
+	private ImageLoadingFuture submitSyncInBackground(String uri) throws InterruptedException {
+		final ImageLoadingFuture future = new ImageLoadingFuture();
+		ImageLoadingInfo imageLoadingInfo = new ImageLoadingInfo(uri, new ImageSize(100, 100), uri, DisplayImageOptions.createSimple(),
+				engine.getLockForUri(uri), future);
+		final LoadAndDisplayImageTask task = new LoadAndDisplayImageTask(engine, imageLoadingInfo, null);
+		Thread thread = new Thread() {
+			@Override
+			public void run() {
+				engine.submitSync(task, MAX_FILE_SIZE);
+			}
+		};
+		thread.start();
+		thread.join();
+		return future;
+	}
+
+	/** Records URIs of submitted tasks instead of executing them */
+	private class RecordingExecutor implements Executor {
+		final List<String> uris = new CopyOnWriteArrayList<String>();
+
+		@Override
+		public void execute(Runnable command) {
+			uris.add(((LoadAndDisplayImageTask) command).getLoadingUri());
+			submitted.release();
+		}
+	}
+}
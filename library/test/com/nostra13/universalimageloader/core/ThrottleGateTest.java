@@ -0,0 +1,96 @@
+package com.nostra13.universalimageloader.core;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.fest.assertions.api.Assertions;
+import org.junit.Test;
+
+public class ThrottleGateTest {
+
+	@Test
+	public void testThrottledGateLimitsConcurrency() throws Exception {
+		ThrottleGate gate = new ThrottleGate(4);
+		gate.throttle(1);
+		gate.enter();
+
+		EnteringThread thread = new EnteringThread(gate);
+		thread.start();
+		Assertions.assertThat(thread.entered.await(200, TimeUnit.MILLISECONDS)).isFalse();
+
+		gate.exit();
+		Assertions.assertThat(thread.entered.await(1, TimeUnit.SECONDS)).isTrue();
+	}
+
+	@Test
+	public void testUnthrottledGateRampsUp() throws Exception {
+		ThrottleGate gate = new ThrottleGate(3);
+		gate.throttle(0);
+
+		EnteringThread[] threads = new EnteringThread[3];
+		AtomicInteger enteredCount = new AtomicInteger();
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new EnteringThread(gate);
+			threads[i].enteredCount = enteredCount;
+			threads[i].start();
+		}
+		Thread.sleep(100);
+		Assertions.assertThat(enteredCount.get()).isEqualTo(0);
+
+		gate.unthrottle();
+		Thread.sleep(ThrottleGate.RAMP_UP_INTERVAL / 2);
+		Assertions.assertThat(enteredCount.get()).isEqualTo(1);
+
+		for (EnteringThread thread : threads) {
+			Assertions.assertThat(thread.entered.await(1, TimeUnit.SECONDS)).isTrue();
+		}
+	}
+
+	@Test
+	public void testWaitingThreadsEnterWhenLimitIsIncreasedOrGateIsReset() throws Exception {
+		ThrottleGate gate = new ThrottleGate(4);
+		gate.throttle(0);
+
+		EnteringThread[] threads = new EnteringThread[3];
+		AtomicInteger enteredCount = new AtomicInteger();
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new EnteringThread(gate);
+			threads[i].enteredCount = enteredCount;
+			threads[i].start();
+		}
+		Thread.sleep(100);
+
+		gate.throttle(1);
+		Thread.sleep(100);
+		Assertions.assertThat(enteredCount.get()).isEqualTo(1);
+
+		gate.reset();
+		for (EnteringThread thread : threads) {
+			Assertions.assertThat(thread.entered.await(1, TimeUnit.SECONDS)).isTrue();
+		}
+		Assertions.assertThat(gate.isThrottled()).isFalse();
+	}
+
+	private static class EnteringThread extends Thread {
+		final ThrottleGate gate;
+		final CountDownLatch entered = new CountDownLatch(1);
+		AtomicInteger enteredCount = new AtomicInteger();
+
+		EnteringThread(ThrottleGate gate) {
+			this.gate = gate;
+			setDaemon(true);
+		}
+
+		@Override
+		public void run() {
+			try {
+				gate.enter();
+				enteredCount.incrementAndGet();
+				entered.countDown();
+			} catch (InterruptedException e) {
+				// finish
+			}
+		}
+	}
+}
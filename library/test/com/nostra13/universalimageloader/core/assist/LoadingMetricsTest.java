@@ -0,0 +1,42 @@
+package com.nostra13.universalimageloader.core.assist;
+
+import org.fest.assertions.api.Assertions;
+import org.junit.Test;
+
+import com.nostra13.universalimageloader.core.assist.LoadingMetrics.Stage;
+
+public class LoadingMetricsTest {
+
+	@Test
+	public void testDurationsAreSummedPerStage() {
+		LoadingMetrics metrics = new LoadingMetrics("http://site.com/image.png", "http://site.com/image.png_100x100");
+		metrics.addDuration(Stage.NETWORK_DOWNLOAD, 3000);
+		metrics.addDuration(Stage.DECODE, 2000);
+		metrics.addDuration(Stage.NETWORK_DOWNLOAD, 1000);
+
+		Assertions.assertThat(metrics.getDuration(Stage.NETWORK_DOWNLOAD)).isEqualTo(4000);
+		Assertions.assertThat(metrics.getDuration(Stage.DECODE)).isEqualTo(2000);
+		Assertions.assertThat(metrics.getDuration(Stage.DISC_READ)).isEqualTo(0);
+		Assertions.assertThat(metrics.getTotalDuration()).isEqualTo(6000);
+	}
+
+	@Test
+	public void testByteCounts() {
+		LoadingMetrics metrics = new LoadingMetrics("http://site.com/image.png", "http://site.com/image.png_100x100");
+		metrics.addDownloadedBytes(100);
+		metrics.addDownloadedBytes(50);
+		metrics.addDiscCacheReadBytes(150);
+
+		Assertions.assertThat(metrics.getDownloadedBytes()).isEqualTo(150);
+		Assertions.assertThat(metrics.getDiscCacheReadBytes()).isEqualTo(150);
+	}
+
+	@Test
+	public void testToStringContainsOnlyHappenedStages() {
+		LoadingMetrics metrics = new LoadingMetrics("http://site.com/image.png", "key");
+		metrics.addDuration(Stage.DISC_READ, 5000);
+		metrics.addDiscCacheReadBytes(10);
+
+		Assertions.assertThat(metrics.toString()).isEqualTo("key: DISC_READ=5us discRead=10");
+	}
+}
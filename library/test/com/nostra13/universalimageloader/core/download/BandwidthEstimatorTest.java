@@ -0,0 +1,62 @@
+package com.nostra13.universalimageloader.core.download;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+import org.fest.assertions.api.Assertions;
+import org.junit.Test;
+
+public class BandwidthEstimatorTest {
+
+	private static final long SECOND = 1000000000L;
+
+	@Test
+	public void testUnknownBandwidth() throws Exception {
+		BandwidthEstimator estimator = new BandwidthEstimator();
+		Assertions.assertThat(estimator.getBandwidth()).isEqualTo(BandwidthEstimator.UNKNOWN);
+
+		estimator.addSample(100, SECOND);
+		Assertions.assertThat(estimator.getBandwidth()).isEqualTo(BandwidthEstimator.UNKNOWN);
+		Assertions.assertThat(estimator.getSampleCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void testMovingAverage() throws Exception {
+		BandwidthEstimator estimator = new BandwidthEstimator();
+		estimator.addSample(100000, SECOND);
+		Assertions.assertThat(estimator.getBandwidth()).isEqualTo(100000);
+
+		estimator.addSample(200000, SECOND);
+		Assertions.assertThat(estimator.getBandwidth()).isEqualTo(130000);
+		Assertions.assertThat(estimator.getSampleCount()).isEqualTo(2);
+
+		estimator.reset();
+		Assertions.assertThat(estimator.getBandwidth()).isEqualTo(BandwidthEstimator.UNKNOWN);
+	}
+
+	@Test
+	public void testWrappedStreamIsMeasuredOnce() throws Exception {
+		BandwidthEstimator estimator = new BandwidthEstimator();
+		InputStream is = estimator.wrap(new ByteArrayInputStream(new byte[64 * 1024]));
+		byte[] buffer = new byte[4096];
+		while (is.read(buffer) != -1);
+		is.close();
+
+		Assertions.assertThat(estimator.getSampleCount()).isEqualTo(1);
+		Assertions.assertThat(estimator.getBandwidth()).isGreaterThan(0);
+	}
+
+	@Test
+	public void testProcessingOfReadDataIsNotMeasured() throws Exception {
+		BandwidthEstimator estimator = new BandwidthEstimator();
+		InputStream is = estimator.wrap(new ByteArrayInputStream(new byte[64 * 1024]));
+		byte[] buffer = new byte[16 * 1024];
+		while (is.read(buffer) != -1) {
+			Thread.sleep(50); // e.g. decoding
+		}
+		is.close();
+
+		// 64 Kb were read much faster than in 50 ms
+		Assertions.assertThat(estimator.getBandwidth()).isGreaterThan(64 * 1024 * 20);
+	}
+}